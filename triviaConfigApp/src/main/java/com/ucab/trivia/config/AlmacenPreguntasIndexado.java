@@ -0,0 +1,203 @@
+package com.ucab.trivia.config;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EstadoPregunta;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Preguntas de gestión indexadas en memoria: por id (índice principal, en orden de inserción) y por estado,
+ * categoría y correo del creador. Cada índice secundario guarda sus preguntas por id, así que agregar, eliminar
+ * o mover una pregunta entre índices cuesta O(1) y consultar un grupo cuesta lo que mide el grupo, no el banco.
+ * Además mantiene un IndiceTextoPreguntas para buscar por palabras en la pregunta y la respuesta.
+ *
+ * El id, el estado, la categoría, el creador, el texto y la respuesta sólo deben cambiarse con los métodos de
+ * esta clase para que los índices no queden desactualizados.
+ */
+public class AlmacenPreguntasIndexado {
+    private final Map<String, PreguntaDetallada> porId = new LinkedHashMap<>();
+    private final Map<EstadoPregunta, Map<String, PreguntaDetallada>> porEstado = new EnumMap<>(EstadoPregunta.class);
+    private final Map<CategoriaTrivia, Map<String, PreguntaDetallada>> porCategoria = new EnumMap<>(CategoriaTrivia.class);
+    private final Map<String, Map<String, PreguntaDetallada>> porCreador = new HashMap<>();
+    private final int[][] conteo = new int[CategoriaTrivia.values().length][EstadoPregunta.values().length]; // categoría, estado
+    private final IndiceTextoPreguntas indiceTexto = new IndiceTextoPreguntas();
+
+    /**
+     * Agrega las preguntas leídas del archivo. Si un id ya existe (o falta), la pregunta recibe un id nuevo
+     * para no perderla al guardar.
+     * @return Cuántas preguntas recibieron un id nuevo.
+     */
+    public int cargar(Collection<PreguntaDetallada> preguntas) {
+        int renombradas = 0;
+        for (PreguntaDetallada p : preguntas) {
+            if (p.getId() == null || porId.containsKey(p.getId())) {
+                p.setId(UUID.randomUUID().toString());
+                renombradas++;
+            }
+            agregar(p);
+        }
+        return renombradas;
+    }
+
+    /**
+     * Agrega una pregunta nueva.
+     * @throws IllegalArgumentException si ya hay una pregunta con su id.
+     */
+    public void agregar(PreguntaDetallada p) {
+        if (porId.containsKey(p.getId())) throw new IllegalArgumentException("Ya existe una pregunta con el ID " + p.getId());
+        porId.put(p.getId(), p);
+        indexar(p);
+        indiceTexto.agregar(p);
+    }
+
+    /**
+     * Pone la pregunta en lugar de la que tenga su id, conservando su posición, o la agrega al final si no existe.
+     * @return La pregunta reemplazada, o null si no existía.
+     */
+    public PreguntaDetallada reemplazar(PreguntaDetallada p) {
+        PreguntaDetallada anterior = porId.get(p.getId());
+        if (anterior != null) desindexar(anterior);
+        porId.put(p.getId(), p);
+        indexar(p);
+        indiceTexto.agregar(p);
+        return anterior;
+    }
+
+    /**
+     * @return La pregunta eliminada, o null si no existía.
+     */
+    public PreguntaDetallada eliminar(String id) {
+        PreguntaDetallada p = porId.remove(id);
+        if (p != null) {
+            desindexar(p);
+            indiceTexto.eliminar(id);
+        }
+        return p;
+    }
+
+    public PreguntaDetallada buscar(String id) {
+        return id == null ? null : porId.get(id);
+    }
+
+    public void cambiarEstado(PreguntaDetallada p, EstadoPregunta nuevoEstado) {
+        desindexar(p);
+        p.setEstado(nuevoEstado);
+        indexar(p);
+    }
+
+    public void cambiarCategoria(PreguntaDetallada p, CategoriaTrivia nuevaCategoria) {
+        desindexar(p);
+        p.setCategoria(nuevaCategoria);
+        indexar(p);
+        indiceTexto.cambiarCategoria(p);
+    }
+
+    /**
+     * Cambia el texto y/o la respuesta (los null no se cambian) y vuelve a indexar sus palabras.
+     */
+    public void cambiarTexto(PreguntaDetallada p, String nuevaPregunta, String nuevaRespuesta) {
+        if (nuevaPregunta != null) p.setPregunta(nuevaPregunta);
+        if (nuevaRespuesta != null) p.setRespuesta(nuevaRespuesta);
+        indiceTexto.actualizar(p);
+    }
+
+    /**
+     * Busca por palabras en la pregunta y la respuesta (ver IndiceTextoPreguntas), de la más a la menos relevante.
+     * @param categoria Sólo preguntas de esta categoría, o null para todas.
+     */
+    public List<IndiceTextoPreguntas.Coincidencia> buscarTexto(String consulta, CategoriaTrivia categoria, int maximo) {
+        return indiceTexto.buscar(consulta, categoria, maximo);
+    }
+
+    public IndiceTextoPreguntas getIndiceTexto() {
+        return indiceTexto;
+    }
+
+    public int tamano() {
+        return porId.size();
+    }
+
+    /**
+     * Todas las preguntas en orden de inserción (vista de sólo lectura).
+     */
+    public Collection<PreguntaDetallada> todas() {
+        return Collections.unmodifiableCollection(porId.values());
+    }
+
+    public List<PreguntaDetallada> porEstado(EstadoPregunta estado) {
+        return copiar(porEstado.get(estado));
+    }
+
+    public List<PreguntaDetallada> porCategoria(CategoriaTrivia categoria) {
+        return copiar(porCategoria.get(categoria));
+    }
+
+    public List<PreguntaDetallada> porCreador(String usuarioCreadorEmail) {
+        return copiar(porCreador.get(usuarioCreadorEmail));
+    }
+
+    /**
+     * Preguntas en el estado dado cuyo creador no es el correo indicado (por ejemplo, las que un usuario puede aprobar).
+     */
+    public List<PreguntaDetallada> porEstadoExcluyendoCreador(EstadoPregunta estado, String usuarioCreadorEmail) {
+        Map<String, PreguntaDetallada> grupo = porEstado.get(estado);
+        if (grupo == null) return new ArrayList<>();
+        List<PreguntaDetallada> resultado = new ArrayList<>(grupo.size());
+        for (PreguntaDetallada p : grupo.values()) {
+            if (p.getUsuarioCreadorEmail() != null && !p.getUsuarioCreadorEmail().equals(usuarioCreadorEmail)) resultado.add(p);
+        }
+        return resultado;
+    }
+
+    public int contar(CategoriaTrivia categoria) {
+        Map<String, PreguntaDetallada> grupo = porCategoria.get(categoria);
+        return grupo == null ? 0 : grupo.size();
+    }
+
+    public int contarPorEstado(EstadoPregunta estado) {
+        Map<String, PreguntaDetallada> grupo = porEstado.get(estado);
+        return grupo == null ? 0 : grupo.size();
+    }
+
+    public int contarPorCreador(String usuarioCreadorEmail) {
+        Map<String, PreguntaDetallada> grupo = porCreador.get(usuarioCreadorEmail);
+        return grupo == null ? 0 : grupo.size();
+    }
+
+    public int contar(CategoriaTrivia categoria, EstadoPregunta estado) {
+        return conteo[categoria.ordinal()][estado.ordinal()];
+    }
+
+    private void indexar(PreguntaDetallada p) {
+        if (p.getEstado() != null) porEstado.computeIfAbsent(p.getEstado(), e -> new LinkedHashMap<>()).put(p.getId(), p);
+        if (p.getCategoria() != null) porCategoria.computeIfAbsent(p.getCategoria(), c -> new LinkedHashMap<>()).put(p.getId(), p);
+        porCreador.computeIfAbsent(p.getUsuarioCreadorEmail(), c -> new LinkedHashMap<>()).put(p.getId(), p);
+        if (p.getCategoria() != null && p.getEstado() != null) conteo[p.getCategoria().ordinal()][p.getEstado().ordinal()]++;
+    }
+
+    private void desindexar(PreguntaDetallada p) {
+        quitar(porEstado.get(p.getEstado()), p);
+        quitar(porCategoria.get(p.getCategoria()), p);
+        Map<String, PreguntaDetallada> delCreador = porCreador.get(p.getUsuarioCreadorEmail());
+        quitar(delCreador, p);
+        if (delCreador != null && delCreador.isEmpty()) porCreador.remove(p.getUsuarioCreadorEmail());
+        if (p.getCategoria() != null && p.getEstado() != null) conteo[p.getCategoria().ordinal()][p.getEstado().ordinal()]--;
+    }
+
+    private static void quitar(Map<String, PreguntaDetallada> grupo, PreguntaDetallada p) {
+        if (grupo != null) grupo.remove(p.getId());
+    }
+
+    private static List<PreguntaDetallada> copiar(Map<String, PreguntaDetallada> grupo) {
+        return grupo == null ? new ArrayList<>() : new ArrayList<>(grupo.values());
+    }
+}
@@ -5,6 +5,8 @@ import com.ucab.trivia.domain.CategoriaTrivia;
 import com.ucab.trivia.domain.EstadoPregunta;
 import com.ucab.trivia.domain.PreguntaDetallada;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +19,8 @@ import java.util.Optional;
  * @since 2025-06-02
  */
 public class AppConfig {
+    private static final int MAXIMO_RESULTADOS_BUSQUEDA = 20;
+
     private final ServicioUsuarios servicioUsuarios;
     private final ServicioPreguntasConfig servicioPreguntasConfig;
     private String emailUsuarioLogueado;
@@ -52,7 +56,10 @@ public class AppConfig {
         switch (opcion) {
             case 1: manejarInicioSesion(); break;
             case 2: manejarRegistroUsuario(); break;
-            case 3: System.exit(0); break;
+            case 3:
+                servicioPreguntasConfig.cerrar();
+                System.exit(0);
+                break;
         }
     }
 
@@ -87,8 +94,11 @@ public class AppConfig {
         ConsolaUtilConfig.mostrarMensaje("\n--- Menú Principal (Usuario: " + emailUsuarioLogueado + ") ---");
         ConsolaUtilConfig.mostrarMensaje("1. Gestión de Preguntas");
         ConsolaUtilConfig.mostrarMensaje("2. Importar Preguntas Originales");
-        ConsolaUtilConfig.mostrarMensaje("3. Cerrar Sesión");
-        int opcion = ConsolaUtilConfig.leerInt("Seleccione una opción", 1, 3);
+        ConsolaUtilConfig.mostrarMensaje("3. Importar Preguntas desde Archivo (JSONL o CSV)");
+        ConsolaUtilConfig.mostrarMensaje("4. Publicar Paquete de Preguntas para el Juego");
+        ConsolaUtilConfig.mostrarMensaje("5. Dividir Banco por Categoría (un archivo por categoría)");
+        ConsolaUtilConfig.mostrarMensaje("6. Cerrar Sesión");
+        int opcion = ConsolaUtilConfig.leerInt("Seleccione una opción", 1, 6);
 
         switch (opcion) {
             case 1: manejarMenuGestionPreguntas(); break;
@@ -97,6 +107,18 @@ public class AppConfig {
                 ConsolaUtilConfig.presionaEnterParaContinuar();
                 break;
             case 3:
+                uiImportarDesdeArchivo();
+                ConsolaUtilConfig.presionaEnterParaContinuar();
+                break;
+            case 4:
+                ConsolaUtilConfig.mostrarMensaje(servicioPreguntasConfig.publicarPaqueteCompilado());
+                ConsolaUtilConfig.presionaEnterParaContinuar();
+                break;
+            case 5:
+                ConsolaUtilConfig.mostrarMensaje(servicioPreguntasConfig.dividirBancoPorCategoria());
+                ConsolaUtilConfig.presionaEnterParaContinuar();
+                break;
+            case 6:
                 emailUsuarioLogueado = null;
                 ConsolaUtilConfig.mostrarMensaje("Sesión cerrada.");
                 ConsolaUtilConfig.presionaEnterParaContinuar();
@@ -104,6 +126,17 @@ public class AppConfig {
         }
     }
 
+    private void uiImportarDesdeArchivo() {
+        ConsolaUtilConfig.limpiarConsola();
+        ConsolaUtilConfig.mostrarMensaje("--- Importar Preguntas desde Archivo ---");
+        ConsolaUtilConfig.mostrarMensaje("JSONL (.jsonl): un objeto por línea con \"pregunta\", \"respuesta\" y \"categoria\".");
+        ConsolaUtilConfig.mostrarMensaje("CSV (.csv): encabezado con las columnas pregunta, respuesta y categoria (separadas por , o ;).");
+        String ruta = ConsolaUtilConfig.leerString("Ruta del archivo (Enter para cancelar)").trim();
+        if (ruta.isEmpty()) { ConsolaUtilConfig.mostrarMensaje("Importación cancelada."); return; }
+        ConsolaUtilConfig.mostrarMensaje("Importando...");
+        ConsolaUtilConfig.mostrarMensaje(servicioPreguntasConfig.importarPreguntasDesdeArchivo(new File(ruta), emailUsuarioLogueado));
+    }
+
     private void manejarMenuGestionPreguntas() {
         boolean continuar = true;
         while (continuar) {
@@ -115,8 +148,10 @@ public class AppConfig {
             ConsolaUtilConfig.mostrarMensaje("4. Consultar Preguntas (Todas)");
             ConsolaUtilConfig.mostrarMensaje("5. Consultar Preguntas por Estado");
             ConsolaUtilConfig.mostrarMensaje("6. Aprobar/Rechazar Preguntas Pendientes");
-            ConsolaUtilConfig.mostrarMensaje("7. Volver al Menú Principal");
-            int opcion = ConsolaUtilConfig.leerInt("Seleccione una opción", 1, 7);
+            ConsolaUtilConfig.mostrarMensaje("7. Moderación por Lote (aprobar, rechazar o eliminar varias)");
+            ConsolaUtilConfig.mostrarMensaje("8. Buscar Preguntas por Palabras");
+            ConsolaUtilConfig.mostrarMensaje("9. Volver al Menú Principal");
+            int opcion = ConsolaUtilConfig.leerInt("Seleccione una opción", 1, 9);
 
             switch (opcion) {
                 case 1: uiAgregarPregunta(); break;
@@ -125,7 +160,9 @@ public class AppConfig {
                 case 4: uiConsultarTodas(); break;
                 case 5: uiConsultarPorEstado(); break;
                 case 6: uiAprobarRechazar(); break;
-                case 7: continuar = false; break;
+                case 7: uiModeracionPorLote(); break;
+                case 8: uiBuscarPreguntas(); break;
+                case 9: continuar = false; break;
             }
             if(continuar) ConsolaUtilConfig.presionaEnterParaContinuar();
         }
@@ -135,13 +172,95 @@ public class AppConfig {
         ConsolaUtilConfig.limpiarConsola();
         ConsolaUtilConfig.mostrarMensaje("--- Agregar Nueva Pregunta ---");
         String texto = ConsolaUtilConfig.leerString("Texto de la pregunta");
-        String respuesta = ConsolaUtilConfig.leerString("Respuesta correcta");
+        String respuesta = ConsolaUtilConfig.leerString("Respuesta correcta (separe respuestas alternativas con |)");
         CategoriaTrivia categoria = uiSeleccionarCategoria(null);
         if (categoria == null) return;
         String resultado = servicioPreguntasConfig.agregarPregunta(texto, respuesta, categoria, emailUsuarioLogueado);
         ConsolaUtilConfig.mostrarMensaje(resultado);
     }
 
+    private void uiBuscarPreguntas() {
+        ConsolaUtilConfig.limpiarConsola();
+        ConsolaUtilConfig.mostrarMensaje("--- Buscar Preguntas ---");
+        ConsolaUtilConfig.mostrarMensaje("Se buscan todas las palabras en la pregunta y la respuesta; termine una palabra con * para buscar por prefijo (ej: napole*).");
+        String consulta = ConsolaUtilConfig.leerString("Palabras a buscar").trim();
+        if (consulta.isEmpty()) { ConsolaUtilConfig.mostrarMensaje("Búsqueda cancelada."); return; }
+        CategoriaTrivia categoria = null;
+        if (ConsolaUtilConfig.leerString("¿Filtrar por categoría? (S/N)").toUpperCase().equals("S")) categoria = uiSeleccionarCategoria(null);
+
+        long inicio = System.nanoTime();
+        List<IndiceTextoPreguntas.Coincidencia> coincidencias = servicioPreguntasConfig.buscarPreguntas(consulta, categoria, MAXIMO_RESULTADOS_BUSQUEDA);
+        double milisegundos = (System.nanoTime() - inicio) / 1e6;
+        if (coincidencias.isEmpty()) {
+            ConsolaUtilConfig.mostrarMensaje("Ninguna pregunta contiene esas palabras.");
+        } else {
+            for (int i = 0; i < coincidencias.size(); i++) {
+                IndiceTextoPreguntas.Coincidencia c = coincidencias.get(i);
+                ConsolaUtilConfig.mostrarMensaje(String.format("%2d. [%.2f] %s [Creador: %s]", i + 1, c.getPuntaje(),
+                        c.getPregunta(), c.getPregunta().getUsuarioCreadorEmail()));
+            }
+        }
+        ConsolaUtilConfig.mostrarMensaje(String.format("\n%d resultados (máximo %d) en %.2f ms. %s", coincidencias.size(),
+                MAXIMO_RESULTADOS_BUSQUEDA, milisegundos, servicioPreguntasConfig.describirIndiceBusqueda()));
+    }
+
+    private void uiModeracionPorLote() {
+        ConsolaUtilConfig.limpiarConsola();
+        ConsolaUtilConfig.mostrarMensaje("--- Moderación por Lote ---");
+        ConsolaUtilConfig.mostrarMensaje("1. Aprobar | 2. Rechazar | 3. Eliminar | 4. Cancelar");
+        int accion = ConsolaUtilConfig.leerInt("Acción", 1, 4);
+        if (accion == 4) return;
+
+        ConsolaUtilConfig.mostrarMensaje("\n¿Qué preguntas?");
+        ConsolaUtilConfig.mostrarMensaje("1. Lista de IDs (separados por comas o espacios)");
+        ConsolaUtilConfig.mostrarMensaje("2. Las de un creador");
+        ConsolaUtilConfig.mostrarMensaje("3. Las de una categoría");
+        ConsolaUtilConfig.mostrarMensaje("4. Las que contienen un texto");
+        ConsolaUtilConfig.mostrarMensaje("5. Todas las pendientes de otros usuarios");
+        int seleccion = ConsolaUtilConfig.leerInt("Selección", 1, 5);
+
+        // Aprobar y rechazar sólo aplican a las pendientes; eliminar, a cualquiera
+        FiltroPreguntas filtro = accion == 3 ? FiltroPreguntas.todas() : FiltroPreguntas.todas().conEstado(EstadoPregunta.ESPERANDO_APROBACION);
+        List<String> ids;
+        switch (seleccion) {
+            case 1:
+                String lista = ConsolaUtilConfig.leerString("IDs").trim();
+                ids = lista.isEmpty() ? List.of() : Arrays.asList(lista.split("[,\\s]+"));
+                break;
+            case 2:
+                ids = servicioPreguntasConfig.seleccionarIds(filtro.conCreador(ConsolaUtilConfig.leerString("Correo del creador").trim()));
+                break;
+            case 3:
+                ids = servicioPreguntasConfig.seleccionarIds(filtro.conCategoria(uiSeleccionarCategoria(null)));
+                break;
+            case 4:
+                // Sin texto, conTexto no filtraría y la selección abarcaría todo el banco
+                String texto = ConsolaUtilConfig.leerString("Texto a buscar").trim();
+                ids = texto.isEmpty() ? List.of() : servicioPreguntasConfig.seleccionarIds(filtro.conTexto(texto));
+                break;
+            default:
+                ids = servicioPreguntasConfig.seleccionarIds(FiltroPreguntas.pendientesDeModerar(emailUsuarioLogueado));
+                break;
+        }
+        if (ids.isEmpty()) { ConsolaUtilConfig.mostrarMensaje("Ninguna pregunta cumple la selección."); return; }
+
+        String verbo = accion == 1 ? "aprobar" : accion == 2 ? "rechazar" : "eliminar";
+        String confirmacion = ConsolaUtilConfig.leerString("¿Seguro que desea " + verbo + " " + ids.size() + " preguntas? (S/N)").toUpperCase();
+        if (!confirmacion.equals("S")) { ConsolaUtilConfig.mostrarMensaje("Operación cancelada."); return; }
+
+        ResultadoLote resultado;
+        if (accion == 1) resultado = servicioPreguntasConfig.cambiarEstadoPreguntas(ids, EstadoPregunta.APROBADA, emailUsuarioLogueado);
+        else if (accion == 2) resultado = servicioPreguntasConfig.cambiarEstadoPreguntas(ids, EstadoPregunta.RECHAZADA, emailUsuarioLogueado);
+        else resultado = servicioPreguntasConfig.eliminarPreguntas(ids);
+        ConsolaUtilConfig.mostrarMensaje(resultado.resumen());
+
+        if (resultado.getFallidos() > 0 && ConsolaUtilConfig.leerString("¿Ver el resultado de cada ID con error? (S/N)").toUpperCase().equals("S")) {
+            resultado.getResultadoPorId().forEach((id, r) -> {
+                if (!resultado.fueAplicado(id)) ConsolaUtilConfig.mostrarMensaje(id + ": " + r);
+            });
+        }
+    }
+
     private CategoriaTrivia uiSeleccionarCategoria(CategoriaTrivia actual) {
         String prompt = "\nSeleccione la categoría";
         if(actual != null) prompt += " (actual: " + actual.getNombreMostrado() + ")";
@@ -0,0 +1,286 @@
+package com.ucab.trivia.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Diario de cambios del banco de gestión: cada alta, modificación, cambio de estado o baja se agrega al final
+ * de un archivo como una línea JSON compacta, así que guardar un cambio cuesta lo que mide la pregunta y no
+ * lo que mide el banco. ServicioPreguntasConfig vuelca el estado completo al banco (compactación) cuando el
+ * diario crece demasiado respecto del banco, y entonces el diario vuelve a empezar; al arrancar, lo que quede
+ * en él se aplica sobre el banco.
+ *
+ * Los registros son idempotentes (PONER deja la pregunta completa, BORRAR la quita), por lo que aplicar un
+ * registro que el banco ya incluía no cambia nada. Eso permite compactar sin detener las escrituras: el diario
+ * se aparta a un segundo archivo, los cambios nuevos van a uno vacío, y el apartado se borra cuando el banco
+ * quedó escrito. Si algo falla a mitad de camino, ambos archivos se aplican en el próximo arranque.
+ */
+public class DiarioPreguntas implements Closeable {
+    public static final String SUFIJO_DIARIO = ".diario";
+    private static final String SUFIJO_EN_COMPACTACION = ".compactando";
+    /** Propiedad del sistema con la política de sincronización (SIEMPRE, PERIODICA o NUNCA). */
+    public static final String PROPIEDAD_SINCRONIZACION = "trivia.diario.sincronizacion";
+    private static final long INTERVALO_SINCRONIZACION_MS = 1000;
+    private static final String PONER = "PONER";
+    private static final String BORRAR = "BORRAR";
+
+    /**
+     * Cuándo se fuerza el diario a disco (fsync) después de escribir.
+     */
+    public enum Sincronizacion {
+        SIEMPRE,   // Tras cada cambio: un corte de luz no pierde nada de lo confirmado
+        PERIODICA, // Como mucho una vez por segundo: se puede perder el último segundo de cambios
+        NUNCA      // Lo decide el sistema operativo; sobrevive al cierre del programa, no a un corte de luz
+    }
+
+    private final File archivo;
+    private final File archivoEnCompactacion;
+    private final Sincronizacion sincronizacion;
+    private final ObjectMapper objectMapper = new ObjectMapper(); // Sin INDENT_OUTPUT: un registro por línea
+    private FileChannel canal;
+    private boolean sinSincronizar;
+    private long ultimaSincronizacionMs;
+
+    /**
+     * @param archivoBanco Archivo del banco; el diario va a su lado con el sufijo ".diario".
+     */
+    public DiarioPreguntas(File archivoBanco, Sincronizacion sincronizacion) throws IOException {
+        this.archivo = new File(archivoBanco.getAbsolutePath() + SUFIJO_DIARIO);
+        this.archivoEnCompactacion = new File(archivo.getAbsolutePath() + SUFIJO_EN_COMPACTACION);
+        this.sincronizacion = sincronizacion;
+        completarUltimaLinea(archivo);
+        this.canal = abrir();
+    }
+
+    /**
+     * La política indicada en la propiedad trivia.diario.sincronizacion, o SIEMPRE si no hay o no es válida.
+     */
+    public static Sincronizacion sincronizacionConfigurada() {
+        String valor = System.getProperty(PROPIEDAD_SINCRONIZACION);
+        if (valor == null || valor.isBlank()) return Sincronizacion.SIEMPRE;
+        try {
+            return Sincronizacion.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("ADVERTENCIA: Sincronización de diario '" + valor + "' no reconocida; se usará SIEMPRE.");
+            return Sincronizacion.SIEMPRE;
+        }
+    }
+
+    /**
+     * Registra el estado actual de la pregunta (alta, modificación o cambio de estado).
+     */
+    public synchronized void registrarCambio(PreguntaDetallada pregunta) throws IOException {
+        registrarCambios(Collections.singletonList(pregunta));
+    }
+
+    /**
+     * Registra varias preguntas con una sola escritura y, como mucho, una sincronización.
+     */
+    public synchronized void registrarCambios(Collection<PreguntaDetallada> preguntas) throws IOException {
+        if (preguntas.isEmpty()) return;
+        ByteArrayOutputStream lineas = new ByteArrayOutputStream(256 * preguntas.size());
+        for (PreguntaDetallada p : preguntas) {
+            lineas.write(objectMapper.writeValueAsBytes(new Registro(PONER, p, null)));
+            lineas.write('\n');
+        }
+        escribir(lineas.toByteArray());
+    }
+
+    public synchronized void registrarEliminacion(String id) throws IOException {
+        registrarEliminaciones(Collections.singletonList(id));
+    }
+
+    /**
+     * Registra varias bajas con una sola escritura y, como mucho, una sincronización.
+     */
+    public synchronized void registrarEliminaciones(Collection<String> ids) throws IOException {
+        if (ids.isEmpty()) return;
+        ByteArrayOutputStream lineas = new ByteArrayOutputStream(64 * ids.size());
+        for (String id : ids) {
+            lineas.write(objectMapper.writeValueAsBytes(new Registro(BORRAR, null, id)));
+            lineas.write('\n');
+        }
+        escribir(lineas.toByteArray());
+    }
+
+    private void escribir(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) canal.write(buffer);
+        sinSincronizar = true;
+        long ahora = System.currentTimeMillis();
+        if (sincronizacion == Sincronizacion.SIEMPRE
+                || (sincronizacion == Sincronizacion.PERIODICA && ahora - ultimaSincronizacionMs >= INTERVALO_SINCRONIZACION_MS)) {
+            forzar(ahora);
+        }
+    }
+
+    /**
+     * Con la política PERIODICA, fuerza a disco lo escrito desde la última sincronización. Se llama
+     * periódicamente desde el hilo de compactación, para que el último cambio no espere al siguiente.
+     */
+    public synchronized void sincronizar() throws IOException {
+        if (sincronizacion == Sincronizacion.PERIODICA && sinSincronizar) forzar(System.currentTimeMillis());
+    }
+
+    private void forzar(long ahora) throws IOException {
+        canal.force(false);
+        sinSincronizar = false;
+        ultimaSincronizacionMs = ahora;
+    }
+
+    /**
+     * Bytes de los cambios que aún no están en el banco: el diario actual más el apartado, si una compactación
+     * no terminó (incluidos los aplicados al arrancar).
+     */
+    public synchronized long getBytesPendientes() throws IOException {
+        return canal.size() + (archivoEnCompactacion.exists() ? archivoEnCompactacion.length() : 0);
+    }
+
+    /**
+     * Aparta el diario actual para compactarlo y empieza uno vacío. Si quedó apartado uno de una compactación
+     * que falló, el actual se agrega a su final, para no perder ninguno de los dos.
+     */
+    public synchronized void iniciarCompactacion() throws IOException {
+        canal.force(false);
+        canal.close();
+        try {
+            if (archivoEnCompactacion.exists()) {
+                completarUltimaLinea(archivoEnCompactacion);
+                try (FileChannel destino = FileChannel.open(archivoEnCompactacion.toPath(), StandardOpenOption.APPEND);
+                     FileChannel origen = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+                    long copiados = 0;
+                    long total = origen.size();
+                    while (copiados < total) copiados += origen.transferTo(copiados, total - copiados, destino);
+                    destino.force(false);
+                }
+                Files.delete(archivo.toPath());
+            } else {
+                Files.move(archivo.toPath(), archivoEnCompactacion.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            canal = abrir();
+        }
+        sinSincronizar = false;
+    }
+
+    /**
+     * Borra el diario apartado, una vez que el banco ya contiene sus cambios.
+     */
+    public synchronized void terminarCompactacion() throws IOException {
+        Files.deleteIfExists(archivoEnCompactacion.toPath());
+    }
+
+    /**
+     * Aplica sobre el almacén los cambios de un diario apartado (si quedó alguno) y del actual, en ese orden.
+     * Las líneas que no se pueden leer (por ejemplo, la última si el programa se cortó mientras la escribía)
+     * se omiten con una advertencia.
+     * @param afectadas Recibe las categorías de las preguntas que cambiaron.
+     * @return Cuántos cambios se aplicaron.
+     */
+    public synchronized int reproducir(AlmacenPreguntasIndexado destino, Set<CategoriaTrivia> afectadas) throws IOException {
+        return reproducir(archivoEnCompactacion, destino, afectadas) + reproducir(archivo, destino, afectadas);
+    }
+
+    private int reproducir(File origen, AlmacenPreguntasIndexado destino, Set<CategoriaTrivia> afectadas) throws IOException {
+        if (!origen.exists()) return 0;
+        int aplicados = 0;
+        int numeroLinea = 0;
+        try (BufferedReader lector = Files.newBufferedReader(origen.toPath(), StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) continue;
+                Registro registro;
+                try {
+                    registro = objectMapper.readValue(linea, Registro.class);
+                } catch (IOException e) {
+                    System.err.println("ADVERTENCIA: Se omitió la línea " + numeroLinea + " ilegible de " + origen.getName() + ".");
+                    continue;
+                }
+                PreguntaDetallada anterior;
+                if (PONER.equals(registro.getOp()) && registro.getPregunta() != null && registro.getPregunta().getId() != null) {
+                    anterior = destino.reemplazar(registro.getPregunta());
+                    if (registro.getPregunta().getCategoria() != null) afectadas.add(registro.getPregunta().getCategoria());
+                } else if (BORRAR.equals(registro.getOp()) && registro.getId() != null) {
+                    anterior = destino.eliminar(registro.getId());
+                } else {
+                    System.err.println("ADVERTENCIA: Se omitió la línea " + numeroLinea + " no válida de " + origen.getName() + ".");
+                    continue;
+                }
+                if (anterior != null && anterior.getCategoria() != null) afectadas.add(anterior.getCategoria());
+                aplicados++;
+            }
+        }
+        return aplicados;
+    }
+
+    private FileChannel abrir() throws IOException {
+        return FileChannel.open(archivo.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Si el programa se cortó a mitad de un registro, el archivo no termina en salto de línea; se agrega uno
+     * para que el siguiente registro no quede pegado a la línea incompleta.
+     */
+    private static void completarUltimaLinea(File f) throws IOException {
+        if (!f.exists() || f.length() == 0) return;
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.seek(raf.length() - 1);
+            if (raf.read() != '\n') raf.write('\n');
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal.isOpen()) {
+            if (sinSincronizar && sincronizacion != Sincronizacion.NUNCA) canal.force(false);
+            canal.close();
+        }
+    }
+
+    /**
+     * Una línea del diario: {"op":"PONER","pregunta":{...}} o {"op":"BORRAR","id":"..."}.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Registro {
+        private String op;
+        private PreguntaDetallada pregunta;
+        private String id;
+
+        public Registro() {}
+
+        public Registro(String op, PreguntaDetallada pregunta, String id) {
+            this.op = op;
+            this.pregunta = pregunta;
+            this.id = id;
+        }
+
+        public String getOp() { return op; }
+        public void setOp(String op) { this.op = op; }
+
+        public PreguntaDetallada getPregunta() { return pregunta; }
+        public void setPregunta(PreguntaDetallada pregunta) { this.pregunta = pregunta; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+    }
+}
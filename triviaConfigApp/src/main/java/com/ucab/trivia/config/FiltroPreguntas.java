@@ -0,0 +1,87 @@
+package com.ucab.trivia.config;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EstadoPregunta;
+import com.ucab.trivia.domain.NormalizadorTexto;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.util.function.Predicate;
+
+/**
+ * Criterios para elegir preguntas en las operaciones por lote de ServicioPreguntasConfig. Los criterios que
+ * no se indican no filtran; los que se indican deben cumplirse todos. Estado, categoría y creador se resuelven
+ * con los índices del banco; el texto, el creador excluido y la condición libre se revisan pregunta por pregunta.
+ */
+public class FiltroPreguntas {
+    private EstadoPregunta estado;
+    private CategoriaTrivia categoria;
+    private String emailCreador;
+    private String emailCreadorExcluido;
+    private String texto; // Normalizado con NormalizadorTexto
+    private Predicate<PreguntaDetallada> condicion;
+
+    /**
+     * Un filtro sin criterios: acepta todas las preguntas.
+     */
+    public static FiltroPreguntas todas() {
+        return new FiltroPreguntas();
+    }
+
+    /**
+     * Las preguntas que esperan aprobación y no creó el usuario dado, es decir, las que puede moderar.
+     */
+    public static FiltroPreguntas pendientesDeModerar(String emailUsuarioGestor) {
+        return new FiltroPreguntas().conEstado(EstadoPregunta.ESPERANDO_APROBACION).excluyendoCreador(emailUsuarioGestor);
+    }
+
+    public FiltroPreguntas conEstado(EstadoPregunta estado) {
+        this.estado = estado;
+        return this;
+    }
+
+    public FiltroPreguntas conCategoria(CategoriaTrivia categoria) {
+        this.categoria = categoria;
+        return this;
+    }
+
+    public FiltroPreguntas conCreador(String emailCreador) {
+        this.emailCreador = emailCreador;
+        return this;
+    }
+
+    public FiltroPreguntas excluyendoCreador(String emailCreador) {
+        this.emailCreadorExcluido = emailCreador;
+        return this;
+    }
+
+    /**
+     * Sólo las preguntas cuyo texto contiene el dado, sin distinguir mayúsculas ni tildes y tomando los signos
+     * como espacios (como el buscador): "bolivar" encuentra "Bolívar". Un texto hecho sólo de signos no
+     * encuentra ninguna pregunta.
+     */
+    public FiltroPreguntas conTexto(String texto) {
+        this.texto = texto == null || texto.isBlank() ? null : NormalizadorTexto.normalizar(texto);
+        return this;
+    }
+
+    /**
+     * Una condición adicional cualquiera.
+     */
+    public FiltroPreguntas cumpliendo(Predicate<PreguntaDetallada> condicion) {
+        this.condicion = condicion;
+        return this;
+    }
+
+    public boolean acepta(PreguntaDetallada p) {
+        if (estado != null && p.getEstado() != estado) return false;
+        if (categoria != null && p.getCategoria() != categoria) return false;
+        if (emailCreador != null && !emailCreador.equals(p.getUsuarioCreadorEmail())) return false;
+        if (emailCreadorExcluido != null && emailCreadorExcluido.equals(p.getUsuarioCreadorEmail())) return false;
+        if (texto != null && (texto.isEmpty() || !NormalizadorTexto.normalizar(p.getPregunta()).contains(texto))) return false;
+        return condicion == null || condicion.test(p);
+    }
+
+    public EstadoPregunta getEstado() { return estado; }
+    public CategoriaTrivia getCategoria() { return categoria; }
+    public String getEmailCreador() { return emailCreador; }
+}
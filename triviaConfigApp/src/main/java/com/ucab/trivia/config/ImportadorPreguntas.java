@@ -0,0 +1,417 @@
+package com.ucab.trivia.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EstadoPregunta;
+import com.ucab.trivia.domain.NormalizadorTexto;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importación masiva de preguntas desde archivos externos, en formato JSON Lines (un objeto por línea, extensión
+ * .jsonl o .ndjson) o CSV con encabezado (extensión .csv, separado por comas o por punto y coma). Cada fila
+ * necesita pregunta, respuesta y categoría; la categoría se acepta por nombre mostrado o por el de la constante
+ * (CategoriaTrivia.fromString). Las aceptadas reciben un id nuevo y quedan ESPERANDO_APROBACION.
+ *
+ * El archivo se lee en bloques de filas: el hilo que importa lee y reparte los bloques entre varios hilos que
+ * validan y arman las preguntas, con pocos bloques en vuelo para que la memoria no dependa del tamaño del archivo
+ * (salvo por las preguntas aceptadas). Los bloques se recogen en el orden del archivo, así que las filas
+ * repetidas se descartan igual que en una lectura secuencial: se queda la primera.
+ */
+public class ImportadorPreguntas {
+    private static final int FILAS_POR_BLOQUE = 2048;
+    private static final int MAXIMO_EJEMPLOS_POR_MOTIVO = 5;
+    private static final String[] COLUMNAS = {"pregunta", "respuesta", "categoria"};
+
+    public enum Formato {
+        JSONL, CSV;
+
+        /**
+         * El formato según la extensión del archivo, o null si no es ninguno de los conocidos.
+         */
+        public static Formato deArchivo(File archivo) {
+            String nombre = archivo.getName().toLowerCase(Locale.ROOT);
+            if (nombre.endsWith(".jsonl") || nombre.endsWith(".ndjson")) return JSONL;
+            if (nombre.endsWith(".csv")) return CSV;
+            return null;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int hilos;
+
+    public ImportadorPreguntas() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ImportadorPreguntas(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+
+    /**
+     * Lee y valida el archivo. No modifica el banco: las preguntas aceptadas quedan en el resultado.
+     * @param existentes Preguntas que ya están en el banco; las filas con la misma pregunta y categoría se rechazan.
+     * @throws IOException Si el archivo no se puede leer o su formato no es reconocido.
+     */
+    public Resultado importar(File archivo, String emailCreador, Collection<PreguntaDetallada> existentes) throws IOException {
+        Formato formato = Formato.deArchivo(archivo);
+        if (formato == null) throw new IOException("Formato no reconocido para " + archivo.getName() + " (se espera .jsonl, .ndjson o .csv).");
+        long inicio = System.nanoTime();
+        Set<String> claves = new HashSet<>(existentes.size() * 2);
+        for (PreguntaDetallada p : existentes) claves.add(clave(p.getCategoria(), p.getPregunta()));
+
+        Resultado resultado = new Resultado();
+        ExecutorService validadores = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "importacion-preguntas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Deque<Future<List<FilaValidada>>> enVuelo = new ArrayDeque<>();
+        try (BufferedReader lector = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            LectorFilas filas = formato == Formato.JSONL ? new LectorJsonl(lector) : new LectorCsv(lector);
+            List<FilaCruda> bloque = new ArrayList<>(FILAS_POR_BLOQUE);
+            FilaCruda fila;
+            while ((fila = filas.siguiente()) != null) {
+                bloque.add(fila);
+                if (bloque.size() < FILAS_POR_BLOQUE) continue;
+                List<FilaCruda> lleno = bloque;
+                enVuelo.add(validadores.submit(() -> validar(lleno, emailCreador)));
+                bloque = new ArrayList<>(FILAS_POR_BLOQUE);
+                if (enVuelo.size() >= hilos * 2) recoger(enVuelo.poll(), claves, resultado);
+            }
+            if (!bloque.isEmpty()) {
+                List<FilaCruda> ultimo = bloque;
+                enVuelo.add(validadores.submit(() -> validar(ultimo, emailCreador)));
+            }
+            while (!enVuelo.isEmpty()) recoger(enVuelo.poll(), claves, resultado);
+        } finally {
+            validadores.shutdownNow();
+        }
+        resultado.duracionNs = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    private void recoger(Future<List<FilaValidada>> bloque, Set<String> claves, Resultado resultado) throws IOException {
+        List<FilaValidada> validadas;
+        try {
+            validadas = bloque.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error al validar las filas: " + e.getCause().getMessage(), e.getCause());
+        }
+        for (FilaValidada v : validadas) {
+            resultado.leidas++;
+            if (v.pregunta == null) {
+                resultado.rechazar(v.numero, v.motivo, v.detalle);
+            } else if (!claves.add(v.clave)) {
+                resultado.rechazar(v.numero, "repetida", "ya existe una pregunta igual en " + v.pregunta.getCategoria());
+            } else {
+                resultado.aceptadas.add(v.pregunta);
+            }
+        }
+    }
+
+    /**
+     * Se ejecuta en los hilos validadores: convierte un bloque de filas en preguntas o motivos de rechazo.
+     */
+    private List<FilaValidada> validar(List<FilaCruda> bloque, String emailCreador) {
+        List<FilaValidada> validadas = new ArrayList<>(bloque.size());
+        for (FilaCruda fila : bloque) {
+            FilaValidada v = new FilaValidada(fila.numero);
+            validadas.add(v);
+            String[] campos = fila.campos;
+            if (fila.faltantes != null) {
+                v.rechazar("columnas incompletas", "falta " + fila.faltantes);
+                continue;
+            }
+            if (campos == null) {
+                try {
+                    JsonNode nodo = objectMapper.readTree(fila.linea);
+                    if (nodo == null || !nodo.isObject()) {
+                        v.rechazar("JSON inválido", "se esperaba un objeto");
+                        continue;
+                    }
+                    campos = new String[COLUMNAS.length];
+                    for (int i = 0; i < COLUMNAS.length; i++) {
+                        JsonNode valor = nodo.get(COLUMNAS[i]);
+                        campos[i] = valor == null || valor.isNull() ? null : valor.asText();
+                    }
+                } catch (JsonProcessingException e) {
+                    v.rechazar("JSON inválido", e.getOriginalMessage());
+                    continue;
+                }
+            }
+            String pregunta = campos[0] == null ? "" : campos[0].trim();
+            String respuesta = campos[1] == null ? "" : campos[1].trim();
+            if (pregunta.isEmpty()) {
+                v.rechazar("pregunta vacía", null);
+                continue;
+            }
+            if (respuesta.isEmpty()) {
+                v.rechazar("respuesta vacía", null);
+                continue;
+            }
+            CategoriaTrivia categoria;
+            try {
+                categoria = CategoriaTrivia.fromString(campos[2] == null ? null : campos[2].trim());
+            } catch (IllegalArgumentException e) {
+                v.rechazar("categoría no reconocida", "'" + campos[2] + "'");
+                continue;
+            }
+            v.pregunta = new PreguntaDetallada(UUID.randomUUID().toString(), pregunta, respuesta, categoria,
+                    EstadoPregunta.ESPERANDO_APROBACION, emailCreador);
+            v.clave = clave(categoria, pregunta);
+        }
+        return validadas;
+    }
+
+    /**
+     * Clave para detectar repetidas: categoría y texto sin mayúsculas, tildes, signos ni espacios de más.
+     */
+    private static String clave(CategoriaTrivia categoria, String pregunta) {
+        return (categoria == null ? "" : categoria.name()) + '|' + NormalizadorTexto.normalizar(pregunta);
+    }
+
+    /**
+     * Una fila tal como se leyó: la línea JSON o los campos del CSV (pregunta, respuesta, categoría).
+     */
+    private static final class FilaCruda {
+        final int numero;
+        final String linea;
+        final String[] campos;
+        final String faltantes; // Columnas del CSV que no llegaron en esta fila, o null
+
+        FilaCruda(int numero, String linea, String[] campos, String faltantes) {
+            this.numero = numero;
+            this.linea = linea;
+            this.campos = campos;
+            this.faltantes = faltantes;
+        }
+    }
+
+    private static final class FilaValidada {
+        final int numero;
+        PreguntaDetallada pregunta; // null si se rechazó
+        String clave;
+        String motivo;
+        String detalle;
+
+        FilaValidada(int numero) {
+            this.numero = numero;
+        }
+
+        void rechazar(String motivo, String detalle) {
+            this.motivo = motivo;
+            this.detalle = detalle;
+        }
+    }
+
+    private interface LectorFilas {
+        /** La siguiente fila, o null al terminar el archivo. */
+        FilaCruda siguiente() throws IOException;
+    }
+
+    /**
+     * Una fila por línea; las líneas en blanco se saltan.
+     */
+    private static final class LectorJsonl implements LectorFilas {
+        private final BufferedReader lector;
+        private int numeroLinea;
+
+        LectorJsonl(BufferedReader lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public FilaCruda siguiente() throws IOException {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (numeroLinea == 1) linea = sinMarcaBom(linea);
+                if (!linea.isBlank()) return new FilaCruda(numeroLinea, linea, null, null);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * CSV con encabezado: los campos pueden ir entre comillas dobles (con "" para una comilla) y entonces
+     * contener el separador o saltos de línea. Las columnas se ubican por nombre, sin importar su orden.
+     * El número de fila que se informa es la línea del archivo donde empieza el registro.
+     */
+    private static final class LectorCsv implements LectorFilas {
+        private final Reader lector;
+        private final int[] posicionColumna = new int[COLUMNAS.length];
+        private char separador = ',';
+        private int numeroLinea = 1;
+        private final StringBuilder campo = new StringBuilder();
+
+        LectorCsv(Reader lector) throws IOException {
+            this.lector = lector;
+            String[] encabezado = leerEncabezado();
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                posicionColumna[i] = -1;
+                for (int j = 0; j < encabezado.length; j++) {
+                    if (NormalizadorTexto.normalizar(encabezado[j]).equals(COLUMNAS[i])) posicionColumna[i] = j;
+                }
+                if (posicionColumna[i] < 0) throw new IOException("El CSV no tiene la columna '" + COLUMNAS[i] + "' en el encabezado.");
+            }
+        }
+
+        /**
+         * Lee la primera línea para decidir el separador (el que más aparezca entre coma y punto y coma)
+         * y la separa en columnas.
+         */
+        private String[] leerEncabezado() throws IOException {
+            StringBuilder linea = new StringBuilder();
+            int c;
+            while ((c = lector.read()) != -1 && c != '\n') linea.append((char) c);
+            numeroLinea++;
+            String texto = sinMarcaBom(linea.toString()).replace("\r", "");
+            if (texto.isBlank()) throw new IOException("El CSV está vacío o no tiene encabezado.");
+            long comas = texto.chars().filter(ch -> ch == ',').count();
+            long puntoYComa = texto.chars().filter(ch -> ch == ';').count();
+            separador = puntoYComa > comas ? ';' : ',';
+            return texto.split(separador == ';' ? ";" : ",", -1);
+        }
+
+        @Override
+        public FilaCruda siguiente() throws IOException {
+            while (true) {
+                int inicio = numeroLinea;
+                List<String> valores = leerRegistro();
+                if (valores == null) return null;
+                if (valores.size() == 1 && valores.get(0).isBlank()) continue; // Línea en blanco
+                String[] campos = new String[COLUMNAS.length];
+                StringJoiner faltantes = new StringJoiner(", ");
+                for (int i = 0; i < COLUMNAS.length; i++) {
+                    if (posicionColumna[i] < valores.size()) campos[i] = valores.get(posicionColumna[i]);
+                    else faltantes.add(COLUMNAS[i]);
+                }
+                return new FilaCruda(inicio, null, campos, faltantes.length() == 0 ? null : faltantes.toString());
+            }
+        }
+
+        private List<String> leerRegistro() throws IOException {
+            int c = leer();
+            if (c == -1) return null;
+            List<String> valores = new ArrayList<>(COLUMNAS.length);
+            campo.setLength(0);
+            boolean entreComillas = false;
+            while (true) {
+                if (entreComillas) {
+                    if (c == -1) throw new IOException("Comillas sin cerrar en el registro que empieza en la línea " + numeroLinea + ".");
+                    if (c == '"') {
+                        int siguiente = leer();
+                        if (siguiente == '"') {
+                            campo.append('"');
+                        } else {
+                            entreComillas = false;
+                            c = siguiente;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') numeroLinea++;
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreComillas = true;
+                } else if (c == separador) {
+                    valores.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    if (c == '\n') numeroLinea++;
+                    valores.add(campo.toString());
+                    return valores;
+                } else if (c != '\r') {
+                    campo.append((char) c);
+                }
+                c = leer();
+            }
+        }
+
+        private int leer() throws IOException {
+            return lector.read();
+        }
+    }
+
+    private static String sinMarcaBom(String linea) {
+        return !linea.isEmpty() && linea.charAt(0) == '\uFEFF' ? linea.substring(1) : linea;
+    }
+
+    /**
+     * Lo que dejó una importación: las preguntas aceptadas y, por cada motivo de rechazo, cuántas filas
+     * lo tuvieron, con el detalle de las primeras.
+     */
+    public static class Resultado {
+        private final List<PreguntaDetallada> aceptadas = new ArrayList<>();
+        private final Map<String, Integer> rechazosPorMotivo = new LinkedHashMap<>();
+        private final Map<String, List<String>> ejemplosPorMotivo = new LinkedHashMap<>();
+        private int leidas;
+        private int rechazadas;
+        private long duracionNs;
+
+        private void rechazar(int numeroFila, String motivo, String detalle) {
+            rechazadas++;
+            rechazosPorMotivo.merge(motivo, 1, Integer::sum);
+            List<String> ejemplos = ejemplosPorMotivo.computeIfAbsent(motivo, m -> new ArrayList<>());
+            if (ejemplos.size() < MAXIMO_EJEMPLOS_POR_MOTIVO) {
+                ejemplos.add("línea " + numeroFila + (detalle == null ? "" : ": " + detalle));
+            }
+        }
+
+        public List<PreguntaDetallada> getAceptadas() { return aceptadas; }
+        public Map<String, Integer> getRechazosPorMotivo() { return rechazosPorMotivo; }
+        /** Las primeras filas rechazadas por cada motivo, con su número de línea y detalle. */
+        public Map<String, List<String>> getEjemplosPorMotivo() { return ejemplosPorMotivo; }
+        public int getLeidas() { return leidas; }
+        public int getRechazadas() { return rechazadas; }
+        public long getDuracionNs() { return duracionNs; }
+
+        public double getFilasPorSegundo() {
+            return duracionNs == 0 ? 0 : leidas / (duracionNs / 1e9);
+        }
+
+        /**
+         * Resumen para mostrar en consola.
+         */
+        public String resumen() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "Filas leídas: %d | aceptadas: %d | rechazadas: %d | %.1f s (%.0f filas/s)",
+                    leidas, aceptadas.size(), rechazadas, duracionNs / 1e9, getFilasPorSegundo()));
+            rechazosPorMotivo.forEach((motivo, cantidad) -> {
+                sb.append("\n  ").append(motivo).append(": ").append(cantidad);
+                List<String> ejemplos = ejemplosPorMotivo.get(motivo);
+                ejemplos.forEach(e -> sb.append("\n    ").append(e));
+                if (cantidad > ejemplos.size()) sb.append("\n    ... y ").append(cantidad - ejemplos.size()).append(" más");
+            });
+            return sb.toString();
+        }
+    }
+}
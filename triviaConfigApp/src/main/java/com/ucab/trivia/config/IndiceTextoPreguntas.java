@@ -0,0 +1,300 @@
+package com.ucab.trivia.config;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.NormalizadorTexto;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido en memoria sobre el texto de las preguntas y sus respuestas, para buscar por palabras.
+ * Las palabras se normalizan con NormalizadorTexto (minúsculas, sin tildes ni signos) y se omiten las más comunes del español.
+ * Cada palabra guarda la lista de preguntas que la contienen y cuántas veces (las de la pregunta pesan el doble
+ * que las de la respuesta); los resultados se ordenan por BM25.
+ *
+ * En una consulta deben aparecer todas las palabras; una palabra terminada en * busca por prefijo (histor*).
+ * Cuesta lo que miden las listas de las palabras buscadas, no el banco.
+ *
+ * Se mantiene al agregar, modificar y eliminar preguntas. Una pregunta eliminada sólo se marca: sus entradas
+ * se ignoran al buscar y se descartan al reconstruir el índice, cuando las eliminadas superan a las vigentes.
+ * Cada palabra lleva aparte la cuenta de preguntas vigentes que la contienen, que es la que usa BM25.
+ * No es seguro para varios hilos; lo usa AlmacenPreguntasIndexado desde el hilo que hace los cambios.
+ */
+public class IndiceTextoPreguntas {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int PESO_PREGUNTA = 2;
+    private static final int PESO_RESPUESTA = 1;
+    private static final int LARGO_MINIMO_PREFIJO = 2;
+    private static final int MINIMO_ELIMINADAS_PARA_RECONSTRUIR = 1024;
+    private static final byte SIN_CATEGORIA = -1;
+    private static final Set<String> PALABRAS_VACIAS = new HashSet<>(Arrays.asList(
+            "a", "al", "con", "cual", "cuales", "de", "del", "el", "en", "es", "fue", "la", "las", "lo", "los",
+            "o", "por", "que", "se", "su", "sus", "un", "una", "y"));
+
+    private final NavigableMap<String, Entradas> terminos = new TreeMap<>();
+    private final Map<String, Integer> documentoPorId = new HashMap<>();
+    private PreguntaDetallada[] documentos = new PreguntaDetallada[64]; // null si se eliminó
+    private Entradas[][] terminosDocumento = new Entradas[64][]; // Las palabras que indexó, para descontarlo al eliminarlo
+    private int[] largo = new int[64];
+    private byte[] categoria = new byte[64];
+    private int cantidadDocumentos;  // Posiciones usadas, incluidas las eliminadas
+    private int eliminados;
+    private long largoTotal;         // De los vigentes, para el largo promedio de BM25
+
+    // Acumuladores de la búsqueda, reutilizados entre consultas
+    private float[] puntaje = new float[64];
+    private int[] gruposCoincidentes = new int[64];
+
+    public void agregar(PreguntaDetallada p) {
+        if (documentoPorId.containsKey(p.getId())) eliminar(p.getId());
+        Map<String, Integer> frecuencias = new HashMap<>();
+        int palabras = contar(p.getPregunta(), PESO_PREGUNTA, frecuencias) + contar(p.getRespuesta(), PESO_RESPUESTA, frecuencias);
+        int doc = nuevoDocumento(p, palabras);
+        Entradas[] suyos = new Entradas[frecuencias.size()];
+        int t = 0;
+        for (Map.Entry<String, Integer> e : frecuencias.entrySet()) {
+            Entradas entradas = terminos.computeIfAbsent(e.getKey(), k -> new Entradas());
+            entradas.agregar(doc, e.getValue());
+            suyos[t++] = entradas;
+        }
+        terminosDocumento[doc] = suyos;
+    }
+
+    /**
+     * Vuelve a indexar la pregunta después de cambiar su texto o su respuesta.
+     */
+    public void actualizar(PreguntaDetallada p) {
+        agregar(p);
+    }
+
+    /**
+     * Actualiza la categoría de la pregunta para el filtro, sin volver a indexar su texto.
+     */
+    public void cambiarCategoria(PreguntaDetallada p) {
+        Integer doc = documentoPorId.get(p.getId());
+        if (doc != null) categoria[doc] = p.getCategoria() == null ? SIN_CATEGORIA : (byte) p.getCategoria().ordinal();
+    }
+
+    public void eliminar(String id) {
+        Integer doc = documentoPorId.remove(id);
+        if (doc == null) return;
+        largoTotal -= largo[doc];
+        for (Entradas entradas : terminosDocumento[doc]) entradas.vigentes--;
+        documentos[doc] = null;
+        terminosDocumento[doc] = null;
+        eliminados++;
+        if (eliminados >= MINIMO_ELIMINADAS_PARA_RECONSTRUIR && eliminados > documentoPorId.size()) reconstruir();
+    }
+
+    /**
+     * Busca las preguntas que contienen todas las palabras de la consulta, ordenadas de mayor a menor puntaje.
+     * @param categoriaFiltro Sólo preguntas de esta categoría, o null para todas.
+     * @param maximo Cuántos resultados devolver como mucho.
+     */
+    public List<Coincidencia> buscar(String consulta, CategoriaTrivia categoriaFiltro, int maximo) {
+        List<Entradas[]> grupos = new ArrayList<>();
+        for (String palabra : consulta.trim().split("\\s+")) {
+            boolean prefijo = palabra.endsWith("*");
+            List<String> tokens = NormalizadorTexto.palabras(prefijo ? palabra.substring(0, palabra.length() - 1) : palabra);
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean esPrefijo = prefijo && i == tokens.size() - 1 && token.length() >= LARGO_MINIMO_PREFIJO;
+                if (!esPrefijo && PALABRAS_VACIAS.contains(token)) continue;
+                Entradas[] grupo = esPrefijo ? terminosConPrefijo(token) : terminoExacto(token);
+                if (grupo.length == 0) return new ArrayList<>(); // Una palabra que no está en ninguna pregunta
+                grupos.add(grupo);
+            }
+        }
+        if (grupos.isEmpty() || maximo <= 0) return new ArrayList<>();
+        // Primero el grupo con menos entradas: los demás sólo suman a las preguntas que ya coinciden
+        grupos.sort((a, b) -> Long.compare(totalEntradas(a), totalEntradas(b)));
+
+        int vigentes = documentoPorId.size();
+        double largoPromedio = vigentes == 0 ? 1 : (double) largoTotal / vigentes;
+        byte filtro = categoriaFiltro == null ? SIN_CATEGORIA : (byte) categoriaFiltro.ordinal();
+        int[] candidatos = new int[16];
+        int cantidadCandidatos = 0;
+        for (int g = 0; g < grupos.size(); g++) {
+            // gruposCoincidentes pasa de g a g+1 una sola vez por grupo: si una pregunta tiene dos palabras
+            // del mismo prefijo, cuenta (y puntúa) sólo la primera
+            for (Entradas entradas : grupos.get(g)) {
+                double idf = Math.log(1 + (vigentes - entradas.vigentes + 0.5) / (entradas.vigentes + 0.5));
+                int[] datos = entradas.datos;
+                for (int k = 0; k < entradas.tamano * 2; k += 2) {
+                    int doc = datos[k];
+                    if (documentos[doc] == null || gruposCoincidentes[doc] != g) continue; // Eliminada, o le falta una palabra anterior
+                    if (filtro != SIN_CATEGORIA && categoria[doc] != filtro) continue;
+                    int tf = datos[k + 1];
+                    puntaje[doc] += (float) (idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * largo[doc] / largoPromedio)));
+                    gruposCoincidentes[doc] = g + 1;
+                    if (g == 0) {
+                        if (cantidadCandidatos == candidatos.length) candidatos = Arrays.copyOf(candidatos, cantidadCandidatos * 2);
+                        candidatos[cantidadCandidatos++] = doc;
+                    }
+                }
+            }
+        }
+
+        int totalGrupos = grupos.size();
+        PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(Coincidencia.PEOR_PRIMERO);
+        for (int c = 0; c < cantidadCandidatos; c++) {
+            int doc = candidatos[c];
+            if (gruposCoincidentes[doc] == totalGrupos) {
+                Coincidencia coincidencia = new Coincidencia(documentos[doc], puntaje[doc], doc);
+                if (mejores.size() < maximo) mejores.add(coincidencia);
+                else if (Coincidencia.PEOR_PRIMERO.compare(coincidencia, mejores.peek()) > 0) {
+                    mejores.poll();
+                    mejores.add(coincidencia);
+                }
+            }
+            puntaje[doc] = 0;
+            gruposCoincidentes[doc] = 0;
+        }
+        List<Coincidencia> resultado = new ArrayList<>(mejores);
+        resultado.sort(Collections.reverseOrder(Coincidencia.PEOR_PRIMERO));
+        return resultado;
+    }
+
+    private Entradas[] terminoExacto(String token) {
+        Entradas entradas = terminos.get(token);
+        return entradas == null || entradas.vigentes == 0 ? new Entradas[0] : new Entradas[]{entradas};
+    }
+
+    private Entradas[] terminosConPrefijo(String prefijo) {
+        return terminos.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false).values().stream()
+                .filter(e -> e.vigentes > 0).toArray(Entradas[]::new);
+    }
+
+    private static long totalEntradas(Entradas[] grupo) {
+        long total = 0;
+        for (Entradas e : grupo) total += e.tamano;
+        return total;
+    }
+
+    private static int contar(String texto, int peso, Map<String, Integer> frecuencias) {
+        int palabras = 0;
+        for (String token : NormalizadorTexto.palabras(texto)) {
+            palabras++;
+            if (!PALABRAS_VACIAS.contains(token)) frecuencias.merge(token, peso, Integer::sum);
+        }
+        return palabras;
+    }
+
+    private int nuevoDocumento(PreguntaDetallada p, int palabras) {
+        if (cantidadDocumentos == documentos.length) {
+            int capacidad = documentos.length * 2;
+            documentos = Arrays.copyOf(documentos, capacidad);
+            terminosDocumento = Arrays.copyOf(terminosDocumento, capacidad);
+            largo = Arrays.copyOf(largo, capacidad);
+            categoria = Arrays.copyOf(categoria, capacidad);
+            puntaje = Arrays.copyOf(puntaje, capacidad);
+            gruposCoincidentes = Arrays.copyOf(gruposCoincidentes, capacidad);
+        }
+        int doc = cantidadDocumentos++;
+        documentos[doc] = p;
+        largo[doc] = palabras;
+        categoria[doc] = p.getCategoria() == null ? SIN_CATEGORIA : (byte) p.getCategoria().ordinal();
+        largoTotal += palabras;
+        documentoPorId.put(p.getId(), doc);
+        return doc;
+    }
+
+    /**
+     * Indexa de nuevo sólo las preguntas vigentes, para liberar las entradas de las eliminadas.
+     */
+    private void reconstruir() {
+        List<PreguntaDetallada> vigentes = new ArrayList<>(documentoPorId.size());
+        for (int doc = 0; doc < cantidadDocumentos; doc++) {
+            if (documentos[doc] != null) vigentes.add(documentos[doc]);
+        }
+        terminos.clear();
+        documentoPorId.clear();
+        int capacidad = Math.max(64, vigentes.size() * 2);
+        documentos = new PreguntaDetallada[capacidad];
+        terminosDocumento = new Entradas[capacidad][];
+        largo = new int[capacidad];
+        categoria = new byte[capacidad];
+        puntaje = new float[capacidad];
+        gruposCoincidentes = new int[capacidad];
+        cantidadDocumentos = 0;
+        eliminados = 0;
+        largoTotal = 0;
+        for (PreguntaDetallada p : vigentes) agregar(p);
+    }
+
+    public int getCantidadPreguntas() {
+        return documentoPorId.size();
+    }
+
+    public int getCantidadTerminos() {
+        return terminos.size();
+    }
+
+    /**
+     * Bytes que ocupa el índice (estimación): palabras con sus listas, el mapa de ids y los arreglos por pregunta.
+     */
+    public long estimarBytes() {
+        long bytes = 0;
+        for (Map.Entry<String, Entradas> e : terminos.entrySet()) {
+            bytes += 40                                    // Entrada del TreeMap
+                    + 24 + 16 + e.getKey().length()        // String y su arreglo (Latin-1)
+                    + 24 + 16 + 4L * e.getValue().datos.length;
+        }
+        for (int doc = 0; doc < cantidadDocumentos; doc++) {
+            if (terminosDocumento[doc] != null) bytes += 16 + 4L * terminosDocumento[doc].length;
+        }
+        bytes += documentoPorId.size() * (32L + 16) + 16 + 4L * Integer.highestOneBit(Math.max(1, documentoPorId.size()) * 2);
+        bytes += documentos.length * (4L + 4 + 4 + 1 + 4 + 4);
+        return bytes;
+    }
+
+    /**
+     * Lista de (pregunta, frecuencia) de una palabra, en pares dentro de un único arreglo.
+     */
+    private static final class Entradas {
+        int[] datos = new int[4];
+        int tamano;   // Pares guardados, incluidos los de preguntas eliminadas
+        int vigentes; // Preguntas vigentes entre ellos
+
+        void agregar(int doc, int frecuencia) {
+            if (tamano * 2 == datos.length) datos = Arrays.copyOf(datos, datos.length * 2);
+            datos[tamano * 2] = doc;
+            datos[tamano * 2 + 1] = frecuencia;
+            tamano++;
+            vigentes++;
+        }
+    }
+
+    /**
+     * Una pregunta encontrada y su puntaje; a igual puntaje va primero la que se indexó antes.
+     */
+    public static final class Coincidencia {
+        static final Comparator<Coincidencia> PEOR_PRIMERO = (a, b) -> a.puntaje != b.puntaje
+                ? Float.compare(a.puntaje, b.puntaje) : Integer.compare(b.orden, a.orden);
+
+        private final PreguntaDetallada pregunta;
+        private final float puntaje;
+        private final int orden;
+
+        Coincidencia(PreguntaDetallada pregunta, float puntaje, int orden) {
+            this.pregunta = pregunta;
+            this.puntaje = puntaje;
+            this.orden = orden;
+        }
+
+        public PreguntaDetallada getPregunta() { return pregunta; }
+        public float getPuntaje() { return puntaje; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ucab.trivia.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado de una operación por lote sobre preguntas: por cada id, en el orden en que se pidieron, si el cambio
+ * se aplicó o el mensaje de error que habría dado la operación individual.
+ */
+public class ResultadoLote {
+    public static final String APLICADO = "Aplicado";
+
+    private final Map<String, String> resultadoPorId = new LinkedHashMap<>();
+    private int aplicados;
+
+    /**
+     * Anota el resultado de un id. Si el id ya estaba en el lote, se conserva el primer resultado.
+     * @return true si es la primera vez que aparece el id.
+     */
+    boolean registrar(String id, String resultado) {
+        if (resultadoPorId.putIfAbsent(id, resultado) != null) return false;
+        if (APLICADO.equals(resultado)) aplicados++;
+        return true;
+    }
+
+    public Map<String, String> getResultadoPorId() {
+        return Collections.unmodifiableMap(resultadoPorId);
+    }
+
+    public boolean fueAplicado(String id) {
+        return APLICADO.equals(resultadoPorId.get(id));
+    }
+
+    public int getAplicados() {
+        return aplicados;
+    }
+
+    public int getFallidos() {
+        return resultadoPorId.size() - aplicados;
+    }
+
+    /**
+     * Totales y, para los que fallaron, cuántos hubo por cada mensaje de error.
+     */
+    public String resumen() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(resultadoPorId.size()).append(" preguntas en el lote: ").append(aplicados).append(" aplicadas, ")
+                .append(getFallidos()).append(" con error.");
+        Map<String, Integer> porError = new LinkedHashMap<>();
+        resultadoPorId.values().forEach(r -> {
+            if (!APLICADO.equals(r)) porError.merge(r, 1, Integer::sum);
+        });
+        porError.forEach((error, cantidad) -> sb.append("\n  ").append(cantidad).append(" x ").append(error));
+        return sb.toString();
+    }
+}
@@ -3,7 +3,9 @@ package com.ucab.trivia.config;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ucab.trivia.domain.BancoFragmentado;
 import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EscritorPaquetePreguntas;
 import com.ucab.trivia.domain.EstadoPregunta;
 import com.ucab.trivia.domain.PreguntaDetallada;
 import com.ucab.trivia.domain.PreguntaOriginal;
@@ -12,34 +14,107 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+/**
+ * Gestión del banco de preguntas. Cada cambio se anota en el DiarioPreguntas (una línea por pregunta) y un hilo
+ * en segundo plano lo vuelca al banco (el JSON completo, o sólo los archivos de las categorías que cambiaron si
+ * el banco está dividido) cuando el diario llega a una fracción del tamaño del banco, así que reescribir el banco
+ * se reparte entre muchos cambios y cada cambio cuesta, en promedio, lo que mide su registro. El juego lee el
+ * banco, así que ve los cambios después de un volcado; publicar el paquete y cerrar el servicio lo hacen en el momento.
+ * Si ya se publicó un paquete compilado, cada volcado lo mantiene vigente: lo vuelve a publicar si cambiaron las
+ * preguntas aprobadas y, si no, sólo actualiza su fecha para que el juego no lo tome por anterior al banco.
+ *
+ * Los cambios y el volcado se sincronizan sobre el servicio; las consultas se hacen desde el mismo hilo que
+ * los cambios, y el hilo de volcado sólo lee las preguntas, así que no necesitan sincronizarse.
+ */
 public class ServicioPreguntasConfig {
     private static final String NOMBRE_ARCHIVO_PREGUNTAS = "banco_preguntas_gestion_compartido.json";
     private static final String RUTA_RECURSO_PREGUNTAS_ORIGINALES = "/preguntasJuegoTrivia.json";
+    private static final int DIVISOR_TAMANO_DIARIO = 4;              // Volcar cuando el diario mida 1/4 del banco...
+    private static final long MINIMO_BYTES_DIARIO_PARA_VOLCAR = 256 * 1024; // ...y al menos esto, para bancos pequeños
+    private static final long INTERVALO_REVISION_MS = 500;
 
     private final ObjectMapper objectMapper;
-    private List<PreguntaDetallada> preguntasGestionadas;
+    private AlmacenPreguntasIndexado preguntasGestionadas; // Indexadas por id, estado, categoría y creador
     private final File archivoDePreguntas;
+    private boolean bancoFragmentado; // Un archivo por categoría más un manifiesto (ver BancoFragmentado)
+    private DiarioPreguntas diario;   // null si no se pudo abrir: entonces cada cambio se vuelca en la siguiente revisión
+    private final Set<CategoriaTrivia> categoriasSinVolcar = EnumSet.noneOf(CategoriaTrivia.class);
+    private boolean hayCambiosSinVolcar;
+    private boolean volcarEnSeguida; // Un cambio no quedó en el diario: volcarlo sin esperar
+    private final Object bloqueoVolcado = new Object(); // Un volcado a la vez
+    private Long huellaPaquetePublicado; // Huella de las aprobadas del paquete publicado (null si no se conoce); protegida por bloqueoVolcado
+    private final Thread hiloVolcado;
+    private final Object avisoHiloVolcado = new Object(); // Despierta al hilo de volcado al cerrar
+    private volatile boolean cerrado;
 
     public ServicioPreguntasConfig() {
+        this(DiarioPreguntas.sincronizacionConfigurada());
+    }
+
+    /**
+     * @param sincronizacion Cuándo se fuerza a disco el diario de cambios.
+     */
+    public ServicioPreguntasConfig(DiarioPreguntas.Sincronizacion sincronizacion) {
         this.objectMapper = new ObjectMapper();
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         this.objectMapper.findAndRegisterModules();
         this.archivoDePreguntas = localizarArchivoDeDatos(NOMBRE_ARCHIVO_PREGUNTAS);
-        this.preguntasGestionadas = cargarPreguntasGestionDesdeArchivo();
+        this.bancoFragmentado = archivoManifiesto().exists();
+        this.preguntasGestionadas = indexar(cargarPreguntasGestionDesdeArchivo());
+        abrirDiario(sincronizacion);
 
-        if (this.preguntasGestionadas.isEmpty()) {
+        if (this.preguntasGestionadas.tamano() == 0) {
             System.out.println("INFO: El banco de preguntas de gestión está vacío. Intentando importación inicial...");
             importarPreguntasDesdeJsonOriginal();
-            this.preguntasGestionadas = cargarPreguntasGestionDesdeArchivo();
         }
+        this.hiloVolcado = new Thread(this::volcarPeriodicamente, "volcado-banco-preguntas");
+        this.hiloVolcado.setDaemon(true);
+        this.hiloVolcado.start();
+    }
+
+    /**
+     * Abre el diario y aplica los cambios que quedaron sin volcar la última vez.
+     */
+    private void abrirDiario(DiarioPreguntas.Sincronizacion sincronizacion) {
+        try {
+            diario = new DiarioPreguntas(archivoDePreguntas, sincronizacion);
+            int aplicados = diario.reproducir(preguntasGestionadas, categoriasSinVolcar);
+            if (aplicados > 0) {
+                System.out.println("INFO: Se aplicaron " + aplicados + " cambios del diario que aún no estaban en el banco.");
+                hayCambiosSinVolcar = true;
+            }
+        } catch (IOException e) {
+            System.err.println("ADVERTENCIA: No se pudo abrir el diario de cambios (" + e.getMessage() + "). Cada cambio reescribirá el banco.");
+            if (diario != null) {
+                try {
+                    diario.close();
+                } catch (IOException ignorada) {
+                    // Ya se informó el error
+                }
+            }
+            diario = null;
+        }
+    }
+
+    private static AlmacenPreguntasIndexado indexar(List<PreguntaDetallada> preguntas) {
+        AlmacenPreguntasIndexado almacen = new AlmacenPreguntasIndexado();
+        int renombradas = almacen.cargar(preguntas);
+        if (renombradas > 0) {
+            System.err.println("ADVERTENCIA: " + renombradas + " preguntas tenían un ID repetido o vacío y recibieron uno nuevo.");
+        }
+        return almacen;
     }
 
     private File localizarArchivoDeDatos(String nombreArchivo) {
@@ -50,7 +125,12 @@ public class ServicioPreguntasConfig {
         return new File("../" + nombreArchivo);
     }
 
+    private File archivoManifiesto() {
+        return BancoFragmentado.archivoManifiesto(archivoDePreguntas.getAbsoluteFile().getParentFile());
+    }
+
     private List<PreguntaDetallada> cargarPreguntasGestionDesdeArchivo() {
+        if (bancoFragmentado) return cargarPreguntasDeFragmentos();
         if (archivoDePreguntas.exists() && archivoDePreguntas.length() > 0) {
             try {
                 return objectMapper.readValue(archivoDePreguntas, new TypeReference<>() {});
@@ -61,25 +141,277 @@ public class ServicioPreguntasConfig {
         return new ArrayList<>();
     }
 
-    private void guardarPreguntasGestionEnArchivo() {
-        File tempFile = new File(archivoDePreguntas.getAbsolutePath() + ".tmp");
+    private List<PreguntaDetallada> cargarPreguntasDeFragmentos() {
+        List<PreguntaDetallada> preguntas = new ArrayList<>();
+        File directorio = archivoManifiesto().getParentFile();
+        try {
+            BancoFragmentado.Manifiesto manifiesto = BancoFragmentado.leerManifiesto(archivoManifiesto());
+            for (BancoFragmentado.Fragmento fragmento : manifiesto.getFragmentos()) {
+                File archivo = new File(directorio, new File(fragmento.getArchivo()).getName());
+                if (archivo.exists() && archivo.length() > 0) {
+                    preguntas.addAll(objectMapper.readValue(archivo, new TypeReference<List<PreguntaDetallada>>() {}));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(">> Error al cargar preguntas del banco por categoría: " + e.getMessage());
+        }
+        return preguntas;
+    }
+
+    /**
+     * Anota en el diario el estado actual de las preguntas y marca sus categorías (y las dadas, por ejemplo
+     * la anterior de una pregunta que cambió de categoría) para el próximo volcado.
+     */
+    private void guardarCambios(Collection<PreguntaDetallada> cambiadas, CategoriaTrivia... otrasAfectadas) {
+        for (PreguntaDetallada p : cambiadas) marcarSinVolcar(p.getCategoria());
+        for (CategoriaTrivia cat : otrasAfectadas) marcarSinVolcar(cat);
+        try {
+            if (diario != null) {
+                diario.registrarCambios(cambiadas);
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println(">> Error al anotar el cambio en el diario: " + e.getMessage() + ". Se guardará el banco completo.");
+        }
+        volcarEnSeguida = true;
+    }
+
+    private void guardarEliminaciones(Collection<PreguntaDetallada> eliminadas) {
+        List<String> ids = new ArrayList<>(eliminadas.size());
+        for (PreguntaDetallada p : eliminadas) {
+            marcarSinVolcar(p.getCategoria());
+            ids.add(p.getId());
+        }
         try {
-            objectMapper.writeValue(tempFile, preguntasGestionadas);
-            Files.move(tempFile.toPath(), archivoDePreguntas.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (Exception e) {
+            if (diario != null) {
+                diario.registrarEliminaciones(ids);
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println(">> Error al anotar el cambio en el diario: " + e.getMessage() + ". Se guardará el banco completo.");
+        }
+        volcarEnSeguida = true;
+    }
+
+    private void marcarSinVolcar(CategoriaTrivia cat) {
+        if (cat != null) categoriasSinVolcar.add(cat);
+        hayCambiosSinVolcar = true;
+    }
+
+    private void volcarPendientes() {
+        try {
+            volcarAlBanco();
+        } catch (IOException e) {
             System.err.println(">> Error al guardar preguntas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hilo de volcado: revisa cada medio segundo si el diario ya mide lo bastante para pasarlo al banco. Espera en
+     * avisoHiloVolcado y no se interrumpe al cerrar: una interrupción durante FileChannel.force cerraría el canal
+     * del diario (ClosedByInterruptException).
+     */
+    private void volcarPeriodicamente() {
+        while (!cerrado) {
+            try {
+                synchronized (avisoHiloVolcado) {
+                    if (!cerrado) avisoHiloVolcado.wait(INTERVALO_REVISION_MS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (cerrado) return;
+            try {
+                boolean volcar;
+                synchronized (this) {
+                    if (diario != null) diario.sincronizar();
+                    volcar = hayCambiosSinVolcar && (volcarEnSeguida || diario == null
+                            || diario.getBytesPendientes() >= Math.max(MINIMO_BYTES_DIARIO_PARA_VOLCAR, medirBanco() / DIVISOR_TAMANO_DIARIO));
+                }
+                if (volcar && !cerrado) volcarAlBanco();
+            } catch (IOException e) {
+                System.err.println(">> Error al guardar preguntas en segundo plano: " + e.getMessage() + ". Se reintentará.");
+            }
+        }
+    }
+
+    /**
+     * Escribe en el banco los cambios pendientes y vacía el diario. Las preguntas se copian con el servicio
+     * bloqueado y se escriben ya sin bloquearlo, así que se pueden seguir haciendo cambios mientras tanto:
+     * esos quedan en el diario nuevo para el próximo volcado.
+     */
+    private void volcarAlBanco() throws IOException {
+        synchronized (bloqueoVolcado) {
+            boolean fragmentado;
+            Set<CategoriaTrivia> categorias = EnumSet.noneOf(CategoriaTrivia.class);
+            Map<CategoriaTrivia, List<PreguntaDetallada>> porCategoria = new EnumMap<>(CategoriaTrivia.class);
+            List<PreguntaDetallada> todas = new ArrayList<>();
+            BancoFragmentado.Manifiesto manifiesto = new BancoFragmentado.Manifiesto();
+            boolean hayPaquete = archivoPaquete().exists();
+            List<PreguntaDetallada> aprobadasParaPaquete = null; // null si el paquete ya tiene las aprobadas actuales
+            long huellaAprobadas = 0;
+            synchronized (this) {
+                if (!hayCambiosSinVolcar) return;
+                if (hayPaquete) {
+                    List<PreguntaDetallada> aprobadas = preguntasGestionadas.porEstado(EstadoPregunta.APROBADA);
+                    huellaAprobadas = huella(aprobadas);
+                    if (!Objects.equals(huellaPaquetePublicado, huellaAprobadas)) aprobadasParaPaquete = copiar(aprobadas);
+                }
+                if (diario != null) diario.iniciarCompactacion();
+                fragmentado = bancoFragmentado;
+                categorias.addAll(categoriasSinVolcar);
+                categoriasSinVolcar.clear();
+                hayCambiosSinVolcar = false;
+                volcarEnSeguida = false;
+                if (fragmentado) {
+                    for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+                        String nombre = BancoFragmentado.nombreFragmento(cat);
+                        if (categorias.contains(cat)) porCategoria.put(cat, copiar(preguntasGestionadas.porCategoria(cat)));
+                        manifiesto.getFragmentos().add(new BancoFragmentado.Fragmento(cat, nombre, preguntasGestionadas.contar(cat),
+                                preguntasGestionadas.contar(cat, EstadoPregunta.APROBADA)));
+                    }
+                } else {
+                    todas = copiar(preguntasGestionadas.todas());
+                }
+            }
+            try {
+                if (fragmentado) guardarFragmentos(porCategoria, manifiesto);
+                else BancoFragmentado.escribirAtomico(objectMapper, todas, archivoDePreguntas);
+            } catch (IOException e) {
+                synchronized (this) {
+                    categoriasSinVolcar.addAll(categorias);
+                    hayCambiosSinVolcar = true;
+                }
+                throw e;
+            }
+            if (diario != null) diario.terminarCompactacion();
+            if (hayPaquete) actualizarPaquete(aprobadasParaPaquete, huellaAprobadas);
+        }
+    }
+
+    /**
+     * Después de escribir el banco: vuelve a publicar el paquete con las aprobadas dadas o, si son null (no
+     * cambiaron), le pone la fecha actual para que siga vigente frente al banco recién escrito.
+     */
+    private void actualizarPaquete(List<PreguntaDetallada> aprobadas, long huellaAprobadas) {
+        File paquete = archivoPaquete();
+        try {
+            if (aprobadas != null) {
+                EscritorPaquetePreguntas.escribir(aprobadas, paquete);
+                huellaPaquetePublicado = huellaAprobadas;
+            } else {
+                Files.setLastModifiedTime(paquete.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            huellaPaquetePublicado = null;
+            System.err.println(">> Error al actualizar el paquete de preguntas compilado: " + e.getMessage() + ". El juego usará el banco hasta el próximo volcado.");
+        }
+    }
+
+    /**
+     * Combina el contenido de las preguntas (sin importar su orden) en un número que cambia cuando se agrega,
+     * quita o modifica alguna.
+     */
+    private static long huella(Collection<PreguntaDetallada> preguntas) {
+        long huella = preguntas.size();
+        for (PreguntaDetallada p : preguntas) {
+            long h = ((long) Objects.hash(p.getId(), p.getPregunta(), p.getRespuesta()) << 32)
+                    ^ (Objects.hash(p.getCategoria(), p.getUsuarioCreadorEmail()) & 0xFFFFFFFFL);
+            h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+            huella += h ^ (h >>> 29);
+        }
+        return huella;
+    }
+
+    private File archivoPaquete() {
+        return new File(archivoDePreguntas.getAbsoluteFile().getParentFile(), EscritorPaquetePreguntas.NOMBRE_ARCHIVO_PAQUETE);
+    }
+
+    /**
+     * Bytes del banco en disco: el JSON completo, o los archivos de las categorías y el manifiesto si está dividido.
+     */
+    private long medirBanco() {
+        if (!bancoFragmentado) return archivoDePreguntas.length();
+        File directorio = archivoManifiesto().getParentFile();
+        long bytes = archivoManifiesto().length();
+        for (CategoriaTrivia cat : CategoriaTrivia.values()) bytes += new File(directorio, BancoFragmentado.nombreFragmento(cat)).length();
+        return bytes;
+    }
+
+    private static List<PreguntaDetallada> copiar(Collection<PreguntaDetallada> preguntas) {
+        List<PreguntaDetallada> copia = new ArrayList<>(preguntas.size());
+        for (PreguntaDetallada p : preguntas) {
+            copia.add(new PreguntaDetallada(p.getId(), p.getPregunta(), p.getRespuesta(), p.getCategoria(), p.getEstado(), p.getUsuarioCreadorEmail()));
+        }
+        return copia;
+    }
+
+    private void guardarFragmentos(Map<CategoriaTrivia, List<PreguntaDetallada>> porCategoria, BancoFragmentado.Manifiesto manifiesto) throws IOException {
+        File directorio = archivoManifiesto().getParentFile();
+        for (Map.Entry<CategoriaTrivia, List<PreguntaDetallada>> e : porCategoria.entrySet()) {
+            BancoFragmentado.escribirAtomico(objectMapper, e.getValue(), new File(directorio, BancoFragmentado.nombreFragmento(e.getKey())));
+        }
+        // El manifiesto va al final: el juego recarga cuando cambia y para entonces los archivos ya están completos
+        manifiesto.setFechaModificacionMs(System.currentTimeMillis());
+        BancoFragmentado.escribirAtomico(objectMapper, manifiesto, archivoManifiesto());
+    }
+
+    /**
+     * Vuelca al banco los cambios pendientes, detiene el hilo de volcado y cierra el diario.
+     * Conviene llamarlo antes de salir; si no se llama, los cambios siguen en el diario y se aplican al volver a abrir.
+     */
+    public void cerrar() {
+        synchronized (avisoHiloVolcado) {
+            cerrado = true;
+            avisoHiloVolcado.notifyAll();
+        }
+        try {
+            hiloVolcado.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        volcarPendientes();
+        synchronized (this) {
+            if (diario == null) return;
             try {
-                if (tempFile.exists()) Files.delete(tempFile.toPath());
-                Files.copy(tempFile.toPath(), archivoDePreguntas.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            } catch (IOException ex) {
-                System.err.println(">> Error en el fallback de guardado: " + ex.getMessage());
+                diario.close();
+            } catch (IOException e) {
+                System.err.println(">> Error al cerrar el diario de cambios: " + e.getMessage());
+            }
+            diario = null;
+        }
+    }
+
+    /**
+     * Pasa el banco a un archivo por categoría más un manifiesto. Desde entonces cada cambio reescribe sólo
+     * el archivo de su categoría, y el juego lee cada categoría cuando la necesita. El banco JSON completo
+     * queda como respaldo y ya no se actualiza.
+     */
+    public String dividirBancoPorCategoria() {
+        if (bancoFragmentado) return "El banco ya está dividido por categoría (" + archivoManifiesto().getPath() + ").";
+        long sinCategoria = preguntasGestionadas.todas().stream().filter(p -> p.getCategoria() == null).count();
+        if (sinCategoria > 0) return "Error: Hay " + sinCategoria + " preguntas sin categoría; asígneles una antes de dividir el banco.";
+        synchronized (this) {
+            bancoFragmentado = true;
+            for (CategoriaTrivia cat : CategoriaTrivia.values()) marcarSinVolcar(cat);
+        }
+        try {
+            volcarAlBanco();
+        } catch (IOException e) {
+            synchronized (bloqueoVolcado) {
+                synchronized (this) {
+                    bancoFragmentado = false;
+                }
             }
+            return "Error al dividir el banco de preguntas: " + e.getMessage();
         }
+        return "Banco dividido en " + CategoriaTrivia.values().length + " archivos por categoría. El archivo " +
+                archivoDePreguntas.getName() + " queda como respaldo y ya no se actualizará.";
     }
 
     public void importarPreguntasDesdeJsonOriginal() {
-        if (!cargarPreguntasGestionDesdeArchivo().isEmpty()) {
-            System.out.println("INFO: El archivo de gestión ya tiene datos. No se re-importará.");
+        if (preguntasGestionadas.tamano() > 0) {
+            System.out.println("INFO: El banco de gestión ya tiene datos. No se re-importará.");
             return;
         }
 
@@ -103,8 +435,10 @@ public class ServicioPreguntasConfig {
             });
 
             if (!importadas.isEmpty()) {
-                this.preguntasGestionadas.addAll(importadas);
-                guardarPreguntasGestionEnArchivo();
+                synchronized (this) {
+                    this.preguntasGestionadas.cargar(importadas);
+                    guardarCambios(importadas);
+                }
                 System.out.println(importadas.size() + " preguntas importadas y guardadas.");
             }
 
@@ -113,66 +447,156 @@ public class ServicioPreguntasConfig {
         }
     }
 
-    public String agregarPregunta(String texto, String resp, CategoriaTrivia cat, String emailCreador) {
+    /**
+     * Importa un archivo JSONL o CSV de preguntas (ver ImportadorPreguntas) y las agrega al banco, aunque ya tenga
+     * preguntas, como ESPERANDO_APROBACION a nombre del usuario. Las filas inválidas o repetidas se rechazan y se
+     * informan con su motivo. Las aceptadas se guardan con una sola escritura del banco, sin pasar por el diario:
+     * si el programa se corta antes de terminar, basta con repetir la importación.
+     * @return El resumen de la importación, o el error si el archivo no se pudo leer.
+     */
+    public String importarPreguntasDesdeArchivo(File archivo, String emailCreador) {
+        if (!archivo.isFile()) return "Error: No se encontró el archivo " + archivo.getPath() + ".";
+        ImportadorPreguntas.Resultado resultado;
+        try {
+            resultado = new ImportadorPreguntas().importar(archivo, emailCreador, preguntasGestionadas.todas());
+        } catch (IOException e) {
+            return "Error al importar " + archivo.getName() + ": " + e.getMessage();
+        }
+        if (resultado.getAceptadas().isEmpty()) return resultado.resumen() + "\nNo se agregó ninguna pregunta.";
+        synchronized (this) {
+            preguntasGestionadas.cargar(resultado.getAceptadas());
+            for (PreguntaDetallada p : resultado.getAceptadas()) marcarSinVolcar(p.getCategoria());
+        }
+        try {
+            volcarAlBanco();
+        } catch (IOException e) {
+            return resultado.resumen() + "\nError al guardar las preguntas importadas (se reintentará en segundo plano): " + e.getMessage();
+        }
+        return resultado.resumen() + "\n" + resultado.getAceptadas().size() + " preguntas agregadas como ESPERANDO_APROBACION.";
+    }
+
+    /**
+     * Compila las preguntas APROBADAS en el paquete binario que el juego mapea en memoria, junto al banco JSON.
+     * El juego sólo usa el paquete mientras no sea más antiguo que el JSON; desde que se publica, cada volcado
+     * lo mantiene vigente (ver volcarAlBanco). Antes se vuelcan al banco los cambios pendientes del diario, para que
+     * el paquete no quede más antiguo que el banco apenas se publica.
+     */
+    public String publicarPaqueteCompilado() {
+        File paquete = archivoPaquete();
+        try {
+            int incluidas;
+            synchronized (bloqueoVolcado) {
+                volcarAlBanco();
+                List<PreguntaDetallada> aprobadas;
+                synchronized (this) {
+                    aprobadas = copiar(preguntasGestionadas.porEstado(EstadoPregunta.APROBADA));
+                }
+                incluidas = EscritorPaquetePreguntas.escribir(aprobadas, paquete);
+                huellaPaquetePublicado = huella(aprobadas);
+            }
+            return "Paquete publicado en " + paquete.getPath() + " con " + incluidas + " preguntas aprobadas (" + (paquete.length() / 1024) + " KB).";
+        } catch (IOException e) {
+            return "Error al publicar el paquete de preguntas: " + e.getMessage();
+        }
+    }
+
+    public synchronized String agregarPregunta(String texto, String resp, CategoriaTrivia cat, String emailCreador) {
         if (texto.trim().isEmpty() || resp.trim().isEmpty() || cat == null) {
             return "Error: Datos inválidos.";
         }
         PreguntaDetallada p = new PreguntaDetallada(UUID.randomUUID().toString(), texto, resp, cat,
                 EstadoPregunta.ESPERANDO_APROBACION, emailCreador);
-        preguntasGestionadas.add(p);
-        guardarPreguntasGestionEnArchivo();
+        preguntasGestionadas.agregar(p);
+        guardarCambios(List.of(p));
         return "Pregunta agregada (ID: " + p.getId() + "). Esperando aprobación.";
     }
 
-    public String modificarPregunta(String id, String nTexto, String nResp, CategoriaTrivia nCat) {
-        Optional<PreguntaDetallada> optP = preguntasGestionadas.stream().filter(p -> p.getId().equals(id)).findFirst();
-        if (optP.isEmpty()) return "Error: Pregunta no encontrada.";
-        PreguntaDetallada p = optP.get();
+    public synchronized String modificarPregunta(String id, String nTexto, String nResp, CategoriaTrivia nCat) {
+        PreguntaDetallada p = preguntasGestionadas.buscar(id);
+        if (p == null) return "Error: Pregunta no encontrada.";
         if (p.getEstado() == EstadoPregunta.APROBADA) return "Error: Preguntas APROBADAS no se pueden modificar.";
+        CategoriaTrivia categoriaAnterior = p.getCategoria();
 
-        if (nTexto != null && !nTexto.trim().isEmpty()) p.setPregunta(nTexto.trim());
-        if (nResp != null && !nResp.trim().isEmpty()) p.setRespuesta(nResp.trim());
-        if (nCat != null) p.setCategoria(nCat);
+        String texto = nTexto != null && !nTexto.trim().isEmpty() ? nTexto.trim() : null;
+        String respuesta = nResp != null && !nResp.trim().isEmpty() ? nResp.trim() : null;
+        if (texto != null || respuesta != null) preguntasGestionadas.cambiarTexto(p, texto, respuesta);
+        if (nCat != null) preguntasGestionadas.cambiarCategoria(p, nCat);
 
-        guardarPreguntasGestionEnArchivo();
+        guardarCambios(List.of(p), categoriaAnterior);
         return "Pregunta ID " + id + " modificada.";
     }
 
-    public String eliminarPregunta(String id) {
-        boolean exito = preguntasGestionadas.removeIf(p -> p.getId().equals(id));
-        if (exito) {
-            guardarPreguntasGestionEnArchivo();
+    public synchronized String eliminarPregunta(String id) {
+        PreguntaDetallada eliminada = preguntasGestionadas.eliminar(id);
+        if (eliminada != null) {
+            guardarEliminaciones(List.of(eliminada));
             return "Pregunta ID " + id + " eliminada.";
         }
         return "Error: Pregunta no encontrada para eliminar.";
     }
 
     public List<PreguntaDetallada> consultarTodasLasPreguntas() {
-        return new ArrayList<>(preguntasGestionadas);
+        return new ArrayList<>(preguntasGestionadas.todas());
     }
 
-    // ... El resto de los métodos (buscar, consultar por estado, cambiar estado) se mantienen igual que en la versión anterior ...
+    // Búsquedas por índice: cuestan lo que mide el resultado, no el banco
     public Optional<PreguntaDetallada> buscarPreguntaPorId(String id) {
-        return preguntasGestionadas.stream().filter(p -> p.getId().equals(id)).findFirst();
+        return Optional.ofNullable(preguntasGestionadas.buscar(id));
     }
 
     public List<PreguntaDetallada> consultarPreguntasPorEstado(EstadoPregunta estado) {
-        return preguntasGestionadas.stream().filter(p -> p.getEstado() == estado).collect(Collectors.toList());
+        return preguntasGestionadas.porEstado(estado);
+    }
+
+    public List<PreguntaDetallada> consultarPreguntasPorCategoria(CategoriaTrivia categoria) {
+        return preguntasGestionadas.porCategoria(categoria);
+    }
+
+    public List<PreguntaDetallada> consultarPreguntasPorCreador(String emailCreador) {
+        return preguntasGestionadas.porCreador(emailCreador);
+    }
+
+    /**
+     * Busca preguntas por palabras de su texto o su respuesta, de la más a la menos relevante. Todas las
+     * palabras deben aparecer; una palabra terminada en * busca por prefijo.
+     * @param categoria Sólo preguntas de esta categoría, o null para todas.
+     */
+    public List<IndiceTextoPreguntas.Coincidencia> buscarPreguntas(String consulta, CategoriaTrivia categoria, int maximo) {
+        return preguntasGestionadas.buscarTexto(consulta, categoria, maximo);
+    }
+
+    /**
+     * Tamaño del índice de búsqueda, para informar cuánta memoria ocupa.
+     */
+    public String describirIndiceBusqueda() {
+        IndiceTextoPreguntas indice = preguntasGestionadas.getIndiceTexto();
+        return String.format("Índice de búsqueda: %d preguntas, %d palabras, ~%.1f MB.", indice.getCantidadPreguntas(),
+                indice.getCantidadTerminos(), indice.estimarBytes() / (1024.0 * 1024.0));
     }
 
     public List<PreguntaDetallada> consultarPreguntasParaAprobar(String emailUsuarioActual) {
-        return preguntasGestionadas.stream()
-                .filter(p -> p.getEstado() == EstadoPregunta.ESPERANDO_APROBACION &&
-                        p.getUsuarioCreadorEmail() != null &&
-                        !p.getUsuarioCreadorEmail().equals(emailUsuarioActual))
-                .collect(Collectors.toList());
+        return preguntasGestionadas.porEstadoExcluyendoCreador(EstadoPregunta.ESPERANDO_APROBACION, emailUsuarioActual);
     }
 
-    public String cambiarEstadoPregunta(String id, EstadoPregunta nuevoEstado, String emailUsuarioGestor) {
+    public synchronized String cambiarEstadoPregunta(String id, EstadoPregunta nuevoEstado, String emailUsuarioGestor) {
         Optional<PreguntaDetallada> optP = buscarPreguntaPorId(id);
         if (optP.isEmpty()) return "Error: Pregunta no encontrada.";
         PreguntaDetallada p = optP.get();
 
+        String error = validarCambioEstado(p, nuevoEstado, emailUsuarioGestor);
+        if (error != null) return error;
+
+        preguntasGestionadas.cambiarEstado(p, nuevoEstado);
+        guardarCambios(List.of(p));
+        return "Pregunta ID " + id + " actualizada al estado: " + nuevoEstado;
+    }
+
+    /**
+     * Reglas para cambiar de estado una pregunta: nadie aprueba ni rechaza las suyas, y sólo se aprueban
+     * o rechazan las que esperan aprobación.
+     * @return El mensaje de error, o null si el cambio está permitido.
+     */
+    private static String validarCambioEstado(PreguntaDetallada p, EstadoPregunta nuevoEstado, String emailUsuarioGestor) {
         if ((nuevoEstado == EstadoPregunta.APROBADA || nuevoEstado == EstadoPregunta.RECHAZADA) &&
                 p.getUsuarioCreadorEmail() != null &&
                 p.getUsuarioCreadorEmail().equals(emailUsuarioGestor)) {
@@ -182,9 +606,79 @@ public class ServicioPreguntasConfig {
         if (p.getEstado() != EstadoPregunta.ESPERANDO_APROBACION && (nuevoEstado == EstadoPregunta.APROBADA || nuevoEstado == EstadoPregunta.RECHAZADA)) {
             return "Error: Solo se pueden aprobar o rechazar preguntas que estén en 'ESPERANDO_APROBACION'.";
         }
+        return null;
+    }
 
-        p.setEstado(nuevoEstado);
-        guardarPreguntasGestionEnArchivo();
-        return "Pregunta ID " + id + " actualizada al estado: " + nuevoEstado;
+    // --- Operaciones por lote: las mismas reglas que las individuales, un resultado por id y una sola escritura ---
+
+    /**
+     * Cambia el estado de varias preguntas. Cada una se valida como en cambiarEstadoPregunta; las que no
+     * cumplen las reglas quedan como estaban, con su error en el resultado. Los cambios aplicados se anotan
+     * en el diario con una sola escritura.
+     */
+    public synchronized ResultadoLote cambiarEstadoPreguntas(Collection<String> ids, EstadoPregunta nuevoEstado, String emailUsuarioGestor) {
+        ResultadoLote resultado = new ResultadoLote();
+        List<PreguntaDetallada> cambiadas = new ArrayList<>();
+        for (String id : ids) {
+            PreguntaDetallada p = preguntasGestionadas.buscar(id);
+            String error = p == null ? "Error: Pregunta no encontrada." : validarCambioEstado(p, nuevoEstado, emailUsuarioGestor);
+            if (!resultado.registrar(id, error == null ? ResultadoLote.APLICADO : error) || error != null) continue;
+            preguntasGestionadas.cambiarEstado(p, nuevoEstado);
+            cambiadas.add(p);
+        }
+        if (!cambiadas.isEmpty()) guardarCambios(cambiadas);
+        return resultado;
+    }
+
+    /**
+     * Cambia el estado de las preguntas que cumplen el filtro (ver seleccionarIds).
+     */
+    public ResultadoLote cambiarEstadoPreguntas(FiltroPreguntas filtro, EstadoPregunta nuevoEstado, String emailUsuarioGestor) {
+        return cambiarEstadoPreguntas(seleccionarIds(filtro), nuevoEstado, emailUsuarioGestor);
+    }
+
+    /**
+     * Elimina varias preguntas y anota las bajas en el diario con una sola escritura.
+     */
+    public synchronized ResultadoLote eliminarPreguntas(Collection<String> ids) {
+        ResultadoLote resultado = new ResultadoLote();
+        List<PreguntaDetallada> eliminadas = new ArrayList<>();
+        for (String id : ids) {
+            PreguntaDetallada p = preguntasGestionadas.buscar(id);
+            if (!resultado.registrar(id, p == null ? "Error: Pregunta no encontrada para eliminar." : ResultadoLote.APLICADO) || p == null) continue;
+            preguntasGestionadas.eliminar(id);
+            eliminadas.add(p);
+        }
+        if (!eliminadas.isEmpty()) guardarEliminaciones(eliminadas);
+        return resultado;
+    }
+
+    public ResultadoLote eliminarPreguntas(FiltroPreguntas filtro) {
+        return eliminarPreguntas(seleccionarIds(filtro));
+    }
+
+    /**
+     * Ids de las preguntas que cumplen el filtro, en el orden del banco. Se recorre sólo el grupo más chico
+     * entre los índices que el filtro permite usar (creador, categoría o estado).
+     */
+    public List<String> seleccionarIds(FiltroPreguntas filtro) {
+        int porCreador = filtro.getEmailCreador() == null ? Integer.MAX_VALUE : preguntasGestionadas.contarPorCreador(filtro.getEmailCreador());
+        int porCategoria = filtro.getCategoria() == null ? Integer.MAX_VALUE : preguntasGestionadas.contar(filtro.getCategoria());
+        int porEstado = filtro.getEstado() == null ? Integer.MAX_VALUE : preguntasGestionadas.contarPorEstado(filtro.getEstado());
+        Collection<PreguntaDetallada> candidatas;
+        if (porCreador <= porCategoria && porCreador <= porEstado && porCreador != Integer.MAX_VALUE) {
+            candidatas = preguntasGestionadas.porCreador(filtro.getEmailCreador());
+        } else if (porCategoria <= porEstado && porCategoria != Integer.MAX_VALUE) {
+            candidatas = preguntasGestionadas.porCategoria(filtro.getCategoria());
+        } else if (porEstado != Integer.MAX_VALUE) {
+            candidatas = preguntasGestionadas.porEstado(filtro.getEstado());
+        } else {
+            candidatas = preguntasGestionadas.todas();
+        }
+        List<String> ids = new ArrayList<>();
+        for (PreguntaDetallada p : candidatas) {
+            if (filtro.acepta(p)) ids.add(p.getId());
+        }
+        return ids;
     }
 }
\ No newline at end of file
@@ -0,0 +1,292 @@
+package com.ucab.trivia.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Preguntas guardadas por columnas en lugar de un objeto por pregunta, para bancos muy grandes:
+ * <ul>
+ *   <li>el id, si es un UUID en minúsculas, como dos long (los demás ids van como texto en la arena);</li>
+ *   <li>categoría y estado como un byte (su ordinal);</li>
+ *   <li>el correo del creador como índice en un diccionario, porque se repite mucho;</li>
+ *   <li>pregunta y respuesta en UTF-8, una detrás de otra, en una única arena de bytes; detrás de la respuesta
+ *   puede ir su forma normalizada para comparar respuestas (nada si coincide con la respuesta).</li>
+ * </ul>
+ * obtener(i) arma una PreguntaDetallada nueva con los datos de la posición; es una copia, así que modificarla
+ * no cambia el almacén. Sólo se agregan preguntas; una vez lleno puede leerse desde varios hilos.
+ */
+public class AlmacenPreguntasCompacto {
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+    private static final EstadoPregunta[] ESTADOS = EstadoPregunta.values();
+    private static final byte NINGUNO = -1;
+    // Marcas por pregunta
+    private static final byte ID_NULO = 1;
+    private static final byte ID_TEXTO = 2;       // idAlto = inicio en la arena, idBajo = largo
+    private static final byte PREGUNTA_NULA = 4;
+    private static final byte RESPUESTA_NULA = 8;
+    private static final byte SIN_NORMALIZADA = 16;
+    private static final byte NORMALIZADA_IGUAL = 32; // La forma normalizada es la misma respuesta
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private long[] idAlto;
+    private long[] idBajo;
+    private byte[] marcas;
+    private byte[] categoria;
+    private byte[] estado;
+    private int[] creador;           // Índice en creadores, o -1
+    private int[] inicioPregunta;    // En la arena
+    private int[] inicioRespuesta;
+    private int[] finRespuesta;      // La forma normalizada, si hay, va de aquí al inicio del siguiente registro (o a largoArena)
+    private byte[] arena;
+    private int largoArena;
+    private int cantidad;
+    private final List<String> creadores = new ArrayList<>();
+    private final Map<String, Integer> indiceCreador = new HashMap<>();
+
+    public AlmacenPreguntasCompacto() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public AlmacenPreguntasCompacto(int capacidadEstimada) {
+        int capacidad = Math.max(1, capacidadEstimada);
+        this.idAlto = new long[capacidad];
+        this.idBajo = new long[capacidad];
+        this.marcas = new byte[capacidad];
+        this.categoria = new byte[capacidad];
+        this.estado = new byte[capacidad];
+        this.creador = new int[capacidad];
+        this.inicioPregunta = new int[capacidad];
+        this.inicioRespuesta = new int[capacidad];
+        this.finRespuesta = new int[capacidad];
+        this.arena = new byte[capacidad * 64];
+    }
+
+    /**
+     * Agrega una copia de la pregunta al final.
+     * @return Su posición en el almacén.
+     */
+    public int agregar(PreguntaDetallada pregunta) {
+        return agregar(pregunta.getId(), pregunta.getPregunta(), pregunta.getRespuesta(), pregunta.getCategoria(),
+                pregunta.getEstado(), pregunta.getUsuarioCreadorEmail());
+    }
+
+    /**
+     * Agrega una pregunta a partir de sus campos, sin necesidad de crear antes la PreguntaDetallada.
+     * @return Su posición en el almacén.
+     */
+    public int agregar(String id, String pregunta, String respuesta, CategoriaTrivia cat, EstadoPregunta est, String usuarioCreadorEmail) {
+        return agregar(id, pregunta, respuesta, null, cat, est, usuarioCreadorEmail);
+    }
+
+    /**
+     * Agrega una pregunta junto con la forma normalizada de su respuesta (null para no guardarla), que después
+     * devuelve getRespuestaNormalizada sin volver a calcularla.
+     * @return Su posición en el almacén.
+     */
+    public int agregar(String id, String pregunta, String respuesta, String respuestaNormalizada, CategoriaTrivia cat,
+                       EstadoPregunta est, String usuarioCreadorEmail) {
+        if (cantidad == marcas.length) crecer(Math.max(CAPACIDAD_INICIAL, cantidad * 2));
+        int i = cantidad;
+        byte marca = 0;
+        if (id == null) {
+            marca |= ID_NULO;
+        } else if (!guardarUuid(i, id)) {
+            marca |= ID_TEXTO;
+            idAlto[i] = largoArena;
+            idBajo[i] = escribirTexto(id);
+        }
+        inicioPregunta[i] = largoArena;
+        if (pregunta == null) marca |= PREGUNTA_NULA;
+        else escribirTexto(pregunta);
+        inicioRespuesta[i] = largoArena;
+        if (respuesta == null) marca |= RESPUESTA_NULA;
+        else escribirTexto(respuesta);
+        finRespuesta[i] = largoArena;
+        if (respuestaNormalizada == null) marca |= SIN_NORMALIZADA;
+        else if (respuestaNormalizada.equals(respuesta)) marca |= NORMALIZADA_IGUAL;
+        else escribirTexto(respuestaNormalizada);
+        marcas[i] = marca;
+        categoria[i] = cat == null ? NINGUNO : (byte) cat.ordinal();
+        estado[i] = est == null ? NINGUNO : (byte) est.ordinal();
+        creador[i] = usuarioCreadorEmail == null ? NINGUNO : indiceCreador.computeIfAbsent(usuarioCreadorEmail, correo -> {
+            creadores.add(correo);
+            return creadores.size() - 1;
+        });
+        cantidad++;
+        return i;
+    }
+
+    /**
+     * Arma la pregunta de la posición dada.
+     */
+    public PreguntaDetallada obtener(int i) {
+        return new PreguntaDetallada(getId(i), getPregunta(i), getRespuesta(i), getCategoria(i), getEstado(i), getUsuarioCreadorEmail(i));
+    }
+
+    public int tamano() {
+        return cantidad;
+    }
+
+    public String getId(int i) {
+        comprobarIndice(i);
+        if ((marcas[i] & ID_NULO) != 0) return null;
+        if ((marcas[i] & ID_TEXTO) != 0) return leerTexto((int) idAlto[i], (int) idBajo[i]);
+        return new UUID(idAlto[i], idBajo[i]).toString();
+    }
+
+    public String getPregunta(int i) {
+        comprobarIndice(i);
+        if ((marcas[i] & PREGUNTA_NULA) != 0) return null;
+        return leerTexto(inicioPregunta[i], inicioRespuesta[i] - inicioPregunta[i]);
+    }
+
+    public String getRespuesta(int i) {
+        comprobarIndice(i);
+        if ((marcas[i] & RESPUESTA_NULA) != 0) return null;
+        return leerTexto(inicioRespuesta[i], finRespuesta[i] - inicioRespuesta[i]);
+    }
+
+    /**
+     * Forma normalizada de la respuesta guardada al agregarla, o null si no se guardó.
+     */
+    public String getRespuestaNormalizada(int i) {
+        comprobarIndice(i);
+        if ((marcas[i] & SIN_NORMALIZADA) != 0) return null;
+        if ((marcas[i] & NORMALIZADA_IGUAL) != 0) return getRespuesta(i);
+        int fin = i + 1 < cantidad ? finDeRegistro(i) : largoArena;
+        return leerTexto(finRespuesta[i], fin - finRespuesta[i]);
+    }
+
+    public CategoriaTrivia getCategoria(int i) {
+        comprobarIndice(i);
+        return categoria[i] == NINGUNO ? null : CATEGORIAS[categoria[i]];
+    }
+
+    public EstadoPregunta getEstado(int i) {
+        comprobarIndice(i);
+        return estado[i] == NINGUNO ? null : ESTADOS[estado[i]];
+    }
+
+    /**
+     * Correo del creador; todas las preguntas de un mismo creador devuelven la misma instancia.
+     */
+    public String getUsuarioCreadorEmail(int i) {
+        comprobarIndice(i);
+        return creador[i] == NINGUNO ? null : creadores.get(creador[i]);
+    }
+
+    public int getCantidadCreadores() {
+        return creadores.size();
+    }
+
+    /**
+     * Vista de sólo lectura como lista; cada get arma la pregunta de nuevo.
+     */
+    public List<PreguntaDetallada> comoLista() {
+        return new Vista();
+    }
+
+    /**
+     * Ajusta los arreglos al contenido para no retener la capacidad sobrante. Conviene llamarlo al terminar de cargar.
+     */
+    public void recortar() {
+        crecer(cantidad);
+        arena = Arrays.copyOf(arena, largoArena);
+    }
+
+    /**
+     * Bytes que ocupan las columnas, la arena y el diccionario de creadores (estimación).
+     */
+    public long estimarBytesRetenidos() {
+        long bytes = 16L * 8 + 8L * (idAlto.length + idBajo.length) + marcas.length + categoria.length + estado.length
+                + 4L * (creador.length + inicioPregunta.length + inicioRespuesta.length + finRespuesta.length) + arena.length;
+        for (String correo : creadores) bytes += 40 + 16 + correo.length() + 32; // Cadena y entrada del diccionario
+        return bytes;
+    }
+
+    private int finDeRegistro(int i) {
+        // La siguiente pregunta puede empezar con su id textual, que se escribe antes que su pregunta
+        return (marcas[i + 1] & ID_TEXTO) != 0 ? (int) idAlto[i + 1] : inicioPregunta[i + 1];
+    }
+
+    /**
+     * Guarda el id como dos long si es un UUID canónico (36 caracteres, en minúsculas), para que al leerlo
+     * se obtenga exactamente el mismo texto.
+     */
+    private boolean guardarUuid(int i, String id) {
+        if (id.length() != 36) return false;
+        long alto = 0;
+        long bajo = 0;
+        int digitos = 0;
+        for (int k = 0; k < 36; k++) {
+            char c = id.charAt(k);
+            if (k == 8 || k == 13 || k == 18 || k == 23) {
+                if (c != '-') return false;
+                continue;
+            }
+            int valor;
+            if (c >= '0' && c <= '9') valor = c - '0';
+            else if (c >= 'a' && c <= 'f') valor = c - 'a' + 10;
+            else return false;
+            if (digitos < 16) alto = (alto << 4) | valor;
+            else bajo = (bajo << 4) | valor;
+            digitos++;
+        }
+        idAlto[i] = alto;
+        idBajo[i] = bajo;
+        return true;
+    }
+
+    private int escribirTexto(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (largoArena + bytes.length > arena.length) {
+            long necesaria = Math.max((long) arena.length * 2, (long) largoArena + bytes.length);
+            if ((long) largoArena + bytes.length > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("El almacén de preguntas superó los 2 GB de texto.");
+            }
+            arena = Arrays.copyOf(arena, (int) Math.min(necesaria, Integer.MAX_VALUE - 8));
+        }
+        System.arraycopy(bytes, 0, arena, largoArena, bytes.length);
+        largoArena += bytes.length;
+        return bytes.length;
+    }
+
+    private String leerTexto(int inicio, int largo) {
+        return new String(arena, inicio, largo, StandardCharsets.UTF_8);
+    }
+
+    private void crecer(int capacidad) {
+        idAlto = Arrays.copyOf(idAlto, capacidad);
+        idBajo = Arrays.copyOf(idBajo, capacidad);
+        marcas = Arrays.copyOf(marcas, capacidad);
+        categoria = Arrays.copyOf(categoria, capacidad);
+        estado = Arrays.copyOf(estado, capacidad);
+        creador = Arrays.copyOf(creador, capacidad);
+        inicioPregunta = Arrays.copyOf(inicioPregunta, capacidad);
+        inicioRespuesta = Arrays.copyOf(inicioRespuesta, capacidad);
+        finRespuesta = Arrays.copyOf(finRespuesta, capacidad);
+    }
+
+    private void comprobarIndice(int i) {
+        if (i < 0 || i >= cantidad) throw new IndexOutOfBoundsException("Índice " + i + " fuera del almacén de " + cantidad + " preguntas.");
+    }
+
+    private final class Vista extends AbstractList<PreguntaDetallada> implements RandomAccess {
+        @Override
+        public PreguntaDetallada get(int index) {
+            return obtener(index);
+        }
+
+        @Override
+        public int size() {
+            return cantidad;
+        }
+    }
+}
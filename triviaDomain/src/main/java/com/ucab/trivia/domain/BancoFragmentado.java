@@ -0,0 +1,120 @@
+package com.ucab.trivia.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formato opcional del banco de preguntas dividido por categoría: un archivo JSON por CategoriaTrivia, con el
+ * mismo arreglo de preguntas que el banco completo, y un manifiesto pequeño que los enumera. AppConfig reescribe
+ * sólo el archivo de la categoría que cambió y después el manifiesto; el juego abre el manifiesto y lee cada
+ * categoría la primera vez que la necesita.
+ *
+ * El manifiesto se escribe siempre al final, así que su fecha es la del último cambio del banco.
+ */
+public final class BancoFragmentado {
+    public static final String NOMBRE_MANIFIESTO = "banco_preguntas_manifiesto.json";
+    public static final int VERSION = 1;
+
+    private BancoFragmentado() {}
+
+    /**
+     * Nombre del archivo de una categoría, por ejemplo banco_preguntas_arte_literatura.json.
+     */
+    public static String nombreFragmento(CategoriaTrivia categoria) {
+        return "banco_preguntas_" + categoria.name().toLowerCase(Locale.ROOT) + ".json";
+    }
+
+    public static File archivoManifiesto(File directorio) {
+        return new File(directorio, NOMBRE_MANIFIESTO);
+    }
+
+    public static Manifiesto leerManifiesto(File archivoManifiesto) throws IOException {
+        Manifiesto manifiesto = new ObjectMapper().readValue(archivoManifiesto, Manifiesto.class);
+        if (manifiesto.getVersion() != VERSION) {
+            throw new IOException("Versión de manifiesto no soportada: " + manifiesto.getVersion());
+        }
+        return manifiesto;
+    }
+
+    /**
+     * Escribe el valor como JSON en un archivo temporal y lo renombra sobre el destino, para que ningún lector
+     * vea un archivo a medio escribir.
+     */
+    public static void escribirAtomico(ObjectMapper objectMapper, Object valor, File destino) throws IOException {
+        File temporal = new File(destino.getAbsolutePath() + ".tmp");
+        try {
+            objectMapper.writeValue(temporal, valor);
+            Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal.toPath());
+        }
+    }
+
+    /**
+     * Contenido del manifiesto: un fragmento por categoría.
+     */
+    public static class Manifiesto {
+        private int version = VERSION;
+        private long fechaModificacionMs;
+        private List<Fragmento> fragmentos = new ArrayList<>();
+
+        public Manifiesto() {}
+
+        /**
+         * El fragmento de la categoría, o null si el manifiesto no la incluye.
+         */
+        public Fragmento buscar(CategoriaTrivia categoria) {
+            for (Fragmento f : fragmentos) {
+                if (f.getCategoria() == categoria) return f;
+            }
+            return null;
+        }
+
+        public int getVersion() { return version; }
+        public void setVersion(int version) { this.version = version; }
+
+        public long getFechaModificacionMs() { return fechaModificacionMs; }
+        public void setFechaModificacionMs(long fechaModificacionMs) { this.fechaModificacionMs = fechaModificacionMs; }
+
+        public List<Fragmento> getFragmentos() { return fragmentos; }
+        public void setFragmentos(List<Fragmento> fragmentos) { this.fragmentos = fragmentos; }
+    }
+
+    /**
+     * Un archivo del banco y cuántas preguntas tiene, para informar sin abrirlo.
+     */
+    public static class Fragmento {
+        private CategoriaTrivia categoria;
+        private String archivo;
+        private int preguntas;
+        private int aprobadas;
+
+        public Fragmento() {}
+
+        public Fragmento(CategoriaTrivia categoria, String archivo, int preguntas, int aprobadas) {
+            this.categoria = categoria;
+            this.archivo = archivo;
+            this.preguntas = preguntas;
+            this.aprobadas = aprobadas;
+        }
+
+        public CategoriaTrivia getCategoria() { return categoria; }
+        public void setCategoria(CategoriaTrivia categoria) { this.categoria = categoria; }
+
+        public String getArchivo() { return archivo; }
+        public void setArchivo(String archivo) { this.archivo = archivo; }
+
+        public int getPreguntas() { return preguntas; }
+        public void setPreguntas(int preguntas) { this.preguntas = preguntas; }
+
+        public int getAprobadas() { return aprobadas; }
+        public void setAprobadas(int aprobadas) { this.aprobadas = aprobadas; }
+    }
+}
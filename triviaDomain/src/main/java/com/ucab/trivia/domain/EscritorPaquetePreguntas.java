@@ -0,0 +1,114 @@
+package com.ucab.trivia.domain;
+
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compila las preguntas APROBADAS en un paquete binario de sólo lectura que el juego puede mapear en memoria.
+ *
+ * Formato (versión 1, enteros big-endian):
+ * <pre>
+ * cabecera:   int MAGIA, short VERSION, short numeroCategorias, long fechaCompilacionMs, int totalPreguntas
+ * categorías: por cada una, short largo + nombre UTF-8, int cantidad, int desplazamientoIndice
+ * índices:    por cada categoría, cantidad × int desplazamientoRegistro (desde el inicio del archivo)
+ * registros:  id, pregunta, respuesta y usuarioCreadorEmail, cada uno como int largo (-1 si es null) + bytes UTF-8
+ * </pre>
+ * La categoría de cada pregunta la da la tabla en la que está y su estado es siempre APROBADA.
+ */
+public final class EscritorPaquetePreguntas {
+    public static final String NOMBRE_ARCHIVO_PAQUETE = "banco_preguntas_compilado.tpk";
+    public static final int MAGIA = 0x54504B31; // "TPK1"
+    public static final short VERSION = 1;
+
+    private EscritorPaquetePreguntas() {}
+
+    /**
+     * Escribe el paquete con las preguntas APROBADAS de la lista (las demás se ignoran). Se escribe en un
+     * archivo temporal que luego reemplaza al destino, de modo que un juego que ya tenga mapeado el paquete
+     * anterior lo sigue leyendo completo.
+     * @return La cantidad de preguntas incluidas.
+     */
+    public static int escribir(List<PreguntaDetallada> preguntas, File destino) throws IOException {
+        Map<CategoriaTrivia, List<PreguntaDetallada>> porCategoria = new EnumMap<>(CategoriaTrivia.class);
+        for (CategoriaTrivia cat : CategoriaTrivia.values()) porCategoria.put(cat, new ArrayList<>());
+        int total = 0;
+        for (PreguntaDetallada p : preguntas) {
+            if (p.getEstado() == EstadoPregunta.APROBADA && p.getCategoria() != null) {
+                porCategoria.get(p.getCategoria()).add(p);
+                total++;
+            }
+        }
+
+        // Registros primero en memoria para conocer sus desplazamientos
+        byte[][] nombres = new byte[CategoriaTrivia.values().length][];
+        int tamanoCabecera = 4 + 2 + 2 + 8 + 4;
+        int tamanoTablaCategorias = 0;
+        for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+            nombres[cat.ordinal()] = cat.getNombreMostrado().getBytes(StandardCharsets.UTF_8);
+            tamanoTablaCategorias += 2 + nombres[cat.ordinal()].length + 4 + 4;
+        }
+        int inicioIndices = tamanoCabecera + tamanoTablaCategorias;
+        int inicioRegistros = inicioIndices + total * 4;
+
+        ByteArrayOutputStream bufferRegistros = new ByteArrayOutputStream();
+        DataOutputStream registros = new DataOutputStream(bufferRegistros);
+        int[][] desplazamientos = new int[CategoriaTrivia.values().length][];
+        for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+            List<PreguntaDetallada> lista = porCategoria.get(cat);
+            desplazamientos[cat.ordinal()] = new int[lista.size()];
+            for (int i = 0; i < lista.size(); i++) {
+                PreguntaDetallada p = lista.get(i);
+                desplazamientos[cat.ordinal()][i] = inicioRegistros + registros.size();
+                escribirTexto(registros, p.getId());
+                escribirTexto(registros, p.getPregunta());
+                escribirTexto(registros, p.getRespuesta());
+                escribirTexto(registros, p.getUsuarioCreadorEmail());
+            }
+        }
+        registros.flush();
+
+        File temporal = new File(destino.getAbsolutePath() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporal)))) {
+            salida.writeInt(MAGIA);
+            salida.writeShort(VERSION);
+            salida.writeShort(CategoriaTrivia.values().length);
+            salida.writeLong(System.currentTimeMillis());
+            salida.writeInt(total);
+            int desplazamientoIndice = inicioIndices;
+            for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+                salida.writeShort(nombres[cat.ordinal()].length);
+                salida.write(nombres[cat.ordinal()]);
+                salida.writeInt(desplazamientos[cat.ordinal()].length);
+                salida.writeInt(desplazamientoIndice);
+                desplazamientoIndice += desplazamientos[cat.ordinal()].length * 4;
+            }
+            for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+                for (int desplazamiento : desplazamientos[cat.ordinal()]) salida.writeInt(desplazamiento);
+            }
+            bufferRegistros.writeTo(salida);
+        }
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return total;
+    }
+
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+}
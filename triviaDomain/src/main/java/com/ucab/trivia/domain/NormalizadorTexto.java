@@ -0,0 +1,90 @@
+package com.ucab.trivia.domain;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Normalización de texto compartida por las respuestas aceptadas, el índice de búsqueda de AppConfig y la
+ * detección de preguntas repetidas al importar: sin tildes, en minúsculas y con todo lo que no sea letra o
+ * dígito tomado como separador de palabras. Las marcas diacríticas sueltas (texto ya descompuesto) se descartan.
+ */
+public final class NormalizadorTexto {
+    /** Resultado de plegar una marca diacrítica suelta: se descarta. */
+    public static final char SIN_CARACTER = 0;
+    /** Resultado de plegar un carácter que separa palabras. */
+    public static final char SEPARADOR = ' ';
+
+    // Para los caracteres latinos más comunes (hasta las marcas diacríticas combinables, U+036F): su forma
+    // plegada (letra base en minúscula), SEPARADOR o SIN_CARACTER
+    private static final char[] TABLA_LATINA = new char[0x370];
+
+    static {
+        for (char c = 0; c < TABLA_LATINA.length; c++) {
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                TABLA_LATINA[c] = SIN_CARACTER;
+            } else if (!Character.isLetterOrDigit(c)) {
+                TABLA_LATINA[c] = SEPARADOR;
+            } else {
+                String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).replaceAll("\\p{Mn}", "").toLowerCase();
+                TABLA_LATINA[c] = base.length() == 1 ? base.charAt(0) : Character.toLowerCase(c);
+            }
+        }
+    }
+
+    private NormalizadorTexto() {}
+
+    /**
+     * Forma plegada de un carácter: la letra o dígito sin tilde y en minúscula, SEPARADOR si separa palabras o
+     * SIN_CARACTER si es una marca diacrítica suelta.
+     */
+    public static char plegar(char c) {
+        if (c < TABLA_LATINA.length) return TABLA_LATINA[c];
+        if (Character.getType(c) == Character.NON_SPACING_MARK) return SIN_CARACTER;
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : SEPARADOR;
+    }
+
+    /**
+     * Texto plegado con las palabras separadas por un único espacio, sin espacios al principio ni al final.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) return "";
+        char[] salida = new char[texto.length()];
+        int largo = 0;
+        boolean espacioPendiente = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char normal = plegar(texto.charAt(i));
+            if (normal == SIN_CARACTER) continue;
+            if (normal == SEPARADOR) {
+                espacioPendiente = largo > 0;
+                continue;
+            }
+            if (espacioPendiente) {
+                salida[largo++] = ' ';
+                espacioPendiente = false;
+            }
+            salida[largo++] = normal;
+        }
+        return new String(salida, 0, largo);
+    }
+
+    /**
+     * Palabras del texto ya plegadas, en orden; las mismas que separa normalizar.
+     */
+    public static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        if (texto == null) return palabras;
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i <= texto.length(); i++) {
+            char normal = i < texto.length() ? plegar(texto.charAt(i)) : SEPARADOR;
+            if (normal == SIN_CARACTER) continue;
+            if (normal != SEPARADOR) {
+                actual.append(normal);
+            } else if (actual.length() > 0) {
+                palabras.add(actual.toString());
+                actual.setLength(0);
+            }
+        }
+        return palabras;
+    }
+}
@@ -0,0 +1,141 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+
+/**
+ * Calcula, para una casilla y una tirada, todas las casillas a las que puede llegar un jugador
+ * (una por opción de movimiento abierta, sin repetir destinos) en cualquier TopologiaTablero y las anota con lo que encontrará al llegar: categoría, si vuelve
+ * a lanzar, si es una esquina radial con bono y la distancia al centro.
+ *
+ * Los resultados se guardan en arreglos internos que se reutilizan en cada cálculo, de modo que
+ * evaluar una jugada no crea objetos. Por lo mismo, una instancia no debe compartirse entre hilos.
+ * Lo usan tanto las pistas de movimiento de la consola como los jugadores automáticos.
+ */
+public class AsesorMovimientos {
+    private static final byte SIN_CATEGORIA = -1;
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+
+    private final TopologiaTablero tablero;
+    private final int[] opcion;
+    private final int[] destino;
+    private final byte[] categoria;
+    private final boolean[] reRoll;
+    private final boolean[] verticeRadial;
+    private final boolean[] bloqueado;
+    private final int[] distanciaAlCentro;
+    private int cantidadOpciones;
+    private int pasosCalculados;
+
+    public AsesorMovimientos(TopologiaTablero tablero) {
+        this.tablero = tablero;
+        int maximoOpciones = tablero.getNumeroOpcionesMovimiento();
+        this.opcion = new int[maximoOpciones];
+        this.destino = new int[maximoOpciones];
+        this.categoria = new byte[maximoOpciones];
+        this.reRoll = new boolean[maximoOpciones];
+        this.verticeRadial = new boolean[maximoOpciones];
+        this.bloqueado = new boolean[maximoOpciones];
+        this.distanciaAlCentro = new int[maximoOpciones];
+    }
+
+    /**
+     * Calcula las opciones para un lanzamiento del dado, aplicando el bono de +2 pasos si es impar.
+     * @return La cantidad de opciones distintas.
+     */
+    public int calcularParaLanzamiento(int idCelda, int lanzamiento) {
+        return calcular(idCelda, Dado.aplicarBonoImpar(lanzamiento));
+    }
+
+    /**
+     * Calcula las opciones para avanzar una cantidad exacta de pasos desde una casilla. Si dos opciones
+     * del tablero llevan a la misma casilla (por ejemplo, al salir de un rayo), se ofrece sólo la primera.
+     * @return La cantidad de opciones distintas.
+     */
+    public int calcular(int idCelda, int pasos) {
+        int opciones = 0;
+        for (int op = 0; op < opcion.length; op++) {
+            if (tablero.alcanceEnLinea(idCelda, op) == 0) continue;
+            int llegada = tablero.moverEnLinea(idCelda, op, pasos);
+            if (yaCalculado(llegada, opciones)) continue;
+            CategoriaTrivia cat = tablero.getCategoriaCelda(llegada);
+            opcion[opciones] = op;
+            destino[opciones] = llegada;
+            categoria[opciones] = cat == null ? SIN_CATEGORIA : (byte) cat.ordinal();
+            reRoll[opciones] = tablero.esReRoll(llegada);
+            verticeRadial[opciones] = tablero.esCasillaVerticeRadial(llegada);
+            bloqueado[opciones] = tablero.caminoBloqueadoEnLinea(idCelda, op, pasos);
+            distanciaAlCentro[opciones] = tablero.distanciaAlCentro(llegada);
+            opciones++;
+        }
+        this.cantidadOpciones = opciones;
+        this.pasosCalculados = pasos;
+        return opciones;
+    }
+
+    private boolean yaCalculado(int llegada, int opciones) {
+        for (int i = 0; i < opciones; i++) {
+            if (destino[i] == llegada) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indica si, con la ficha completa, la tirada lleva exactamente al centro desde la casilla dada.
+     */
+    public boolean esTiroExactoAlCentro(int idCelda, int lanzamiento) {
+        return Dado.aplicarBonoImpar(lanzamiento) == tablero.distanciaAlCentro(idCelda);
+    }
+
+    /**
+     * Elige la opción más conveniente para un jugador con la ficha dada, según un puntaje simple:
+     * una esquina radial con la ficha incompleta es lo mejor, luego una categoría que aún le falta,
+     * luego volver a lanzar; con la ficha completa se prefiere quedar cerca del centro.
+     * @return El índice de la opción elegida (0..getCantidadOpciones()-1), o -1 si no hay opciones.
+     */
+    public int mejorOpcion(Ficha ficha) {
+        boolean fichaCompleta = ficha.estaCompleta();
+        int mejor = -1;
+        int mejorPuntaje = Integer.MIN_VALUE;
+        for (int i = 0; i < cantidadOpciones; i++) {
+            int puntaje = -distanciaAlCentro[i];
+            if (!fichaCompleta) {
+                if (verticeRadial[i]) puntaje += 100;
+                if (categoria[i] != SIN_CATEGORIA && !ficha.haObtenidoCategoria(CATEGORIAS[categoria[i]])) puntaje += 20;
+            }
+            if (reRoll[i]) puntaje += 10;
+            if (puntaje > mejorPuntaje) {
+                mejorPuntaje = puntaje;
+                mejor = i;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Texto breve para mostrar una opción como pista en la consola.
+     */
+    public String describirOpcion(int i) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("llegas a ").append(tablero.describirCelda(destino[i]));
+        CategoriaTrivia cat = getCategoria(i);
+        if (cat != null) sb.append(" | ").append(cat.getNombreMostrado());
+        else if (tablero.esCentro(destino[i])) sb.append(" | CENTRO");
+        if (reRoll[i]) sb.append(" | vuelve a lanzar");
+        if (verticeRadial[i]) sb.append(" | esquina: acertar da todas las categorías");
+        sb.append(" | a ").append(distanciaAlCentro[i]).append(" del centro");
+        if (bloqueado[i]) sb.append(" | el camino se bloquea");
+        return sb.toString();
+    }
+
+    // --- Resultados del último cálculo ---
+
+    public int getCantidadOpciones() { return cantidadOpciones; }
+    public int getPasosCalculados() { return pasosCalculados; }
+    public int getOpcion(int i) { return opcion[i]; }
+    public int getDestino(int i) { return destino[i]; }
+    public CategoriaTrivia getCategoria(int i) { return categoria[i] == SIN_CATEGORIA ? null : CATEGORIAS[categoria[i]]; }
+    public boolean isReRoll(int i) { return reRoll[i]; }
+    public boolean isVerticeRadial(int i) { return verticeRadial[i]; }
+    public boolean isBloqueado(int i) { return bloqueado[i]; }
+    public int getDistanciaAlCentro(int i) { return distanciaAlCentro[i]; }
+}
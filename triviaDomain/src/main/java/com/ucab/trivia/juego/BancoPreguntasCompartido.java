@@ -0,0 +1,403 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.AlmacenPreguntasCompacto;
+import com.ucab.trivia.domain.BancoFragmentado;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EscritorPaquetePreguntas;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Banco de preguntas APROBADAS leído una sola vez por archivo y compartido por todas las partidas de la JVM
+ * (por ejemplo, varias mesas de un torneo o de un servidor). Cada ServicioPreguntasJuego toma una referencia
+ * con adquirir y la devuelve con liberar; cuando ya nadie lo usa, el banco se descarta. Las partidas sólo
+ * leen de él: su estado de sorteo (las bolsas) es propio de cada una.
+ *
+ * Las preguntas salen, en este orden, del paquete compilado si está vigente, del banco dividido por categoría
+ * si existe su manifiesto, o del banco JSON completo. Al adquirirlo, si alguno de ellos cambió desde la última
+ * lectura, se recarga para todos.
+ */
+public final class BancoPreguntasCompartido {
+    private static final Map<Path, BancoPreguntasCompartido> BANCOS = new HashMap<>(); // Protegido por la clase
+
+    private final Path clave;
+    private final File archivoDePreguntas;
+    private volatile Instantanea instantanea; // Se reemplaza completa al recargar; nunca se modifica
+    private volatile int version;
+    private long selloCargado;                // Sello de los archivos en la última carga completa
+    private int referencias;                  // Protegido por la clase
+    private int interesadosEnRecarga;         // Protegido por this
+    private VigilanteBancoPreguntas vigilante;
+    private volatile HistorialRespuestas historial; // Se lee la primera vez que se pide
+    private final Object cerrojoHistorial = new Object(); // Aparte de this, que recargar retiene durante toda la lectura
+
+    private BancoPreguntasCompartido(Path clave, File archivoDePreguntas) {
+        this.clave = clave;
+        this.archivoDePreguntas = archivoDePreguntas;
+        this.selloCargado = calcularSello();
+        this.instantanea = cargarInstantanea(true);
+    }
+
+    /**
+     * Devuelve el banco del archivo, leyéndolo sólo si ninguna partida lo tiene abierto o si cambió
+     * desde la última lectura. Hay que llamar a liberar() cuando la partida termine.
+     */
+    public static BancoPreguntasCompartido adquirir(File archivoDePreguntas) {
+        Path clave = archivoDePreguntas.getAbsoluteFile().toPath().normalize();
+        BancoPreguntasCompartido banco;
+        boolean nuevo = false;
+        synchronized (BancoPreguntasCompartido.class) {
+            banco = BANCOS.get(clave);
+            if (banco == null) {
+                banco = new BancoPreguntasCompartido(clave, archivoDePreguntas);
+                BANCOS.put(clave, banco);
+                nuevo = true;
+            }
+            banco.referencias++;
+        }
+        if (!nuevo) banco.recargarSiCambio();
+        return banco;
+    }
+
+    /**
+     * Devuelve la referencia tomada con adquirir. Con la última, el banco deja de vigilarse y se descarta.
+     */
+    public void liberar() {
+        synchronized (BancoPreguntasCompartido.class) {
+            if (referencias == 0) return;
+            if (--referencias > 0) return;
+            BANCOS.remove(clave, this);
+        }
+        synchronized (this) {
+            interesadosEnRecarga = 0;
+            cerrarVigilante();
+        }
+        HistorialRespuestas actual = historial;
+        if (actual != null) actual.guardarSiHayCambios();
+    }
+
+    /**
+     * Preguntas aprobadas y estadísticas de una misma carga del banco. Las lecturas toman la referencia una vez
+     * y trabajan sobre ella, así que nunca ven un índice a medio construir. El índice por id de cada categoría
+     * se arma la primera vez que se busca en ella, y las tablas del sorteo por dificultad con el primer sorteo
+     * adaptado; ambos los comparten todas las partidas.
+     */
+    public static final class Instantanea {
+        final FuentePreguntas fuente;
+        final EstadisticasCargaPreguntas estadisticas;
+        final boolean completa; // false si la lectura falló a mitad de archivo
+        private final List<Map<String, Integer>> indicePorId; // ordinal -> id -> posición; protegido por this
+        private volatile SelectorPreguntasPorDificultad selector; // Se crea bajo this
+
+        Instantanea(FuentePreguntas fuente, EstadisticasCargaPreguntas estadisticas, boolean completa) {
+            this.fuente = fuente;
+            this.estadisticas = estadisticas;
+            this.completa = completa;
+            this.indicePorId = new ArrayList<>(Collections.nCopies(CategoriaTrivia.values().length, null));
+        }
+
+        public FuentePreguntas getFuente() {
+            return fuente;
+        }
+
+        /**
+         * Posición de la pregunta con el id dado dentro de su categoría en esta carga.
+         * @return La posición, o -1 si no está.
+         */
+        public synchronized int buscarIndice(CategoriaTrivia categoria, String id) {
+            if (categoria == null || id == null) return -1;
+            Integer posicion = indiceDe(categoria).get(id);
+            return posicion == null ? -1 : posicion;
+        }
+
+        /**
+         * Recorre los ids de la categoría con su posición (las preguntas sin id o con un id repetido no aparecen).
+         */
+        synchronized void paraCadaId(CategoriaTrivia categoria, ObjIntConsumer<String> accion) {
+            indiceDe(categoria).forEach(accion::accept);
+        }
+
+        /**
+         * Selector del sorteo por dificultad de esta carga, que se crea con la primera pregunta adaptada.
+         */
+        SelectorPreguntasPorDificultad getSelector(HistorialRespuestas historial) {
+            SelectorPreguntasPorDificultad actual = selector;
+            if (actual != null) return actual;
+            synchronized (this) {
+                if (selector == null) selector = new SelectorPreguntasPorDificultad(this, historial);
+                return selector;
+            }
+        }
+
+        /**
+         * El selector de esta carga, o null si todavía ninguna partida sacó una pregunta adaptada.
+         */
+        SelectorPreguntasPorDificultad getSelectorSiExiste() {
+            return selector;
+        }
+
+        private Map<String, Integer> indiceDe(CategoriaTrivia categoria) {
+            Map<String, Integer> indice = indicePorId.get(categoria.ordinal());
+            if (indice == null) {
+                int cantidad = fuente.contarPreguntas(categoria);
+                indice = new HashMap<>(cantidad * 4 / 3 + 1);
+                for (int i = 0; i < cantidad; i++) {
+                    String idPregunta = fuente.obtenerId(categoria, i);
+                    if (idPregunta != null) indice.putIfAbsent(idPregunta, i);
+                }
+                indicePorId.set(categoria.ordinal(), indice);
+            }
+            return indice;
+        }
+    }
+
+    private Instantanea cargarInstantanea(boolean mostrarAdvertencias) {
+        Instantanea paquete = abrirPaqueteCompilado(mostrarAdvertencias);
+        if (paquete != null) return paquete;
+        Instantanea fragmentado = abrirBancoFragmentado(mostrarAdvertencias);
+        return fragmentado != null ? fragmentado : cargarYFiltrarPreguntasAprobadas(mostrarAdvertencias);
+    }
+
+    /**
+     * Vuelve a leer el banco (o el paquete compilado) y, si la lectura fue completa, reemplaza de una vez
+     * las preguntas para todas las partidas. Mientras tanto los sorteos siguen usando las anteriores sin esperar.
+     * @return true si se reemplazaron las preguntas.
+     */
+    public synchronized boolean recargar() {
+        long sello = calcularSello();
+        Instantanea nueva = cargarInstantanea(false);
+        if (!nueva.completa) return false;
+        this.instantanea = nueva;
+        this.selloCargado = sello;
+        this.version++;
+        return true;
+    }
+
+    private synchronized void recargarSiCambio() {
+        if (calcularSello() != selloCargado) recargar();
+    }
+
+    /**
+     * Fecha y tamaño del banco JSON, del manifiesto del banco por categoría y del paquete compilado, combinados
+     * en un número que cambia cuando cualquiera se reescribe.
+     */
+    private long calcularSello() {
+        return (sello(archivoDePreguntas) * 31 + sello(archivoManifiesto())) * 31 + sello(archivoPaquete());
+    }
+
+    private static long sello(File archivo) {
+        return archivo.exists() ? archivo.lastModified() * 31 + archivo.length() : -1;
+    }
+
+    private File archivoManifiesto() {
+        return BancoFragmentado.archivoManifiesto(archivoDePreguntas.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * El archivo que AppConfig reescribe en cada cambio: el manifiesto si el banco está dividido por categoría.
+     */
+    private File archivoFuente() {
+        File manifiesto = archivoManifiesto();
+        return manifiesto.exists() ? manifiesto : archivoDePreguntas;
+    }
+
+    private File archivoPaquete() {
+        return new File(archivoDePreguntas.getAbsoluteFile().getParentFile(), EscritorPaquetePreguntas.NOMBRE_ARCHIVO_PAQUETE);
+    }
+
+    /**
+     * Registra una partida interesada en la recarga automática: el primer interesado arranca el vigilante del
+     * banco JSON (o su manifiesto) y del paquete compilado, que recarga en su propio hilo cuando AppConfig los reescribe.
+     */
+    public synchronized void iniciarVigilancia() {
+        interesadosEnRecarga++;
+        if (vigilante != null) return;
+        File directorio = archivoDePreguntas.getAbsoluteFile().getParentFile();
+        try {
+            vigilante = new VigilanteBancoPreguntas(directorio.toPath(),
+                    Set.of(archivoDePreguntas.getName(), BancoFragmentado.NOMBRE_MANIFIESTO, EscritorPaquetePreguntas.NOMBRE_ARCHIVO_PAQUETE), this::recargar);
+            vigilante.iniciar();
+        } catch (IOException e) {
+            System.err.println("ADVERTENCIA: No se podrá recargar el banco de preguntas durante la partida: " + e.getMessage());
+            vigilante = null;
+        }
+    }
+
+    /**
+     * Quita un interesado en la recarga automática; con el último, el vigilante se detiene.
+     */
+    public synchronized void detenerVigilancia() {
+        if (interesadosEnRecarga > 0) interesadosEnRecarga--;
+        if (interesadosEnRecarga == 0) cerrarVigilante();
+    }
+
+    private void cerrarVigilante() {
+        if (vigilante == null) return;
+        vigilante.close();
+        vigilante = null;
+    }
+
+    /**
+     * Historial de aciertos por pregunta, guardado junto al banco y común a todas las partidas que lo comparten.
+     * No espera a una recarga en curso.
+     */
+    public HistorialRespuestas getHistorial() {
+        HistorialRespuestas actual = historial;
+        if (actual != null) return actual;
+        synchronized (cerrojoHistorial) {
+            if (historial == null) {
+                historial = HistorialRespuestas.cargar(new File(archivoDePreguntas.getAbsoluteFile().getParentFile(), HistorialRespuestas.NOMBRE_ARCHIVO));
+            }
+            return historial;
+        }
+    }
+
+    public FuentePreguntas getFuente() {
+        return instantanea.fuente;
+    }
+
+    /**
+     * La carga actual del banco completa; para trabajar con varias cosas de una misma carga hay que tomarla una vez.
+     */
+    public Instantanea getInstantanea() {
+        return instantanea;
+    }
+
+    public EstadisticasCargaPreguntas getEstadisticas() {
+        return instantanea.estadisticas;
+    }
+
+    /**
+     * Cuántas veces se han reemplazado las preguntas desde que se leyó el banco.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Cuántas partidas tienen el banco abierto.
+     */
+    public int getReferencias() {
+        synchronized (BancoPreguntasCompartido.class) {
+            return referencias;
+        }
+    }
+
+    /**
+     * Usa el paquete binario publicado por AppConfig junto al banco JSON si existe y no es más antiguo
+     * que el JSON. El paquete se mapea en memoria y las preguntas se decodifican sólo al sacarlas.
+     * @return null si no hay paquete vigente y hay que leer el JSON.
+     */
+    private Instantanea abrirPaqueteCompilado(boolean mostrarAdvertencias) {
+        File paquete = archivoPaquete();
+        if (!paquete.exists()) return null;
+        File fuente = archivoFuente();
+        if (fuente.exists() && paquete.lastModified() < fuente.lastModified()) {
+            if (mostrarAdvertencias) System.err.println("ADVERTENCIA: El paquete de preguntas compilado es anterior al banco de preguntas; se usará el banco. " +
+                    "Publique de nuevo el paquete desde AppConfig.");
+            return null;
+        }
+        long inicio = System.nanoTime();
+        try {
+            PaquetePreguntas paquetePreguntas = PaquetePreguntas.abrir(paquete);
+            for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+                if (mostrarAdvertencias && paquetePreguntas.contarPreguntas(cat) == 0) {
+                    System.err.println("ADVERTENCIA: No hay preguntas APROBADAS para la categoría: " + cat.getNombreMostrado());
+                }
+            }
+            int total = paquetePreguntas.getTotalPreguntas();
+            return new Instantanea(paquetePreguntas, new EstadisticasCargaPreguntas("paquete compilado", total, total, 0,
+                    (System.nanoTime() - inicio) / 1_000_000, 0), true);
+        } catch (IOException e) {
+            if (mostrarAdvertencias) System.err.println("ADVERTENCIA: No se pudo abrir el paquete de preguntas '" + paquete.getAbsolutePath() + "': " +
+                    e.getMessage() + ". Se usará el banco JSON.");
+            return null;
+        }
+    }
+
+    /**
+     * Abre el banco dividido por categoría (ver BancoFragmentado) si AppConfig lo generó: sólo se lee el manifiesto,
+     * cada categoría se lee al sacar su primera pregunta y, mientras tanto, todas se precargan en segundo plano.
+     * @return null si no hay manifiesto o no se puede leer, y hay que usar el banco JSON completo.
+     */
+    private Instantanea abrirBancoFragmentado(boolean mostrarAdvertencias) {
+        File archivoManifiesto = archivoManifiesto();
+        if (!archivoManifiesto.exists()) return null;
+        long inicio = System.nanoTime();
+        try {
+            BancoFragmentado.Manifiesto manifiesto = BancoFragmentado.leerManifiesto(archivoManifiesto);
+            int registros = 0;
+            int aprobadas = 0;
+            for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+                BancoFragmentado.Fragmento fragmento = manifiesto.buscar(cat);
+                if (fragmento != null) {
+                    registros += fragmento.getPreguntas();
+                    aprobadas += fragmento.getAprobadas();
+                }
+                if (mostrarAdvertencias && (fragmento == null || fragmento.getAprobadas() == 0)) {
+                    System.err.println("ADVERTENCIA: No hay preguntas APROBADAS para la categoría: " + cat.getNombreMostrado());
+                }
+            }
+            FuentePreguntasFragmentada fuente = new FuentePreguntasFragmentada(archivoManifiesto.getParentFile(), manifiesto, mostrarAdvertencias);
+            fuente.iniciarPrecarga();
+            return new Instantanea(fuente, new EstadisticasCargaPreguntas("banco por categoría", registros, aprobadas, 0,
+                    (System.nanoTime() - inicio) / 1_000_000, 0), true);
+        } catch (IOException e) {
+            if (mostrarAdvertencias) System.err.println("ADVERTENCIA: No se pudo leer el manifiesto del banco '" + archivoManifiesto.getAbsolutePath() + "': " +
+                    e.getMessage() + ". Se usará el banco JSON completo.");
+            return null;
+        }
+    }
+
+    /**
+     * Lee las preguntas APROBADAS del banco JSON a almacenes compactos (ver AlmacenPreguntasCompacto),
+     * uno por categoría, sin crear un objeto por pregunta.
+     */
+    private Instantanea cargarYFiltrarPreguntasAprobadas(boolean mostrarAdvertencias) {
+        Map<CategoriaTrivia, AlmacenPreguntasCompacto> preguntasAprobadasPorCategoria = new EnumMap<>(CategoriaTrivia.class);
+        for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+            preguntasAprobadasPorCategoria.put(cat, new AlmacenPreguntasCompacto());
+        }
+
+        if (!archivoDePreguntas.exists() || archivoDePreguntas.length() == 0) {
+            if (mostrarAdvertencias) {
+                System.err.println("ADVERTENCIA CRÍTICA: El archivo de preguntas '" + archivoDePreguntas.getAbsolutePath() + "' no existe o está vacío.");
+                System.err.println("El juego no tendrá preguntas. Ejecute AppConfig para generar/importar preguntas.");
+            }
+            return new Instantanea(new FuentePreguntasCompacta(preguntasAprobadasPorCategoria),
+                    new EstadisticasCargaPreguntas("sin banco", 0, 0, 0, 0, 0), false);
+        }
+
+        long inicio = System.nanoTime();
+        LectorPreguntasAprobadas.Resultado resultado = new LectorPreguntasAprobadas.Resultado();
+        boolean completa = false;
+        try {
+            LectorPreguntasAprobadas.leer(archivoDePreguntas, preguntasAprobadasPorCategoria, resultado);
+            preguntasAprobadasPorCategoria.forEach((cat, almacen) -> {
+                if (mostrarAdvertencias && almacen.tamano() == 0) {
+                    System.err.println("ADVERTENCIA: No hay preguntas APROBADAS para la categoría: " + cat.getNombreMostrado());
+                }
+            });
+            completa = true;
+        } catch (IOException e) {
+            if (mostrarAdvertencias) System.err.println("Error fatal al cargar o procesar preguntas desde '" + archivoDePreguntas.getAbsolutePath() + "': " + e.getMessage());
+        }
+        if (mostrarAdvertencias && resultado.invalidos > 0) {
+            System.err.println("ADVERTENCIA: Se omitieron " + resultado.invalidos + " preguntas APROBADAS con categoría desconocida.");
+        }
+        preguntasAprobadasPorCategoria.values().forEach(AlmacenPreguntasCompacto::recortar);
+        FuentePreguntasCompacta fuente = new FuentePreguntasCompacta(preguntasAprobadasPorCategoria);
+        return new Instantanea(fuente, new EstadisticasCargaPreguntas("banco JSON", resultado.registrosLeidos, resultado.aprobadas,
+                resultado.invalidos, (System.nanoTime() - inicio) / 1_000_000, fuente.estimarBytesRetenidos()), completa);
+    }
+}
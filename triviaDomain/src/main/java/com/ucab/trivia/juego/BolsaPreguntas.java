@@ -0,0 +1,190 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+
+import java.util.Arrays;
+
+/**
+ * Sorteo de preguntas sin repetición por categoría ("bolsa" barajada con Fisher–Yates). Cada categoría
+ * guarda una permutación de los índices 0..n-1 de su banco y un cursor; al agotarse se baraja una nueva
+ * ronda. Así ninguna pregunta se repite hasta haber salido todas las de su categoría.
+ *
+ * La permutación de cada ronda se obtiene de una semilla propia, de modo que para guardar la bolsa basta
+ * con la semilla, el cursor y el tamaño del banco (ver EstadoBolsaPreguntas). Sacar un índice no crea
+ * objetos; sólo barajar un banco de otro tamaño reserva su arreglo. Una instancia no debe compartirse entre hilos.
+ *
+ * Los índices se refieren a una carga concreta del banco (getFuente). Si el banco se recarga a mitad de una
+ * ronda, ServicioPreguntasJuego la lleva a la nueva carga con reubicarRonda: las preguntas ya sacadas pasan al
+ * principio de la permutación y sólo el resto se vuelve a barajar, así que no se repiten.
+ */
+public class BolsaPreguntas {
+    public static final int SIN_PREGUNTA = -1;
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+    private static final int[] VACIO = new int[0];
+
+    private final int[][] orden;       // ordinal -> permutación de la ronda actual
+    private final int[] cursor;        // ordinal -> siguiente posición de la permutación
+    private final long[] semillaRonda; // ordinal -> semilla con la que se barajó la ronda actual
+    private final boolean[] reubicada; // ordinal -> la ronda actual viene de una recarga del banco
+    private FuentePreguntas fuente;    // Carga del banco a la que se refieren los índices; null si aún no se sabe
+
+    /**
+     * @param semilla Semilla inicial; cada categoría deriva la suya de ella.
+     */
+    public BolsaPreguntas(long semilla) {
+        this.orden = new int[CATEGORIAS.length][];
+        this.cursor = new int[CATEGORIAS.length];
+        this.semillaRonda = new long[CATEGORIAS.length];
+        this.reubicada = new boolean[CATEGORIAS.length];
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            orden[i] = VACIO;
+            semillaRonda[i] = FuenteAleatoriaRapida.mezclar(semilla + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * Saca el siguiente índice de la categoría para un banco de {@code cantidad} preguntas. Si el banco
+     * cambió de tamaño desde la última vez, la ronda se descarta y se baraja de nuevo.
+     * @return Un índice en 0..cantidad-1, o SIN_PREGUNTA si la categoría no tiene preguntas.
+     */
+    public int siguienteIndice(CategoriaTrivia categoria, int cantidad) {
+        if (categoria == null || cantidad <= 0) return SIN_PREGUNTA;
+        int ord = categoria.ordinal();
+        if (orden[ord].length != cantidad) {
+            orden[ord] = new int[cantidad];
+            barajar(ord);
+        } else if (cursor[ord] >= cantidad) {
+            semillaRonda[ord] = FuenteAleatoriaRapida.mezclar(semillaRonda[ord] + 0x9E3779B97F4A7C15L);
+            barajar(ord);
+        }
+        return orden[ord][cursor[ord]++];
+    }
+
+    /**
+     * Lleva la ronda de la categoría a un banco de {@code cantidad} preguntas en el que las ya sacadas están en
+     * las posiciones dadas (las que ya no existen se omiten). Esas posiciones quedan como sacadas y las demás
+     * se barajan con una semilla nueva para lo que resta de la ronda.
+     */
+    public void reubicarRonda(CategoriaTrivia categoria, int[] sacadas, int cantidadSacadas, int cantidad) {
+        int ord = categoria.ordinal();
+        semillaRonda[ord] = FuenteAleatoriaRapida.mezclar(semillaRonda[ord] + 0x9E3779B97F4A7C15L);
+        armarRonda(ord, sacadas, cantidadSacadas, Math.max(0, cantidad));
+    }
+
+    /**
+     * Cuántas preguntas de la ronda actual de la categoría ya salieron.
+     */
+    public int getSacadasEnRonda(CategoriaTrivia categoria) {
+        return cursor[categoria.ordinal()];
+    }
+
+    /**
+     * Índice de la j-ésima pregunta sacada en la ronda actual (j en 0..getSacadasEnRonda-1).
+     */
+    public int getIndiceSacado(CategoriaTrivia categoria, int j) {
+        return orden[categoria.ordinal()][j];
+    }
+
+    public FuentePreguntas getFuente() { return fuente; }
+    public void setFuente(FuentePreguntas fuente) { this.fuente = fuente; }
+
+    /**
+     * Preguntas que aún quedan por salir en la ronda actual de la categoría.
+     */
+    public int getRestantesEnRonda(CategoriaTrivia categoria) {
+        int ord = categoria.ordinal();
+        return orden[ord].length - cursor[ord];
+    }
+
+    /**
+     * Copia el estado de la bolsa para guardarlo con la partida.
+     */
+    public EstadoBolsaPreguntas exportarEstado() {
+        EstadoBolsaPreguntas estado = new EstadoBolsaPreguntas();
+        estado.setSemillas(semillaRonda.clone());
+        estado.setCursores(cursor.clone());
+        int[] cantidades = new int[CATEGORIAS.length];
+        int[][] sacadas = null;
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            cantidades[i] = orden[i].length;
+            if (reubicada[i]) {
+                // La permutación ya no sale sólo de la semilla: se guardan también las sacadas
+                if (sacadas == null) sacadas = new int[CATEGORIAS.length][];
+                sacadas[i] = Arrays.copyOf(orden[i], cursor[i]);
+            }
+        }
+        estado.setCantidades(cantidades);
+        estado.setSacadasEnRonda(sacadas);
+        return estado;
+    }
+
+    /**
+     * Restaura un estado guardado: vuelve a barajar cada ronda con su semilla y continúa desde su cursor.
+     * Las categorías con datos incompletos se quedan como están. Los índices se toman como de la carga actual del banco.
+     */
+    public void restaurarEstado(EstadoBolsaPreguntas estado) {
+        if (estado == null || estado.getSemillas() == null || estado.getCursores() == null || estado.getCantidades() == null) return;
+        int categorias = Math.min(CATEGORIAS.length, Math.min(estado.getSemillas().length,
+                Math.min(estado.getCursores().length, estado.getCantidades().length)));
+        int[][] sacadas = estado.getSacadasEnRonda();
+        for (int i = 0; i < categorias; i++) {
+            int cantidad = Math.max(0, estado.getCantidades()[i]);
+            semillaRonda[i] = estado.getSemillas()[i];
+            if (sacadas != null && i < sacadas.length && sacadas[i] != null) {
+                armarRonda(i, sacadas[i], sacadas[i].length, cantidad);
+                continue;
+            }
+            orden[i] = cantidad == 0 ? VACIO : new int[cantidad];
+            barajar(i);
+            cursor[i] = Math.min(Math.max(0, estado.getCursores()[i]), cantidad);
+        }
+        fuente = null;
+    }
+
+    private void barajar(int ord) {
+        int[] indices = orden[ord];
+        for (int i = 0; i < indices.length; i++) indices[i] = i;
+        barajarDesde(ord, 0);
+        reubicada[ord] = false;
+    }
+
+    /**
+     * Pone primero las sacadas (sin repetidas ni fuera de rango), luego las demás posiciones en orden
+     * ascendente barajadas con la semilla de la ronda, y deja el cursor tras las sacadas.
+     */
+    private void armarRonda(int ord, int[] sacadas, int cantidadSacadas, int cantidad) {
+        int[] indices = cantidad == 0 ? VACIO : new int[cantidad];
+        boolean[] yaSacada = new boolean[cantidad];
+        int n = 0;
+        for (int j = 0; j < cantidadSacadas; j++) {
+            int posicion = sacadas[j];
+            if (posicion < 0 || posicion >= cantidad || yaSacada[posicion]) continue;
+            yaSacada[posicion] = true;
+            indices[n++] = posicion;
+        }
+        int siguiente = n;
+        for (int posicion = 0; posicion < cantidad; posicion++) {
+            if (!yaSacada[posicion]) indices[siguiente++] = posicion;
+        }
+        orden[ord] = indices;
+        barajarDesde(ord, n);
+        cursor[ord] = n;
+        reubicada[ord] = true;
+    }
+
+    /**
+     * Fisher–Yates sobre orden[ord][desde..]; con desde = 0 baraja la permutación completa.
+     */
+    private void barajarDesde(int ord, int desde) {
+        int[] indices = orden[ord];
+        long generador = semillaRonda[ord];
+        for (int i = indices.length - 1; i > desde; i--) {
+            generador += 0x9E3779B97F4A7C15L;
+            int j = desde + (int) (((FuenteAleatoriaRapida.mezclar(generador) >>> 32) * (i - desde + 1)) >>> 32);
+            int temporal = indices[i];
+            indices[i] = indices[j];
+            indices[j] = temporal;
+        }
+        cursor[ord] = desde;
+    }
+}
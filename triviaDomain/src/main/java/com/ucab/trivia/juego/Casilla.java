@@ -6,19 +6,17 @@ import com.ucab.trivia.domain.CategoriaTrivia;
  * Representa una celda individual en el tablero de TRIVIA-UCAB.
  * Para el tablero hexagonal, esta clase almacena la categoría de la pregunta
  * y si es una casilla especial de "volver a lanzar" o la casilla central.
- * La posición (fila, columna) la maneja el tablero.
+ * La posición (fila, columna) y los jugadores que la ocupan los maneja el tablero.
  */
 public class Casilla {
     private CategoriaTrivia categoria;
     private boolean esReRoll;    // Si la casilla otorga volver a lanzar
     private boolean esCentro;    // Si es la casilla central para ganar
-    private String jugadorEnCasilla; // Símbolo del jugador (ej "J1", "J2") o un espacio si está libre
 
     /**
-     * Constructor por defecto. Inicializa la casilla como vacía.
+     * Constructor por defecto.
      */
     public Casilla() {
-        this.jugadorEnCasilla = " "; // Espacio para casilla vacía en el render
     }
 
     /**
@@ -28,7 +26,6 @@ public class Casilla {
      * @param esCentro true si es la casilla central.
      */
     public Casilla(CategoriaTrivia categoria, boolean esReRoll, boolean esCentro) {
-        this(); // Llama al constructor por defecto para inicializar jugadorEnCasilla
         this.categoria = categoria;
         this.esReRoll = esReRoll;
         this.esCentro = esCentro;
@@ -59,14 +56,6 @@ public class Casilla {
         this.esCentro = esCentro;
     }
 
-    public String getJugadorEnCasilla() {
-        return jugadorEnCasilla;
-    }
-
-    public void setJugadorEnCasilla(String jugadorEnCasilla) {
-        this.jugadorEnCasilla = (jugadorEnCasilla == null || jugadorEnCasilla.trim().isEmpty()) ? " " : jugadorEnCasilla;
-    }
-
     /**
      * Devuelve un carácter o símbolo corto representando la categoría para el tablero en consola.
      * @return Un String (usualmente una letra) para la categoría.
@@ -1,15 +1,29 @@
 package com.ucab.trivia.juego;
 
-import java.security.SecureRandom;
-
 public class Dado {
-    private final SecureRandom random;
+    private final FuenteAleatoria random;
 
     public Dado() {
-        this.random = new SecureRandom();
+        this(FuenteAleatoria.segura());
+    }
+
+    /**
+     * Crea un dado que lanza con la fuente dada; con una FuenteAleatoriaRapida los lanzamientos se pueden repetir.
+     */
+    public Dado(FuenteAleatoria random) {
+        this.random = random;
     }
 
     public int lanzar() {
         return random.nextInt(6) + 1;
     }
+
+    /**
+     * Aplica la regla del número impar: un lanzamiento impar otorga +2 pasos.
+     * @param lanzamiento El valor obtenido en el dado.
+     * @return La cantidad de pasos a mover.
+     */
+    public static int aplicarBonoImpar(int lanzamiento) {
+        return lanzamiento % 2 != 0 ? lanzamiento + 2 : lanzamiento;
+    }
 }
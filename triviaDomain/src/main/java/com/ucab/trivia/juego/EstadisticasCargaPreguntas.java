@@ -0,0 +1,40 @@
+package com.ucab.trivia.juego;
+
+/**
+ * Resumen de una carga del banco de preguntas: cuántos registros se leyeron, cuántos se conservaron,
+ * cuánto tardó y cuánta memoria quedó retenida (estimada a partir del tamaño de los textos).
+ * Con el paquete compilado los textos quedan en el archivo mapeado, fuera del heap.
+ */
+public class EstadisticasCargaPreguntas {
+    private final String origen;
+    private final int registrosLeidos;
+    private final int preguntasAprobadas;
+    private final int registrosInvalidos;
+    private final long milisegundos;
+    private final long bytesRetenidosEstimados;
+
+    public EstadisticasCargaPreguntas(String origen, int registrosLeidos, int preguntasAprobadas, int registrosInvalidos,
+                                      long milisegundos, long bytesRetenidosEstimados) {
+        this.origen = origen;
+        this.registrosLeidos = registrosLeidos;
+        this.preguntasAprobadas = preguntasAprobadas;
+        this.registrosInvalidos = registrosInvalidos;
+        this.milisegundos = milisegundos;
+        this.bytesRetenidosEstimados = bytesRetenidosEstimados;
+    }
+
+    public String getOrigen() { return origen; }
+    public int getRegistrosLeidos() { return registrosLeidos; }
+    public int getPreguntasAprobadas() { return preguntasAprobadas; }
+    public int getRegistrosDescartados() { return registrosLeidos - preguntasAprobadas; }
+    public int getRegistrosInvalidos() { return registrosInvalidos; }
+    public long getMilisegundos() { return milisegundos; }
+    public long getBytesRetenidosEstimados() { return bytesRetenidosEstimados; }
+
+    @Override
+    public String toString() {
+        return "Banco de preguntas (" + origen + "): " + preguntasAprobadas + " aprobadas de " + registrosLeidos + " leídas" +
+                (registrosInvalidos > 0 ? " (" + registrosInvalidos + " inválidas)" : "") +
+                " en " + milisegundos + " ms, ~" + (bytesRetenidosEstimados / 1024) + " KB retenidos";
+    }
+}
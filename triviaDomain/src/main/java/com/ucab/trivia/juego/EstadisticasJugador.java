@@ -11,6 +11,7 @@ import java.util.Map;
 public class EstadisticasJugador {
     private long tiempoTotalRespuestasMs; // Solo se acumula si el juego es por tiempo
     private Map<CategoriaTrivia, Integer> correctasPorCategoria;
+    private Map<CategoriaTrivia, Integer> respondidasPorCategoria; // Acertadas o no; null en partidas guardadas antes de contarlas
     private int juegosGanados; // Para la sesión/partida actual
 
     //Constructor que inicializa las estadisticas en cero.
@@ -21,6 +22,7 @@ public class EstadisticasJugador {
         for (CategoriaTrivia cat : CategoriaTrivia.values()) {
             this.correctasPorCategoria.put(cat, 0);
         }
+        this.respondidasPorCategoria = new EnumMap<>(CategoriaTrivia.class);
         this.juegosGanados = 0;
     }
 
@@ -47,6 +49,28 @@ public class EstadisticasJugador {
         }
     }
 
+    /**
+     * Registra que el jugador respondio (bien o mal) una pregunta de la categoria.
+     */
+
+    public void registrarPreguntaRespondida(CategoriaTrivia categoria) {
+        if (categoria == null) return;
+        if (respondidasPorCategoria == null) respondidasPorCategoria = new EnumMap<>(CategoriaTrivia.class);
+        respondidasPorCategoria.merge(categoria, 1, Integer::sum);
+    }
+
+    /**
+     * Proporcion de aciertos del jugador en la categoria, suavizada: (correctas + 1) / (respondidas + 2),
+     * de modo que sin preguntas respondidas vale 0.5.
+     */
+
+    public double calcularTasaAcierto(CategoriaTrivia categoria) {
+        int correctas = correctasPorCategoria == null ? 0 : correctasPorCategoria.getOrDefault(categoria, 0);
+        int respondidas = respondidasPorCategoria == null ? 0 : respondidasPorCategoria.getOrDefault(categoria, 0);
+        respondidas = Math.max(respondidas, correctas); // Partidas antiguas sólo contaban las correctas
+        return (correctas + 1.0) / (respondidas + 2.0);
+    }
+
     //Incrementa el contador de juegos ganados por el jugador.
 
     public void registrarJuegoGanado() {
@@ -67,6 +91,12 @@ public class EstadisticasJugador {
     public void setCorrectasPorCategoria(Map<CategoriaTrivia, Integer> correctasPorCategoria) {
         this.correctasPorCategoria = correctasPorCategoria; }
 
+    public Map<CategoriaTrivia, Integer> getRespondidasPorCategoria() {
+        return respondidasPorCategoria; }
+
+    public void setRespondidasPorCategoria(Map<CategoriaTrivia, Integer> respondidasPorCategoria) {
+        this.respondidasPorCategoria = respondidasPorCategoria; }
+
     public int getJuegosGanados() {
         return juegosGanados; }
 
@@ -0,0 +1,27 @@
+package com.ucab.trivia.juego;
+
+/**
+ * Estado guardable de una BolsaPreguntas. Cada arreglo se indexa por el ordinal de CategoriaTrivia:
+ * semilla de la ronda actual, preguntas ya sacadas en ella y tamaño del banco con que se barajó. Si una ronda
+ * se reubicó tras una recarga del banco, sacadasEnRonda guarda además sus índices ya sacados (null en las demás).
+ */
+public class EstadoBolsaPreguntas {
+    private long[] semillas;
+    private int[] cursores;
+    private int[] cantidades;
+    private int[][] sacadasEnRonda;
+
+    public EstadoBolsaPreguntas() {}
+
+    public long[] getSemillas() { return semillas; }
+    public void setSemillas(long[] semillas) { this.semillas = semillas; }
+
+    public int[] getCursores() { return cursores; }
+    public void setCursores(int[] cursores) { this.cursores = cursores; }
+
+    public int[] getCantidades() { return cantidades; }
+    public void setCantidades(int[] cantidades) { this.cantidades = cantidades; }
+
+    public int[][] getSacadasEnRonda() { return sacadasEnRonda; }
+    public void setSacadasEnRonda(int[][] sacadasEnRonda) { this.sacadasEnRonda = sacadasEnRonda; }
+}
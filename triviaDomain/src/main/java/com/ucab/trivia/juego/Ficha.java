@@ -36,7 +36,10 @@ public class Ficha {
 
     public boolean estaCompleta() {
         if (categoriasObtenidas.isEmpty()) return false;
-        return this.categoriasObtenidas.values().stream().allMatch(obtenida -> obtenida);
+        for (Boolean obtenida : this.categoriasObtenidas.values()) {
+            if (!obtenida) return false;
+        }
+        return true;
     }
 
     public Map<CategoriaTrivia, Boolean> getCategoriasObtenidas() { return categoriasObtenidas; }
@@ -0,0 +1,30 @@
+package com.ucab.trivia.juego;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Origen de los números aleatorios del juego (dado y sorteo de preguntas). Hay dos implementaciones:
+ * FuenteAleatoriaRapida, con semilla y reproducible, para simulaciones y para poder repetir una partida,
+ * y FuenteAleatoriaSegura, basada en SecureRandom, para el juego normal.
+ */
+public interface FuenteAleatoria extends RandomGenerator {
+
+    /**
+     * Crea una fuente independiente derivada de ésta, por ejemplo para cada componente del juego
+     * o para cada hilo de una simulación en paralelo. Si esta fuente es reproducible, la nueva también.
+     */
+    FuenteAleatoria dividir();
+
+    /**
+     * Indica si la secuencia queda determinada por la semilla (y puede repetirse).
+     */
+    boolean esReproducible();
+
+    static FuenteAleatoria conSemilla(long semilla) {
+        return new FuenteAleatoriaRapida(semilla);
+    }
+
+    static FuenteAleatoria segura() {
+        return new FuenteAleatoriaSegura();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ucab.trivia.juego;
+
+/**
+ * Generador SplitMix64 (el algoritmo de java.util.SplittableRandom) con semilla. A diferencia de
+ * SplittableRandom, su estado es un único long que se puede leer y restaurar, así que una partida
+ * guardada continúa exactamente la misma secuencia al cargarse. No es seguro entre hilos: cada hilo
+ * debe usar su propia fuente obtenida con dividir().
+ */
+public class FuenteAleatoriaRapida implements FuenteAleatoria {
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long estado;
+
+    public FuenteAleatoriaRapida(long semilla) {
+        this.estado = semilla;
+    }
+
+    @Override
+    public long nextLong() {
+        return mezclar(estado += GAMMA);
+    }
+
+    @Override
+    public int nextInt(int limite) {
+        if (limite <= 0) throw new IllegalArgumentException("El límite debe ser positivo: " + limite);
+        return (int) (((nextLong() >>> 32) * limite) >>> 32);
+    }
+
+    @Override
+    public FuenteAleatoria dividir() {
+        return new FuenteAleatoriaRapida(nextLong());
+    }
+
+    @Override
+    public boolean esReproducible() {
+        return true;
+    }
+
+    /**
+     * Estado actual del generador, para guardarlo con la partida.
+     */
+    public long getEstado() { return estado; }
+    public void setEstado(long estado) { this.estado = estado; }
+
+    /**
+     * Función de mezcla de SplitMix64.
+     */
+    static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
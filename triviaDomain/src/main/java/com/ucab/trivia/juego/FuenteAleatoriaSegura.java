@@ -0,0 +1,34 @@
+package com.ucab.trivia.juego;
+
+import java.security.SecureRandom;
+
+/**
+ * Fuente basada en SecureRandom para el juego normal: impredecible, pero no reproducible.
+ */
+public class FuenteAleatoriaSegura implements FuenteAleatoria {
+    private final SecureRandom random;
+
+    public FuenteAleatoriaSegura() {
+        this.random = new SecureRandom();
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt(int limite) {
+        return random.nextInt(limite);
+    }
+
+    @Override
+    public FuenteAleatoria dividir() {
+        return new FuenteAleatoriaSegura();
+    }
+
+    @Override
+    public boolean esReproducible() {
+        return false;
+    }
+}
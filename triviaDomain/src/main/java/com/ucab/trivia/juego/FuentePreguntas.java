@@ -0,0 +1,40 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+/**
+ * Origen de las preguntas APROBADAS que usa el juego, indexadas por categoría y posición (0..contar-1).
+ */
+public interface FuentePreguntas {
+    int contarPreguntas(CategoriaTrivia categoria);
+
+    /**
+     * Devuelve la pregunta en la posición dada de su categoría. Según la fuente, puede decodificarse en cada llamada;
+     * el paquete compilado devuelve null si el registro está dañado.
+     */
+    PreguntaDetallada obtenerPregunta(CategoriaTrivia categoria, int indice);
+
+    /**
+     * Id de la pregunta en la posición dada. Por omisión arma la pregunta; las fuentes que pueden leer sólo el id lo hacen.
+     */
+    default String obtenerId(CategoriaTrivia categoria, int indice) {
+        return obtenerPregunta(categoria, indice).getId();
+    }
+
+    /**
+     * Indica si la fuente guarda las respuestas ya normalizadas al cargarlas (ver obtenerRespuestaNormalizada);
+     * si no, se normalizan al hacer cada pregunta.
+     */
+    default boolean guardaRespuestasNormalizadas() {
+        return false;
+    }
+
+    /**
+     * Respuesta de la pregunta en la posición dada, normalizada al cargarla (ver RespuestaAceptada.normalizarAlternativas),
+     * o null si la fuente no la guarda.
+     */
+    default String obtenerRespuestaNormalizada(CategoriaTrivia categoria, int indice) {
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.AlmacenPreguntasCompacto;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Preguntas de cada categoría en un AlmacenPreguntasCompacto: ocupan mucha menos memoria que una lista de
+ * objetos y cada pregunta se arma cuando se saca, como en el paquete compilado. No se modifica después de
+ * crearse, así que puede leerse desde varios hilos. Las respuestas normalizadas al cargar (ver LectorPreguntasAprobadas)
+ * van en la arena de cada almacén, así que no se normalizan cada vez que se hace una pregunta.
+ */
+public class FuentePreguntasCompacta implements FuentePreguntas {
+    private final Map<CategoriaTrivia, AlmacenPreguntasCompacto> almacenPorCategoria;
+
+    public FuentePreguntasCompacta(Map<CategoriaTrivia, AlmacenPreguntasCompacto> almacenPorCategoria) {
+        this.almacenPorCategoria = new EnumMap<>(almacenPorCategoria);
+    }
+
+    @Override
+    public int contarPreguntas(CategoriaTrivia categoria) {
+        AlmacenPreguntasCompacto almacen = almacenPorCategoria.get(categoria);
+        return almacen == null ? 0 : almacen.tamano();
+    }
+
+    @Override
+    public PreguntaDetallada obtenerPregunta(CategoriaTrivia categoria, int indice) {
+        return almacenPorCategoria.get(categoria).obtener(indice);
+    }
+
+    @Override
+    public String obtenerId(CategoriaTrivia categoria, int indice) {
+        return almacenPorCategoria.get(categoria).getId(indice);
+    }
+
+    @Override
+    public boolean guardaRespuestasNormalizadas() {
+        return true;
+    }
+
+    @Override
+    public String obtenerRespuestaNormalizada(CategoriaTrivia categoria, int indice) {
+        return almacenPorCategoria.get(categoria).getRespuestaNormalizada(indice);
+    }
+
+    /**
+     * Bytes retenidos por todos los almacenes (estimación).
+     */
+    public long estimarBytesRetenidos() {
+        long bytes = 0;
+        for (AlmacenPreguntasCompacto almacen : almacenPorCategoria.values()) bytes += almacen.estimarBytesRetenidos();
+        return bytes;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.AlmacenPreguntasCompacto;
+import com.ucab.trivia.domain.BancoFragmentado;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Preguntas de un banco dividido por categoría (ver BancoFragmentado). Al crearla sólo se conoce el manifiesto;
+ * cada categoría se lee a un AlmacenPreguntasCompacto la primera vez que se pide y desde entonces no cambia.
+ * iniciarPrecarga las lee todas en un hilo aparte, así que normalmente ya están listas cuando el juego saca la
+ * primera pregunta; si no, quien la pide espera sólo a la suya. Las respuestas se normalizan al leer cada categoría
+ * y se guardan en su almacén. Puede leerse desde varios hilos.
+ */
+public class FuentePreguntasFragmentada implements FuentePreguntas {
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+
+    private final File directorio;
+    private final BancoFragmentado.Manifiesto manifiesto;
+    private final boolean mostrarAdvertencias;
+    private final AtomicReferenceArray<AlmacenPreguntasCompacto> almacenes; // ordinal -> null hasta leerla
+    private final Object[] cerrojos;                                        // Uno por categoría, para leerla una sola vez
+
+    public FuentePreguntasFragmentada(File directorio, BancoFragmentado.Manifiesto manifiesto, boolean mostrarAdvertencias) {
+        this.directorio = directorio;
+        this.manifiesto = manifiesto;
+        this.mostrarAdvertencias = mostrarAdvertencias;
+        this.almacenes = new AtomicReferenceArray<>(CATEGORIAS.length);
+        this.cerrojos = new Object[CATEGORIAS.length];
+        for (int i = 0; i < cerrojos.length; i++) cerrojos[i] = new Object();
+    }
+
+    /**
+     * Empieza a leer en segundo plano las categorías que aún no se han pedido.
+     */
+    public void iniciarPrecarga() {
+        Thread hilo = new Thread(() -> {
+            for (CategoriaTrivia cat : CATEGORIAS) almacen(cat);
+        }, "precarga-banco-preguntas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    @Override
+    public int contarPreguntas(CategoriaTrivia categoria) {
+        return almacen(categoria).tamano();
+    }
+
+    @Override
+    public PreguntaDetallada obtenerPregunta(CategoriaTrivia categoria, int indice) {
+        return almacen(categoria).obtener(indice);
+    }
+
+    @Override
+    public String obtenerId(CategoriaTrivia categoria, int indice) {
+        return almacen(categoria).getId(indice);
+    }
+
+    @Override
+    public boolean guardaRespuestasNormalizadas() {
+        return true;
+    }
+
+    @Override
+    public String obtenerRespuestaNormalizada(CategoriaTrivia categoria, int indice) {
+        return almacen(categoria).getRespuestaNormalizada(indice);
+    }
+
+    public boolean estaCargada(CategoriaTrivia categoria) {
+        return almacenes.get(categoria.ordinal()) != null;
+    }
+
+    private AlmacenPreguntasCompacto almacen(CategoriaTrivia categoria) {
+        int ord = categoria.ordinal();
+        AlmacenPreguntasCompacto almacen = almacenes.get(ord);
+        if (almacen != null) return almacen;
+        synchronized (cerrojos[ord]) {
+            almacen = almacenes.get(ord);
+            if (almacen == null) {
+                almacen = leerCategoria(categoria);
+                almacenes.set(ord, almacen);
+            }
+            return almacen;
+        }
+    }
+
+    private AlmacenPreguntasCompacto leerCategoria(CategoriaTrivia categoria) {
+        AlmacenPreguntasCompacto almacen = new AlmacenPreguntasCompacto();
+        BancoFragmentado.Fragmento fragmento = manifiesto.buscar(categoria);
+        if (fragmento == null || fragmento.getArchivo() == null) {
+            if (mostrarAdvertencias) System.err.println("ADVERTENCIA: El manifiesto del banco no incluye la categoría: " + categoria.getNombreMostrado());
+            return almacen;
+        }
+        // Sólo el nombre: los archivos de las categorías están siempre junto al manifiesto
+        File archivo = new File(directorio, new File(fragmento.getArchivo()).getName());
+        Map<CategoriaTrivia, AlmacenPreguntasCompacto> destino = new EnumMap<>(CategoriaTrivia.class);
+        destino.put(categoria, almacen);
+        LectorPreguntasAprobadas.Resultado resultado = new LectorPreguntasAprobadas.Resultado();
+        try {
+            LectorPreguntasAprobadas.leer(archivo, destino, resultado);
+        } catch (IOException e) {
+            if (mostrarAdvertencias) System.err.println("ADVERTENCIA: No se pudo leer el archivo de la categoría " + categoria.getNombreMostrado() +
+                    " ('" + archivo.getPath() + "'): " + e.getMessage() + ". Se usarán las " + resultado.aprobadas + " preguntas leídas.");
+        }
+        if (mostrarAdvertencias && resultado.invalidos > 0) {
+            System.err.println("ADVERTENCIA: Se omitieron " + resultado.invalidos + " preguntas APROBADAS de otra categoría en '" + archivo.getName() + "'.");
+        }
+        almacen.recortar();
+        return almacen;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ucab.trivia.juego;
+
+/**
+ * Grafo de transiciones precompilado de un tablero. Cada opción de movimiento de una casilla es un
+ * recorrido fijo: se parte de un estado inicial y en cada paso se pasa al estado siguiente (un estado
+ * es una casilla más el sentido en que se avanza), hasta llegar a un estado sin siguiente.
+ *
+ * Al compilarse se recorre una sola vez cada (casilla, opción) hasta pasosMaximos, y se guarda la
+ * casilla de llegada para cada cantidad de pasos y cuántos pasos se pueden dar antes de detenerse.
+ * Las consultas dentro de ese rango son lecturas de arreglo; más allá, se recorre la máquina de estados.
+ */
+public final class GrafoTransiciones {
+    public static final int SIN_ESTADO = -1;
+
+    private final int numeroOpciones;
+    private final int pasosMaximos;
+    private final int[] estadoInicial;   // idCelda * numeroOpciones + opción -> estado, o SIN_ESTADO si la opción no existe
+    private final int[] siguienteEstado; // estado -> estado siguiente, o SIN_ESTADO si el recorrido se detiene ahí
+    private final int[] celdaDeEstado;   // estado -> idCelda
+    private final int[] saltos;          // (idCelda * numeroOpciones + opción) * (pasosMaximos + 1) + pasos -> casilla de llegada
+    private final byte[] alcance;        // idCelda * numeroOpciones + opción -> pasos posibles (hasta pasosMaximos)
+
+    private GrafoTransiciones(int numeroCeldas, int numeroOpciones, int pasosMaximos,
+                              int[] estadoInicial, int[] siguienteEstado, int[] celdaDeEstado) {
+        this.numeroOpciones = numeroOpciones;
+        this.pasosMaximos = pasosMaximos;
+        this.estadoInicial = estadoInicial;
+        this.siguienteEstado = siguienteEstado;
+        this.celdaDeEstado = celdaDeEstado;
+        this.saltos = new int[numeroCeldas * numeroOpciones * (pasosMaximos + 1)];
+        this.alcance = new byte[numeroCeldas * numeroOpciones];
+    }
+
+    /**
+     * Compila el grafo a partir de su máquina de estados.
+     * @param numeroCeldas Cantidad de casillas del tablero.
+     * @param numeroOpciones Opciones de movimiento por casilla.
+     * @param pasosMaximos Hasta cuántos pasos se tabulan las llegadas (máximo 127).
+     * @param estadoInicial idCelda * numeroOpciones + opción -> estado inicial, o SIN_ESTADO.
+     * @param siguienteEstado estado -> estado siguiente, o SIN_ESTADO.
+     * @param celdaDeEstado estado -> idCelda donde está ese estado.
+     */
+    public static GrafoTransiciones compilar(int numeroCeldas, int numeroOpciones, int pasosMaximos,
+                                             int[] estadoInicial, int[] siguienteEstado, int[] celdaDeEstado) {
+        if (pasosMaximos < 0 || pasosMaximos > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("pasosMaximos debe estar entre 0 y " + Byte.MAX_VALUE + ": " + pasosMaximos);
+        }
+        GrafoTransiciones grafo = new GrafoTransiciones(numeroCeldas, numeroOpciones, pasosMaximos,
+                estadoInicial, siguienteEstado, celdaDeEstado);
+        final int anchoPasos = pasosMaximos + 1;
+        for (int id = 0; id < numeroCeldas; id++) {
+            for (int op = 0; op < numeroOpciones; op++) {
+                int base = (id * numeroOpciones + op) * anchoPasos;
+                int estado = estadoInicial[id * numeroOpciones + op];
+                int actual = id;
+                int pasosDados = 0;
+                grafo.saltos[base] = id;
+                for (int pasos = 1; pasos <= pasosMaximos; pasos++) {
+                    int siguiente = estado == SIN_ESTADO ? SIN_ESTADO : siguienteEstado[estado];
+                    if (siguiente != SIN_ESTADO) {
+                        estado = siguiente;
+                        actual = celdaDeEstado[estado];
+                        pasosDados = pasos;
+                    }
+                    grafo.saltos[base + pasos] = actual;
+                }
+                grafo.alcance[id * numeroOpciones + op] = (byte) pasosDados;
+            }
+        }
+        return grafo;
+    }
+
+    /**
+     * Casilla de llegada al avanzar la cantidad de pasos dada con una opción. Si el recorrido se
+     * detiene antes, es la última casilla alcanzada; si la opción no existe, la misma casilla.
+     */
+    public int destino(int idCelda, int opcion, int pasos) {
+        if (pasos <= pasosMaximos) return saltos[(idCelda * numeroOpciones + opcion) * (pasosMaximos + 1) + pasos];
+        int estado = estadoTrasPasos(idCelda, opcion, pasos);
+        return estado == SIN_ESTADO ? idCelda : celdaDeEstado[estado];
+    }
+
+    /**
+     * Pasos que se pueden dar con una opción antes de detenerse (hasta pasosMaximos). 0 significa que la opción está cerrada.
+     */
+    public int alcance(int idCelda, int opcion) {
+        return alcance[idCelda * numeroOpciones + opcion];
+    }
+
+    /**
+     * Indica si avanzar la cantidad de pasos dada con una opción se detiene antes de completarlos.
+     */
+    public boolean bloqueado(int idCelda, int opcion, int pasos) {
+        int alcanceOpcion = alcance(idCelda, opcion);
+        if (alcanceOpcion < pasosMaximos || pasos <= pasosMaximos) return alcanceOpcion < pasos;
+        // Más allá de la tabla se recorre la máquina de estados
+        int estado = estadoInicial[idCelda * numeroOpciones + opcion];
+        for (int i = 0; i < pasos; i++) {
+            estado = siguienteEstado[estado];
+            if (estado == SIN_ESTADO) return true;
+        }
+        return false;
+    }
+
+    public int getNumeroOpciones() { return numeroOpciones; }
+    public int getPasosMaximos() { return pasosMaximos; }
+
+    private int estadoTrasPasos(int idCelda, int opcion, int pasos) {
+        int estado = estadoInicial[idCelda * numeroOpciones + opcion];
+        if (estado == SIN_ESTADO) return SIN_ESTADO;
+        for (int i = 0; i < pasos; i++) {
+            int siguiente = siguienteEstado[estado];
+            if (siguiente == SIN_ESTADO) break;
+            estado = siguiente;
+        }
+        return estado;
+    }
+}
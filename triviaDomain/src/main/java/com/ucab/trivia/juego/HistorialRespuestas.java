@@ -0,0 +1,84 @@
+package com.ucab.trivia.juego;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cuántas veces se ha respondido cada pregunta (por id) y cuántas acertadas, acumulado entre partidas en un
+ * archivo JSON junto al banco. De ahí sale la dificultad de cada pregunta: la proporción de fallos,
+ * suavizada para que una pregunta sin historial valga 0.5. Es seguro entre hilos.
+ */
+public class HistorialRespuestas {
+    public static final String NOMBRE_ARCHIVO = "historial_respuestas_compartido.json";
+    private static final int INTENTOS = 0;
+    private static final int ACIERTOS = 1;
+
+    private final File archivo;
+    private final ObjectMapper objectMapper;
+    private final Map<String, int[]> contadores; // id -> {intentos, aciertos}
+    private boolean cambiosSinGuardar;
+
+    private HistorialRespuestas(File archivo, Map<String, int[]> contadores) {
+        this.archivo = archivo;
+        this.objectMapper = new ObjectMapper();
+        this.contadores = contadores;
+    }
+
+    /**
+     * Lee el historial del archivo; si no existe o no se puede leer, empieza vacío.
+     */
+    public static HistorialRespuestas cargar(File archivo) {
+        Map<String, int[]> contadores = new HashMap<>();
+        if (archivo.exists() && archivo.length() > 0) {
+            try {
+                Map<String, int[]> leidos = new ObjectMapper().readValue(archivo, new TypeReference<Map<String, int[]>>() {});
+                leidos.forEach((id, valores) -> {
+                    if (valores != null && valores.length == 2) contadores.put(id, valores);
+                });
+            } catch (IOException e) {
+                System.err.println("ADVERTENCIA: No se pudo leer el historial de respuestas: " + e.getMessage());
+            }
+        }
+        return new HistorialRespuestas(archivo, contadores);
+    }
+
+    public synchronized void registrar(String idPregunta, boolean correcta) {
+        if (idPregunta == null) return;
+        int[] valores = contadores.computeIfAbsent(idPregunta, id -> new int[2]);
+        valores[INTENTOS]++;
+        if (correcta) valores[ACIERTOS]++;
+        cambiosSinGuardar = true;
+    }
+
+    /**
+     * Dificultad de la pregunta entre 0 (todos aciertan) y 1 (nadie acierta): 1 - (aciertos + 1) / (intentos + 2).
+     */
+    public synchronized double dificultad(String idPregunta) {
+        int[] valores = idPregunta == null ? null : contadores.get(idPregunta);
+        if (valores == null) return 0.5;
+        return 1.0 - (valores[ACIERTOS] + 1.0) / (valores[INTENTOS] + 2.0);
+    }
+
+    /**
+     * Escribe el historial si hubo respuestas nuevas desde la última vez (archivo temporal y renombrado).
+     */
+    public synchronized void guardarSiHayCambios() {
+        if (!cambiosSinGuardar) return;
+        File temporal = new File(archivo.getAbsolutePath() + ".tmp");
+        try {
+            objectMapper.writeValue(temporal, contadores);
+            Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            cambiosSinGuardar = false;
+        } catch (IOException e) {
+            System.err.println(">> Error al guardar el historial de respuestas: " + e.getMessage());
+            temporal.delete();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+
+import java.util.BitSet;
+
+/**
+ * Índice de casillas especiales de un tablero: un BitSet sobre los idCelda por cada tipo de casilla
+ * (vértices radiales, anillo de re-roll, centro y una por categoría). Saber si una casilla es de un
+ * tipo es una sola prueba de bit, y recorrer las casillas de un tipo es un barrido con nextSetBit.
+ *
+ * El tablero lo llena al construirse; desde fuera sólo se consulta.
+ */
+public class IndiceCeldasEspeciales {
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+
+    private final BitSet verticesRadiales;
+    private final BitSet reRoll;
+    private final BitSet centro;
+    private final BitSet[] celdasPorCategoria; // ordinal de CategoriaTrivia -> casillas de esa categoría
+
+    IndiceCeldasEspeciales(int numeroCeldas) {
+        this.verticesRadiales = new BitSet(numeroCeldas);
+        this.reRoll = new BitSet(numeroCeldas);
+        this.centro = new BitSet(numeroCeldas);
+        this.celdasPorCategoria = new BitSet[CATEGORIAS.length];
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            celdasPorCategoria[i] = new BitSet(numeroCeldas);
+        }
+    }
+
+    void marcarVerticeRadial(int idCelda) { verticesRadiales.set(idCelda); }
+    void marcarReRoll(int idCelda) { reRoll.set(idCelda); }
+    void marcarCentro(int idCelda) { centro.set(idCelda); }
+    void marcarCategoria(int idCelda, CategoriaTrivia categoria) { celdasPorCategoria[categoria.ordinal()].set(idCelda); }
+
+    public boolean esVerticeRadial(int idCelda) { return idCelda >= 0 && verticesRadiales.get(idCelda); }
+    public boolean esReRoll(int idCelda) { return idCelda >= 0 && reRoll.get(idCelda); }
+    public boolean esCentro(int idCelda) { return idCelda >= 0 && centro.get(idCelda); }
+    public boolean esDeCategoria(int idCelda, CategoriaTrivia categoria) {
+        return idCelda >= 0 && categoria != null && celdasPorCategoria[categoria.ordinal()].get(idCelda);
+    }
+
+    /**
+     * Siguiente casilla (en orden de idCelda) de la categoría dada a partir de desdeIdCelda, inclusive.
+     * @return El idCelda encontrado, o TableroHexagonal.SIN_CELDA si no hay más.
+     */
+    public int siguienteCeldaDeCategoria(CategoriaTrivia categoria, int desdeIdCelda) {
+        int id = celdasPorCategoria[categoria.ordinal()].nextSetBit(desdeIdCelda);
+        return id < 0 ? TableroHexagonal.SIN_CELDA : id;
+    }
+
+    /**
+     * Siguiente vértice radial a partir de desdeIdCelda, inclusive.
+     * @return El idCelda encontrado, o TableroHexagonal.SIN_CELDA si no hay más.
+     */
+    public int siguienteVerticeRadial(int desdeIdCelda) {
+        int id = verticesRadiales.nextSetBit(desdeIdCelda);
+        return id < 0 ? TableroHexagonal.SIN_CELDA : id;
+    }
+
+    public int contarCeldasDeCategoria(CategoriaTrivia categoria) { return celdasPorCategoria[categoria.ordinal()].cardinality(); }
+    public int contarVerticesRadiales() { return verticesRadiales.cardinality(); }
+    public int contarReRoll() { return reRoll.cardinality(); }
+}
@@ -13,6 +13,7 @@ public class Jugador {
     private String correoElectronico;
     private Ficha ficha;
     private CoordenadaHex posicionActual; // <<--- CAMBIO CLAVE: El tipo ahora es CoordenadaHex
+    private int idCelda = TableroHexagonal.SIN_CELDA; // Identificador compacto de la casilla en el tablero
     private EstadisticasJugador estadisticas;
 
     /**
@@ -64,6 +65,27 @@ public class Jugador {
         this.posicionActual = posicionActual; // <<--- CAMBIO CLAVE: El tipo del parámetro ahora es CoordenadaHex
     }
 
+    /**
+     * Obtiene el identificador compacto (idCelda) de la casilla donde está el jugador,
+     * o TableroHexagonal.SIN_CELDA si aún no se ha resuelto contra un tablero.
+     */
+    public int getIdCelda() {
+        return idCelda;
+    }
+    public void setIdCelda(int idCelda) {
+        this.idCelda = idCelda;
+    }
+
+    /**
+     * Mueve al jugador a una casilla, actualizando a la vez su idCelda y su coordenada.
+     * @param idCelda El identificador de la casilla en el tablero.
+     * @param coordenada La coordenada canónica de esa casilla (ver TableroHexagonal.coordenadaDeCelda).
+     */
+    public void moverACelda(int idCelda, CoordenadaHex coordenada) {
+        this.idCelda = idCelda;
+        this.posicionActual = coordenada;
+    }
+
     public EstadisticasJugador getEstadisticas() {
         return estadisticas;
     }
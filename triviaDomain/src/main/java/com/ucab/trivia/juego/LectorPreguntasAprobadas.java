@@ -0,0 +1,172 @@
+package com.ucab.trivia.juego;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ucab.trivia.domain.AlmacenPreguntasCompacto;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EstadoPregunta;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lee un arreglo JSON de preguntas con el parser de flujo y copia las APROBADAS al almacén de su categoría,
+ * sin crear un objeto por pregunta; las demás se saltan en cuanto se conoce su estado. Los textos de cada
+ * registro se copian a búferes reutilizables y sólo se vuelven String si la pregunta resulta APROBADA. Sirve
+ * tanto para el banco completo como para el archivo de una categoría del banco fragmentado.
+ */
+final class LectorPreguntasAprobadas {
+    // Búsqueda de categorías por nombre mostrado o por nombre del enum, sin distinguir mayúsculas
+    private static final Map<String, CategoriaTrivia> CATEGORIA_POR_NOMBRE = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    static {
+        for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+            CATEGORIA_POR_NOMBRE.put(cat.getNombreMostrado(), cat);
+            CATEGORIA_POR_NOMBRE.put(cat.name(), cat);
+        }
+    }
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final char[] ESTADO_APROBADA = EstadoPregunta.APROBADA.name().toCharArray();
+
+    private LectorPreguntasAprobadas() {}
+
+    /**
+     * Contadores de una lectura. Se llenan a medida que se lee, así que tras un error reflejan lo leído hasta ahí.
+     */
+    static final class Resultado {
+        int registrosLeidos;
+        int aprobadas;
+        int invalidos; // APROBADAS sin categoría conocida, o de una categoría que no está en el destino
+    }
+
+    /**
+     * Agrega al almacén de su categoría cada pregunta APROBADA del archivo. Si la lectura falla a mitad,
+     * lo leído hasta ese punto queda en los almacenes.
+     */
+    static void leer(File archivo, Map<CategoriaTrivia, AlmacenPreguntasCompacto> destino, Resultado resultado) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(archivo)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Se esperaba un arreglo de preguntas al inicio del archivo.");
+            }
+            RegistroPregunta registro = new RegistroPregunta();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                resultado.registrosLeidos++;
+                registro.limpiar();
+                leerRegistro(parser, registro);
+                if (!registro.aprobada) continue;
+                String nombreCategoria = registro.nombreCategoria.comoTexto();
+                CategoriaTrivia categoria = nombreCategoria == null ? null : CATEGORIA_POR_NOMBRE.get(nombreCategoria);
+                AlmacenPreguntasCompacto almacen = categoria == null ? null : destino.get(categoria);
+                if (almacen == null) {
+                    resultado.invalidos++;
+                    continue;
+                }
+                String respuesta = registro.respuesta.comoTexto();
+                almacen.agregar(registro.id.comoTexto(), registro.pregunta.comoTexto(), respuesta, RespuestaAceptada.normalizarAlternativas(respuesta),
+                        categoria, EstadoPregunta.APROBADA, registro.usuarioCreadorEmail.comoTexto());
+                resultado.aprobadas++;
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Registro inesperado en el banco de preguntas: " + token);
+            }
+        }
+    }
+
+    /**
+     * Lee los campos de un objeto pregunta (el parser está en su START_OBJECT) y deja el parser en su END_OBJECT.
+     * En cuanto se sabe que la pregunta no está APROBADA, el resto del objeto se salta sin leer sus textos.
+     * Ningún campo crea un String aquí: los textos quedan en los búferes del registro.
+     */
+    private static void leerRegistro(JsonParser parser, RegistroPregunta registro) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName(); // Los nombres de campo vienen internados por el parser
+            JsonToken valor = parser.nextToken();
+            if (registro.estadoLeido && !registro.aprobada) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (campo) {
+                case "estado":
+                    registro.estadoLeido = true;
+                    registro.aprobada = valor == JsonToken.VALUE_STRING && textoIgualA(parser, ESTADO_APROBADA);
+                    break;
+                case "id": registro.id.copiar(parser, valor); break;
+                case "pregunta": registro.pregunta.copiar(parser, valor); break;
+                case "respuesta": registro.respuesta.copiar(parser, valor); break;
+                case "categoria": registro.nombreCategoria.copiar(parser, valor); break;
+                case "usuarioCreadorEmail": registro.usuarioCreadorEmail.copiar(parser, valor); break;
+                default: parser.skipChildren(); // Campos desconocidos: se ignoran
+            }
+        }
+    }
+
+    /**
+     * Compara el texto del token actual con el dado sin crear un String.
+     */
+    private static boolean textoIgualA(JsonParser parser, char[] esperado) throws IOException {
+        if (parser.getTextLength() != esperado.length) return false;
+        char[] caracteres = parser.getTextCharacters();
+        int inicio = parser.getTextOffset();
+        for (int i = 0; i < esperado.length; i++) {
+            if (caracteres[inicio + i] != esperado[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Texto de un campo copiado del búfer del parser; el arreglo crece cuando hace falta y se reutiliza.
+     */
+    private static final class CampoTexto {
+        private char[] caracteres = new char[64];
+        private int largo;
+        private boolean presente;
+
+        void copiar(JsonParser parser, JsonToken valor) throws IOException {
+            parser.skipChildren();
+            if (valor == JsonToken.VALUE_NULL || !valor.isScalarValue()) {
+                limpiar();
+                return;
+            }
+            int n = parser.getTextLength();
+            if (n > caracteres.length) caracteres = new char[Math.max(n, caracteres.length * 2)];
+            System.arraycopy(parser.getTextCharacters(), parser.getTextOffset(), caracteres, 0, n);
+            largo = n;
+            presente = true;
+        }
+
+        void limpiar() {
+            largo = 0;
+            presente = false;
+        }
+
+        String comoTexto() {
+            return presente ? new String(caracteres, 0, largo) : null;
+        }
+    }
+
+    /**
+     * Campos de la pregunta que se está leyendo; se reutiliza entre registros.
+     */
+    private static final class RegistroPregunta {
+        final CampoTexto id = new CampoTexto();
+        final CampoTexto pregunta = new CampoTexto();
+        final CampoTexto respuesta = new CampoTexto();
+        final CampoTexto nombreCategoria = new CampoTexto();
+        final CampoTexto usuarioCreadorEmail = new CampoTexto();
+        boolean estadoLeido;
+        boolean aprobada;
+
+        void limpiar() {
+            id.limpiar();
+            pregunta.limpiar();
+            respuesta.limpiar();
+            nombreCategoria.limpiar();
+            usuarioCreadorEmail.limpiar();
+            estadoLeido = false;
+            aprobada = false;
+        }
+    }
+}
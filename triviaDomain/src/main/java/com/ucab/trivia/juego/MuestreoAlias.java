@@ -0,0 +1,77 @@
+package com.ucab.trivia.juego;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tabla de alias de Vose para sortear índices 0..n-1 con probabilidad proporcional a un peso, en tiempo
+ * constante por sorteo (un entero y un double aleatorios). Construirla es O(n); los arreglos se reutilizan
+ * entre construcciones mientras alcance su capacidad, así que reconstruir con el mismo tamaño no reserva memoria.
+ * No es segura entre hilos.
+ */
+public final class MuestreoAlias {
+    private double[] probabilidad = new double[0];
+    private int[] alias = new int[0];
+    private double[] escalados = new double[0];
+    private int[] pequenos = new int[0];
+    private int[] grandes = new int[0];
+    private int tamano;
+
+    /**
+     * (Re)construye la tabla con los primeros {@code n} pesos (no negativos). Si todos son cero, el sorteo es uniforme.
+     */
+    public void construir(double[] pesos, int n) {
+        asegurarCapacidad(n);
+        this.tamano = n;
+        if (n == 0) return;
+        double suma = 0;
+        for (int i = 0; i < n; i++) suma += pesos[i];
+        int cantidadPequenos = 0;
+        int cantidadGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalados[i] = suma > 0 ? pesos[i] * n / suma : 1.0;
+            if (escalados[i] < 1.0) pequenos[cantidadPequenos++] = i;
+            else grandes[cantidadGrandes++] = i;
+        }
+        while (cantidadPequenos > 0 && cantidadGrandes > 0) {
+            int pequeno = pequenos[--cantidadPequenos];
+            int grande = grandes[--cantidadGrandes];
+            probabilidad[pequeno] = escalados[pequeno];
+            alias[pequeno] = grande;
+            escalados[grande] = (escalados[grande] + escalados[pequeno]) - 1.0;
+            if (escalados[grande] < 1.0) pequenos[cantidadPequenos++] = grande;
+            else grandes[cantidadGrandes++] = grande;
+        }
+        // Lo que queda tiene probabilidad 1 (salvo errores de redondeo)
+        while (cantidadGrandes > 0) {
+            int grande = grandes[--cantidadGrandes];
+            probabilidad[grande] = 1.0;
+            alias[grande] = grande;
+        }
+        while (cantidadPequenos > 0) {
+            int pequeno = pequenos[--cantidadPequenos];
+            probabilidad[pequeno] = 1.0;
+            alias[pequeno] = pequeno;
+        }
+    }
+
+    /**
+     * Sortea un índice según los pesos de la última construcción.
+     */
+    public int muestrear(RandomGenerator aleatorio) {
+        int i = aleatorio.nextInt(tamano);
+        return aleatorio.nextDouble() < probabilidad[i] ? i : alias[i];
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    private void asegurarCapacidad(int n) {
+        if (probabilidad.length >= n) return;
+        probabilidad = new double[n];
+        alias = new int[n];
+        escalados = new double[n];
+        pequenos = new int[n];
+        grandes = new int[n];
+    }
+}
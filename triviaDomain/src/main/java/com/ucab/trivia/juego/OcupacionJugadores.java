@@ -0,0 +1,88 @@
+package com.ucab.trivia.juego;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ocupación de las casillas de un tablero: una máscara de 64 bits por casilla, un bit por jugador.
+ * Cada jugador recibe un número (1..MAXIMO_JUGADORES) la primera vez que se coloca, y con él un
+ * símbolo corto para dibujarlo en consola. La comparten todas las topologías de tablero.
+ */
+public class OcupacionJugadores {
+    public static final int MAXIMO_JUGADORES = Long.SIZE;
+
+    private final long[] jugadoresPorCelda;  // bit (numeroJugador - 1) encendido si ese jugador está en la casilla
+    private final Map<String, Integer> emailANumeroJugador; // número de jugador 1..MAXIMO_JUGADORES
+    private final String[] simboloPorNumeroJugador;
+    private int proximoNumero;
+
+    public OcupacionJugadores(int numeroCeldas) {
+        this.jugadoresPorCelda = new long[numeroCeldas];
+        this.emailANumeroJugador = new HashMap<>();
+        this.simboloPorNumeroJugador = new String[MAXIMO_JUGADORES + 1];
+        this.proximoNumero = 1;
+    }
+
+    public boolean estaOcupada(int idCelda) { return jugadoresPorCelda[idCelda] != 0L; }
+
+    /**
+     * Devuelve la máscara de jugadores de una casilla: el bit (n - 1) está encendido si el jugador número n está en ella.
+     */
+    public long getJugadoresEnCelda(int idCelda) { return jugadoresPorCelda[idCelda]; }
+
+    public int contarJugadoresEnCelda(int idCelda) { return Long.bitCount(jugadoresPorCelda[idCelda]); }
+
+    /**
+     * Devuelve el número (1..MAXIMO_JUGADORES) asignado a un jugador, asignándole uno si aún no tenía.
+     * @throws IllegalStateException si ya se asignaron MAXIMO_JUGADORES números.
+     */
+    public int getNumeroJugador(String emailJugador) {
+        Integer numero = emailANumeroJugador.get(emailJugador);
+        if (numero == null) {
+            if (proximoNumero > MAXIMO_JUGADORES) {
+                throw new IllegalStateException("El tablero admite como máximo " + MAXIMO_JUGADORES + " jugadores.");
+            }
+            numero = proximoNumero++;
+            emailANumeroJugador.put(emailJugador, numero);
+        }
+        return numero;
+    }
+
+    /**
+     * Símbolo de 2 caracteres del jugador número n para el tablero en consola ("J1".."J9", luego "10".."64").
+     */
+    public String getSimboloJugador(int numeroJugador) {
+        String simbolo = simboloPorNumeroJugador[numeroJugador];
+        if (simbolo == null) {
+            simbolo = numeroJugador < 10 ? "J" + numeroJugador : String.valueOf(numeroJugador);
+            simboloPorNumeroJugador[numeroJugador] = simbolo;
+        }
+        return simbolo;
+    }
+
+    /**
+     * Símbolo de 2 caracteres para el contenido de una casilla ocupada: el del jugador si está solo,
+     * o "*n" si hay n jugadores. Devuelve null si la casilla está vacía.
+     */
+    public String getSimboloOcupacion(int idCelda) {
+        long jugadores = jugadoresPorCelda[idCelda];
+        if (jugadores == 0L) return null;
+        int cantidad = Long.bitCount(jugadores);
+        if (cantidad == 1) return getSimboloJugador(Long.numberOfTrailingZeros(jugadores) + 1);
+        return cantidad < 10 ? "*" + cantidad : "**";
+    }
+
+    public void colocarJugador(String emailJugador, int idCelda) {
+        if (idCelda < 0 || idCelda >= jugadoresPorCelda.length) return;
+        jugadoresPorCelda[idCelda] |= 1L << (getNumeroJugador(emailJugador) - 1);
+    }
+
+    /**
+     * Quita a un jugador de una casilla sin afectar a los demás jugadores que estén en ella.
+     */
+    public void quitarJugador(String emailJugador, int idCelda) {
+        if (idCelda < 0 || idCelda >= jugadoresPorCelda.length) return;
+        Integer numero = emailANumeroJugador.get(emailJugador);
+        if (numero != null) jugadoresPorCelda[idCelda] &= ~(1L << (numero - 1));
+    }
+}
@@ -0,0 +1,167 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EscritorPaquetePreguntas;
+import com.ucab.trivia.domain.EstadoPregunta;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Paquete binario de preguntas compilado por AppConfig (ver EscritorPaquetePreguntas), mapeado en memoria
+ * de sólo lectura. Al abrirlo sólo se leen la cabecera y la tabla de categorías y se comprueba que los índices
+ * caen dentro del archivo, así que abrirlo cuesta lo mismo sea cual sea el tamaño del banco. Cada pregunta se
+ * decodifica cuando se pide, comprobando entonces que su registro cae dentro del archivo; un registro dañado se
+ * trata como una pregunta que falta. Como el archivo se mapea, varios procesos del juego en la misma máquina
+ * comparten las mismas páginas del sistema operativo.
+ */
+public class PaquetePreguntas implements FuentePreguntas {
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+    private static final int TAMANO_CABECERA = 20;
+    private static final int CAMPOS_POR_REGISTRO = 4; // id, pregunta, respuesta, usuarioCreadorEmail
+    private static final int CAMPO_DANADO = -2;
+
+    private final MappedByteBuffer datos;
+    private final int[] cantidadPorCategoria;      // ordinal -> cantidad de preguntas
+    private final int[] desplazamientoIndice;      // ordinal -> inicio de su tabla de desplazamientos
+    private final long fechaCompilacionMs;
+    private final int totalPreguntas;
+    private volatile boolean registroDanadoAvisado;
+
+    private PaquetePreguntas(MappedByteBuffer datos) throws IOException {
+        this.datos = datos;
+        this.cantidadPorCategoria = new int[CATEGORIAS.length];
+        this.desplazamientoIndice = new int[CATEGORIAS.length];
+        int capacidad = datos.capacity();
+        if (capacidad < TAMANO_CABECERA || datos.getInt(0) != EscritorPaquetePreguntas.MAGIA) {
+            throw new IOException("El archivo no es un paquete de preguntas.");
+        }
+        short version = datos.getShort(4);
+        if (version != EscritorPaquetePreguntas.VERSION) {
+            throw new IOException("Versión de paquete no soportada: " + version);
+        }
+        int numeroCategorias = datos.getShort(6);
+        this.fechaCompilacionMs = datos.getLong(8);
+        this.totalPreguntas = datos.getInt(16);
+        exigir(numeroCategorias >= 0 && totalPreguntas >= 0, "la cabecera tiene cantidades negativas");
+        int posicion = TAMANO_CABECERA;
+        for (int i = 0; i < numeroCategorias; i++) {
+            exigir(posicion + 2 <= capacidad, "la tabla de categorías está incompleta");
+            int largoNombre = datos.getShort(posicion);
+            exigir(largoNombre >= 0 && (long) posicion + 2 + largoNombre + 8 <= capacidad, "la tabla de categorías está incompleta");
+            String nombre = leerUtf8(posicion + 2, largoNombre);
+            posicion += 2 + largoNombre;
+            int cantidad = datos.getInt(posicion);
+            int indice = datos.getInt(posicion + 4);
+            posicion += 8;
+            exigir(cantidad >= 0 && indice >= 0 && indice + cantidad * 4L <= capacidad,
+                    "el índice de la categoría " + nombre + " cae fuera del archivo");
+            CategoriaTrivia categoria;
+            try {
+                categoria = CategoriaTrivia.fromString(nombre);
+            } catch (IllegalArgumentException e) {
+                continue; // Categoría que esta versión del juego no conoce
+            }
+            cantidadPorCategoria[categoria.ordinal()] = cantidad;
+            desplazamientoIndice[categoria.ordinal()] = indice;
+        }
+    }
+
+    private static void exigir(boolean condicion, String problema) throws IOException {
+        if (!condicion) throw new IOException("El paquete de preguntas está dañado: " + problema + ".");
+    }
+
+    /**
+     * Mapea el paquete en memoria y valida su cabecera y su tabla de categorías; los registros se comprueban al leerlos.
+     * @throws IOException si el archivo no existe, no es un paquete, es de otra versión o su cabecera o sus índices
+     * están truncados o dañados.
+     */
+    public static PaquetePreguntas abrir(File archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new PaquetePreguntas(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    @Override
+    public int contarPreguntas(CategoriaTrivia categoria) {
+        return categoria == null ? 0 : cantidadPorCategoria[categoria.ordinal()];
+    }
+
+    /**
+     * @return La pregunta, o null si su registro cae fuera del archivo (paquete dañado).
+     */
+    @Override
+    public PreguntaDetallada obtenerPregunta(CategoriaTrivia categoria, int indice) {
+        int posicion = posicionRegistro(categoria, indice);
+        String[] campos = new String[CAMPOS_POR_REGISTRO];
+        for (int i = 0; i < campos.length; i++) {
+            int largo = largoCampo(posicion);
+            if (largo == CAMPO_DANADO) {
+                avisarRegistroDanado(categoria, indice);
+                return null;
+            }
+            posicion += 4;
+            if (largo >= 0) {
+                campos[i] = leerUtf8(posicion, largo);
+                posicion += largo;
+            }
+        }
+        return new PreguntaDetallada(campos[0], campos[1], campos[2], categoria, EstadoPregunta.APROBADA, campos[3]);
+    }
+
+    /**
+     * Decodifica sólo el id, que es el primer campo del registro.
+     * @return El id, o null si no tiene o su registro está dañado.
+     */
+    @Override
+    public String obtenerId(CategoriaTrivia categoria, int indice) {
+        int posicion = posicionRegistro(categoria, indice);
+        int largo = largoCampo(posicion);
+        if (largo == CAMPO_DANADO) {
+            avisarRegistroDanado(categoria, indice);
+            return null;
+        }
+        return largo < 0 ? null : leerUtf8(posicion + 4, largo);
+    }
+
+    /**
+     * Largo del campo que empieza en la posición (-1 si es null), o CAMPO_DANADO si el campo no cabe en el archivo.
+     */
+    private int largoCampo(int posicion) {
+        int capacidad = datos.capacity();
+        if (posicion < 0 || posicion > capacidad - 4) return CAMPO_DANADO;
+        int largo = datos.getInt(posicion);
+        if (largo < -1 || (largo > 0 && largo > capacidad - 4 - posicion)) return CAMPO_DANADO;
+        return largo;
+    }
+
+    private void avisarRegistroDanado(CategoriaTrivia categoria, int indice) {
+        if (!registroDanadoAvisado) {
+            registroDanadoAvisado = true;
+            System.err.println("ADVERTENCIA: El paquete de preguntas está dañado (registro " + indice + " de " + categoria +
+                    " fuera del archivo); esas preguntas se omitirán. Publique de nuevo el paquete desde AppConfig.");
+        }
+    }
+
+    private int posicionRegistro(CategoriaTrivia categoria, int indice) {
+        if (indice < 0 || indice >= contarPreguntas(categoria)) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera de la categoría " + categoria);
+        }
+        return datos.getInt(desplazamientoIndice[categoria.ordinal()] + indice * 4);
+    }
+
+    public long getFechaCompilacionMs() { return fechaCompilacionMs; }
+    public int getTotalPreguntas() { return totalPreguntas; }
+
+    private String leerUtf8(int posicion, int largo) {
+        byte[] bytes = new byte[largo];
+        datos.get(posicion, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ucab.trivia.juego;
+
+import java.io.PrintStream;
+
+/**
+ * Dibuja un TableroHexagonal en consola usando un búfer de caracteres reutilizable.
+ * La capa estática (sangrías, corchetes y letras de categoría) se arma una sola vez;
+ * en cada cuadro sólo se copian encima las fichas de los jugadores y se escribe todo
+ * el tablero con una única llamada a la salida.
+ *
+ * Opcionalmente, en terminales que entienden secuencias ANSI, el tablero se fija en la
+ * parte superior de la pantalla y las actualizaciones posteriores redibujan sólo las
+ * casillas que cambiaron desde el último cuadro.
+ */
+public class RenderizadorTablero {
+    private static final String ESC = "\u001b[";
+    private static final String LEYENDA = "Leyenda: C=Centro, G=Geografía, H=Historia, D=Deportes, N=Naturaleza, A=Arte, E=Entretenimiento, *n=n jugadores";
+
+    private final TableroHexagonal tablero;
+    private final PrintStream salida;
+    private final char[] capaEstatica;
+    private final char[] cuadro;
+    private final int[] desplazamientoCelda; // posición en el búfer del primer carácter del contenido de cada casilla
+    private final int[] lineaCelda;          // línea (1..) de cada casilla dentro del cuadro, para posicionar el cursor
+    private final int[] columnaCelda;        // columna (1..) del primer carácter del contenido de cada casilla
+    private final int lineasCuadro;
+
+    // Estado del modo ANSI: contenido de cada casilla tal como está ahora en pantalla
+    private final char[] contenidoEnPantalla;
+    private final StringBuilder cambios;
+    private boolean pantallaFijada;
+
+    public RenderizadorTablero(TableroHexagonal tablero, PrintStream salida) {
+        this.tablero = tablero;
+        this.salida = salida;
+        int numeroCeldas = tablero.getNumeroCeldas();
+        this.desplazamientoCelda = new int[numeroCeldas];
+        this.lineaCelda = new int[numeroCeldas];
+        this.columnaCelda = new int[numeroCeldas];
+        this.contenidoEnPantalla = new char[numeroCeldas * 2];
+        this.cambios = new StringBuilder();
+
+        String finDeLinea = System.lineSeparator();
+        int radio = tablero.getRadio();
+        int dimension = 2 * radio + 1;
+        StringBuilder sb = new StringBuilder();
+        sb.append(finDeLinea).append("--- TABLERO TRIVIA-UCAB ---").append(finDeLinea);
+        int linea = 3; // Línea en blanco inicial y título
+        for (int fila = 0; fila < dimension; fila++) {
+            int inicioLinea = sb.length();
+            for (int i = 0; i < Math.abs(radio - fila); i++) sb.append("  ");
+            for (int col = 0; col < dimension; col++) {
+                int id = tablero.indiceCelda(fila, col);
+                if (id == TableroHexagonal.SIN_CELDA) {
+                    sb.append("    ");
+                } else {
+                    sb.append('[');
+                    desplazamientoCelda[id] = sb.length();
+                    lineaCelda[id] = linea;
+                    columnaCelda[id] = sb.length() - inicioLinea + 1;
+                    sb.append(String.format("%-2s", tablero.getCasilla(id).getSimboloCategoriaConsola()));
+                    sb.append(']');
+                }
+            }
+            sb.append(finDeLinea);
+            linea++;
+        }
+        sb.append("----------------------------------------").append(finDeLinea);
+        sb.append(LEYENDA).append(finDeLinea);
+        this.lineasCuadro = linea + 1;
+        this.capaEstatica = sb.toString().toCharArray();
+        this.cuadro = new char[capaEstatica.length];
+    }
+
+    /**
+     * Dibuja el tablero completo a continuación de lo que haya en la consola, con una sola escritura.
+     */
+    public void dibujar() {
+        componerCuadro();
+        salida.print(cuadro);
+        salida.flush();
+    }
+
+    /**
+     * (ANSI) Limpia la pantalla, dibuja el tablero en la parte superior y deja que el resto de los
+     * mensajes se desplacen sólo por debajo de él, de modo que el tablero quede fijo para actualizarCambios.
+     */
+    public void dibujarEnPantallaCompleta() {
+        componerCuadro();
+        for (int id = 0; id < desplazamientoCelda.length; id++) {
+            contenidoEnPantalla[id * 2] = cuadro[desplazamientoCelda[id]];
+            contenidoEnPantalla[id * 2 + 1] = cuadro[desplazamientoCelda[id] + 1];
+        }
+        cambios.setLength(0);
+        cambios.append(ESC).append('r').append(ESC).append('H').append(ESC).append("2J");
+        cambios.append(cuadro);
+        cambios.append(ESC).append(lineasCuadro + 1).append(";r");
+        cambios.append(ESC).append(lineasCuadro + 1).append(";1H");
+        salida.print(cambios);
+        salida.flush();
+        pantallaFijada = true;
+    }
+
+    /**
+     * (ANSI) Redibuja sólo las casillas cuyo contenido cambió desde el último cuadro, sin mover
+     * el cursor de donde estaba. Si el tablero aún no se ha fijado en pantalla, lo dibuja completo.
+     */
+    public void actualizarCambios() {
+        if (!pantallaFijada) {
+            dibujarEnPantallaCompleta();
+            return;
+        }
+        cambios.setLength(0);
+        cambios.append("\u001b7"); // Guardar cursor
+        boolean hayCambios = false;
+        for (int id = 0; id < desplazamientoCelda.length; id++) {
+            char primero = primerCaracter(id);
+            char segundo = segundoCaracter(id);
+            if (contenidoEnPantalla[id * 2] != primero || contenidoEnPantalla[id * 2 + 1] != segundo) {
+                contenidoEnPantalla[id * 2] = primero;
+                contenidoEnPantalla[id * 2 + 1] = segundo;
+                cambios.append(ESC).append(lineaCelda[id]).append(';').append(columnaCelda[id]).append('H');
+                cambios.append(primero).append(segundo);
+                hayCambios = true;
+            }
+        }
+        if (!hayCambios) return;
+        cambios.append("\u001b8"); // Restaurar cursor
+        salida.print(cambios);
+        salida.flush();
+    }
+
+    /**
+     * (ANSI) Devuelve el desplazamiento de la terminal a la pantalla completa.
+     */
+    public void restaurarTerminal() {
+        if (!pantallaFijada) return;
+        salida.print(ESC + "r");
+        salida.flush();
+        pantallaFijada = false;
+    }
+
+    private void componerCuadro() {
+        System.arraycopy(capaEstatica, 0, cuadro, 0, capaEstatica.length);
+        for (int id = 0; id < desplazamientoCelda.length; id++) {
+            if (tablero.estaOcupada(id)) {
+                cuadro[desplazamientoCelda[id]] = primerCaracter(id);
+                cuadro[desplazamientoCelda[id] + 1] = segundoCaracter(id);
+            }
+        }
+    }
+
+    private char primerCaracter(int id) {
+        long jugadores = tablero.getJugadoresEnCelda(id);
+        if (jugadores == 0L) return capaEstatica[desplazamientoCelda[id]];
+        if (Long.bitCount(jugadores) == 1) return tablero.getSimboloJugador(Long.numberOfTrailingZeros(jugadores) + 1).charAt(0);
+        return '*';
+    }
+
+    private char segundoCaracter(int id) {
+        long jugadores = tablero.getJugadoresEnCelda(id);
+        if (jugadores == 0L) return capaEstatica[desplazamientoCelda[id] + 1];
+        int cantidad = Long.bitCount(jugadores);
+        if (cantidad == 1) return tablero.getSimboloJugador(Long.numberOfTrailingZeros(jugadores) + 1).charAt(1);
+        return cantidad < 10 ? (char) ('0' + cantidad) : '*';
+    }
+}
@@ -0,0 +1,127 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.NormalizadorTexto;
+
+/**
+ * Respuesta correcta de una pregunta, ya normalizada para comparar rápido las respuestas de los jugadores.
+ * La respuesta almacenada puede traer alternativas separadas por '|' ("Simón Bolívar|Bolívar"); cada una
+ * se normaliza una sola vez al crear el objeto con NormalizadorTexto: sin acentos, en minúsculas y con la
+ * puntuación y los espacios reducidos a un único espacio.
+ *
+ * Una respuesta se acepta si, normalizada, coincide con alguna alternativa o está a una distancia de
+ * edición pequeña (0 en respuestas cortas o con dígitos, 1 hasta 8 caracteres, 2 en las más largas).
+ * Es inmutable, así que puede compartirse entre hilos.
+ */
+public final class RespuestaAceptada {
+    public static final char SEPARADOR_ALTERNATIVAS = '|';
+    private final String[] alternativas;   // Normalizadas, sin vacías
+    private final int[] hashes;            // hashCode de cada alternativa
+    private final int[] distanciaMaxima;   // Errores tolerados para cada alternativa
+
+    private RespuestaAceptada(String[] alternativas) {
+        this.alternativas = alternativas;
+        this.hashes = new int[alternativas.length];
+        this.distanciaMaxima = new int[alternativas.length];
+        for (int i = 0; i < alternativas.length; i++) {
+            hashes[i] = alternativas[i].hashCode();
+            distanciaMaxima[i] = calcularDistanciaMaxima(alternativas[i]);
+        }
+    }
+
+    /**
+     * Compila la respuesta almacenada de una pregunta (con sus alternativas separadas por '|').
+     */
+    public static RespuestaAceptada de(String respuestaAlmacenada) {
+        return deNormalizada(normalizarAlternativas(respuestaAlmacenada));
+    }
+
+    /**
+     * Normaliza cada alternativa de la respuesta almacenada y las vuelve a unir con '|', sin las vacías. El
+     * separador no puede aparecer dentro de una alternativa normalizada (la puntuación pasa a espacio).
+     */
+    public static String normalizarAlternativas(String respuestaAlmacenada) {
+        if (respuestaAlmacenada == null) return "";
+        if (respuestaAlmacenada.indexOf(SEPARADOR_ALTERNATIVAS) < 0) return NormalizadorTexto.normalizar(respuestaAlmacenada);
+        StringBuilder unidas = new StringBuilder(respuestaAlmacenada.length());
+        for (String parte : respuestaAlmacenada.split("\\" + SEPARADOR_ALTERNATIVAS)) {
+            String normalizada = NormalizadorTexto.normalizar(parte);
+            if (normalizada.isEmpty()) continue;
+            if (unidas.length() > 0) unidas.append(SEPARADOR_ALTERNATIVAS);
+            unidas.append(normalizada);
+        }
+        return unidas.toString();
+    }
+
+    /**
+     * Compila una respuesta que ya pasó por normalizarAlternativas, sin volver a normalizarla.
+     */
+    public static RespuestaAceptada deNormalizada(String alternativasNormalizadas) {
+        if (alternativasNormalizadas == null || alternativasNormalizadas.isEmpty()) return new RespuestaAceptada(new String[0]);
+        if (alternativasNormalizadas.indexOf(SEPARADOR_ALTERNATIVAS) < 0) return new RespuestaAceptada(new String[]{alternativasNormalizadas});
+        return new RespuestaAceptada(alternativasNormalizadas.split("\\" + SEPARADOR_ALTERNATIVAS));
+    }
+
+    /**
+     * Indica si la respuesta de un jugador es correcta: primero por coincidencia exacta (comparando el hash)
+     * y luego por distancia de edición acotada.
+     */
+    public boolean acepta(String respuestaJugador) {
+        if (respuestaJugador == null || alternativas.length == 0) return false;
+        String normalizada = NormalizadorTexto.normalizar(respuestaJugador);
+        if (normalizada.isEmpty()) return false;
+        int hash = normalizada.hashCode();
+        for (int i = 0; i < alternativas.length; i++) {
+            if (hashes[i] == hash && alternativas[i].equals(normalizada)) return true;
+        }
+        for (int i = 0; i < alternativas.length; i++) {
+            if (distanciaMaxima[i] > 0 && dentroDeDistancia(alternativas[i], normalizada, distanciaMaxima[i])) return true;
+        }
+        return false;
+    }
+
+    private static int calcularDistanciaMaxima(String alternativa) {
+        for (int i = 0; i < alternativa.length(); i++) {
+            if (Character.isDigit(alternativa.charAt(i))) return 0; // Fechas y cantidades: exactas
+        }
+        if (alternativa.length() <= 4) return 0;
+        return alternativa.length() <= 8 ? 1 : 2;
+    }
+
+    /**
+     * Levenshtein limitado a la franja |i - j| <= maximo; termina en cuanto ninguna celda de la fila
+     * puede quedar dentro del máximo.
+     */
+    static boolean dentroDeDistancia(String a, String b, int maximo) {
+        int largoA = a.length();
+        int largoB = b.length();
+        if (Math.abs(largoA - largoB) > maximo) return false;
+        int fuera = maximo + 1;
+        int[] anterior = new int[largoB + 1];
+        int[] actual = new int[largoB + 1];
+        for (int j = 0; j <= largoB; j++) anterior[j] = j <= maximo ? j : fuera;
+        for (int i = 1; i <= largoA; i++) {
+            int desde = Math.max(1, i - maximo);
+            int hasta = Math.min(largoB, i + maximo);
+            actual[0] = i <= maximo ? i : fuera;
+            if (desde > 1) actual[desde - 1] = fuera;
+            int minimoFila = actual[0];
+            char ca = a.charAt(i - 1);
+            for (int j = desde; j <= hasta; j++) {
+                int costo = ca == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+                actual[j] = Math.min(valor, fuera);
+                if (actual[j] < minimoFila) minimoFila = actual[j];
+            }
+            if (hasta < largoB) actual[hasta + 1] = fuera;
+            if (minimoFila > maximo) return false;
+            int[] temporal = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+        return anterior[largoB] <= maximo;
+    }
+
+    public int getCantidadAlternativas() {
+        return alternativas.length;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteo de preguntas ponderado por dificultad. La dificultad de cada pregunta sale del HistorialRespuestas
+ * y el rango 0..1 se divide en NUMERO_FRANJAS franjas; para cada categoría y franja hay una tabla de alias
+ * (MuestreoAlias) donde pesan más las preguntas cercanas al centro de la franja, sin que ninguna quede
+ * fuera del todo. Sortear es O(1).
+ *
+ * Hay un selector por carga del banco (ver BancoPreguntasCompartido.Instantanea), compartido por todas sus
+ * partidas; las dificultades y las tablas se indexan por la posición de la pregunta en la carga, y la de cada
+ * categoría se arma con su primer sorteo. Un resultado nuevo actualiza enseguida la dificultad de la pregunta,
+ * pero las tablas de su categoría se reconstruyen (reutilizando sus arreglos) sólo cuando los resultados
+ * pendientes llegan a 1/DIVISOR_CAMBIOS_PARA_RECONSTRUIR de sus preguntas, así que un sorteo no paga una
+ * reconstrucción por cada respuesta. Es seguro entre hilos.
+ */
+public class SelectorPreguntasPorDificultad {
+    public static final int NUMERO_FRANJAS = 5;
+    public static final int DIVISOR_CAMBIOS_PARA_RECONSTRUIR = 64;
+    private static final double ANCHO_FRANJA = 0.15; // Desviación de la campana de pesos alrededor del centro
+    private static final double PESO_MINIMO = 0.02;
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+
+    private final BancoPreguntasCompartido.Instantanea carga;
+    private final HistorialRespuestas historial;
+    private final double[][] dificultad;           // ordinal -> dificultad por posición; null hasta su primer sorteo
+    private final MuestreoAlias[][] tablas;        // ordinal, franja
+    private final boolean[][] desactualizada;      // ordinal, franja
+    private final int[] cambiosPendientes;         // ordinal -> resultados anotados desde la última reconstrucción
+    private double[] pesos = new double[0];        // Arreglo de trabajo para construir las tablas
+
+    SelectorPreguntasPorDificultad(BancoPreguntasCompartido.Instantanea carga, HistorialRespuestas historial) {
+        this.carga = carga;
+        this.historial = historial;
+        this.dificultad = new double[CATEGORIAS.length][];
+        this.tablas = new MuestreoAlias[CATEGORIAS.length][NUMERO_FRANJAS];
+        this.desactualizada = new boolean[CATEGORIAS.length][NUMERO_FRANJAS];
+        this.cambiosPendientes = new int[CATEGORIAS.length];
+        for (MuestreoAlias[] tablasCategoria : tablas) {
+            for (int franja = 0; franja < NUMERO_FRANJAS; franja++) tablasCategoria[franja] = new MuestreoAlias();
+        }
+        for (boolean[] franjas : desactualizada) Arrays.fill(franjas, true);
+    }
+
+    /**
+     * Franja (0..NUMERO_FRANJAS-1) que corresponde a una dificultad objetivo entre 0 y 1.
+     */
+    public static int franjaPara(double dificultadObjetivo) {
+        int franja = (int) (dificultadObjetivo * NUMERO_FRANJAS);
+        return Math.max(0, Math.min(NUMERO_FRANJAS - 1, franja));
+    }
+
+    /**
+     * Sortea una pregunta de la categoría favoreciendo las de dificultad cercana al objetivo.
+     * @return El índice en la fuente, o BolsaPreguntas.SIN_PREGUNTA si la categoría está vacía.
+     */
+    public synchronized int siguienteIndice(CategoriaTrivia categoria, double dificultadObjetivo, RandomGenerator aleatorio) {
+        if (categoria == null) return BolsaPreguntas.SIN_PREGUNTA;
+        int ord = categoria.ordinal();
+        double[] valores = dificultades(ord);
+        if (valores.length == 0) return BolsaPreguntas.SIN_PREGUNTA;
+        if (cambiosPendientes[ord] >= Math.max(1, valores.length / DIVISOR_CAMBIOS_PARA_RECONSTRUIR)) {
+            Arrays.fill(desactualizada[ord], true);
+            cambiosPendientes[ord] = 0;
+        }
+        int franja = franjaPara(dificultadObjetivo);
+        if (desactualizada[ord][franja]) reconstruir(ord, franja);
+        return tablas[ord][franja].muestrear(aleatorio);
+    }
+
+    public PreguntaDetallada sacarPregunta(CategoriaTrivia categoria, double dificultadObjetivo, RandomGenerator aleatorio) {
+        FuentePreguntas fuente = carga.getFuente();
+        int intentos = categoria == null ? 0 : fuente.contarPreguntas(categoria);
+        // Un registro dañado del paquete compilado se sortea de nuevo
+        for (int intento = 0; intento < intentos; intento++) {
+            int indice = siguienteIndice(categoria, dificultadObjetivo, aleatorio);
+            if (indice == BolsaPreguntas.SIN_PREGUNTA) return null;
+            PreguntaDetallada pregunta = fuente.obtenerPregunta(categoria, indice);
+            if (pregunta != null) return pregunta;
+        }
+        return null;
+    }
+
+    /**
+     * Vuelve a leer del historial la dificultad de la pregunta y la cuenta como cambio pendiente de su categoría.
+     */
+    public synchronized void actualizarDificultad(PreguntaDetallada pregunta) {
+        if (pregunta == null || pregunta.getCategoria() == null) return;
+        int ord = pregunta.getCategoria().ordinal();
+        if (dificultad[ord] == null) return; // Se leerá del historial al armar la categoría
+        int posicion = carga.buscarIndice(pregunta.getCategoria(), pregunta.getId());
+        if (posicion < 0) return;
+        dificultad[ord][posicion] = historial.dificultad(pregunta.getId());
+        cambiosPendientes[ord]++;
+    }
+
+    public synchronized double getDificultad(CategoriaTrivia categoria, int indice) {
+        return dificultades(categoria.ordinal())[indice];
+    }
+
+    /**
+     * Dificultades de la categoría por posición, leídas del historial la primera vez (0.5 para las preguntas sin id).
+     */
+    private double[] dificultades(int ord) {
+        if (dificultad[ord] == null) {
+            CategoriaTrivia categoria = CATEGORIAS[ord];
+            double[] valores = new double[carga.getFuente().contarPreguntas(categoria)];
+            Arrays.fill(valores, historial.dificultad(null));
+            carga.paraCadaId(categoria, (id, posicion) -> valores[posicion] = historial.dificultad(id));
+            if (pesos.length < valores.length) pesos = new double[valores.length];
+            dificultad[ord] = valores;
+        }
+        return dificultad[ord];
+    }
+
+    private void reconstruir(int ord, int franja) {
+        double centro = (franja + 0.5) / NUMERO_FRANJAS;
+        double[] valores = dificultad[ord];
+        for (int i = 0; i < valores.length; i++) {
+            double distancia = (valores[i] - centro) / ANCHO_FRANJA;
+            pesos[i] = PESO_MINIMO + Math.exp(-0.5 * distancia * distancia);
+        }
+        tablas[ord][franja].construir(pesos, valores.length);
+        desactualizada[ord][franja] = false;
+    }
+}
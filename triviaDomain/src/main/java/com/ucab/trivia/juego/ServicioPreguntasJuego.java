@@ -1,36 +1,52 @@
 package com.ucab.trivia.juego;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ucab.trivia.domain.CategoriaTrivia;
-import com.ucab.trivia.domain.EstadoPregunta;
 import com.ucab.trivia.domain.PreguntaDetallada;
 
 import java.io.File;
-import java.io.IOException;
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
-
-public class ServicioPreguntasJuego {
+
+/**
+ * Preguntas de una partida: una vista de sólo lectura sobre el BancoPreguntasCompartido de su archivo,
+ * más su propia fuente aleatoria para sembrar las bolsas de sorteo. Al terminar la partida hay que
+ * cerrarlo para devolver la referencia al banco.
+ */
+public class ServicioPreguntasJuego implements AutoCloseable {
     private static final String NOMBRE_ARCHIVO_PREGUNTAS = "banco_preguntas_gestion_compartido.json";
-    private final ObjectMapper objectMapper;
-    private Map<CategoriaTrivia, List<PreguntaDetallada>> preguntasAprobadasPorCategoria;
-    private final Random generadorAleatorio;
-    private final File archivoDePreguntas;
+
+    private final BancoPreguntasCompartido banco;
+    private final FuenteAleatoria generadorAleatorio;
+    private final BolsaPreguntas bolsaGeneral;
+    private boolean recargaAutomatica;
+    private boolean cerrado;
 
     public ServicioPreguntasJuego() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.findAndRegisterModules();
-        this.generadorAleatorio = new SecureRandom();
-        this.archivoDePreguntas = localizarArchivoDeDatos(NOMBRE_ARCHIVO_PREGUNTAS);
-        cargarYFiltrarPreguntasAprobadas();
+        this(localizarArchivoDeDatos(NOMBRE_ARCHIVO_PREGUNTAS));
     }
 
-    private File localizarArchivoDeDatos(String nombreArchivo) {
+    /**
+     * Crea el servicio con el banco de preguntas predeterminado y la fuente aleatoria de la partida.
+     */
+    public ServicioPreguntasJuego(FuenteAleatoria generadorAleatorio) {
+        this(localizarArchivoDeDatos(NOMBRE_ARCHIVO_PREGUNTAS), generadorAleatorio);
+    }
+
+    /**
+     * Crea el servicio leyendo el banco de preguntas desde un archivo concreto.
+     */
+    public ServicioPreguntasJuego(File archivoDePreguntas) {
+        this(archivoDePreguntas, FuenteAleatoria.segura());
+    }
+
+    /**
+     * Crea el servicio sobre el banco de un archivo concreto; la fuente aleatoria siembra las bolsas de preguntas.
+     */
+    public ServicioPreguntasJuego(File archivoDePreguntas, FuenteAleatoria generadorAleatorio) {
+        this.generadorAleatorio = generadorAleatorio;
+        this.bolsaGeneral = crearBolsaPreguntas();
+        this.banco = BancoPreguntasCompartido.adquirir(archivoDePreguntas);
+    }
+
+    private static File localizarArchivoDeDatos(String nombreArchivo) {
         File archivo = new File(nombreArchivo);
         if (archivo.exists()) {
             return archivo;
@@ -39,42 +55,168 @@ public class ServicioPreguntasJuego {
         return archivo;
     }
 
-    private void cargarYFiltrarPreguntasAprobadas() {
-        this.preguntasAprobadasPorCategoria = new EnumMap<>(CategoriaTrivia.class);
-        for (CategoriaTrivia cat : CategoriaTrivia.values()) {
-            preguntasAprobadasPorCategoria.put(cat, new ArrayList<>());
-        }
+    /**
+     * Vuelve a leer el banco; ver BancoPreguntasCompartido.recargar. Afecta a todas las partidas que lo comparten.
+     */
+    public boolean recargar() {
+        return banco.recargar();
+    }
+
+    /**
+     * Pide que el banco se recargue solo cuando AppConfig reescriba el banco JSON o el paquete compilado.
+     */
+    public synchronized void iniciarRecargaAutomatica() {
+        if (recargaAutomatica || cerrado) return;
+        recargaAutomatica = true;
+        banco.iniciarVigilancia();
+    }
+
+    public synchronized void detenerRecargaAutomatica() {
+        if (!recargaAutomatica) return;
+        recargaAutomatica = false;
+        banco.detenerVigilancia();
+    }
+
+    /**
+     * Cuántas veces se han reemplazado las preguntas del banco.
+     */
+    public int getVersionBanco() {
+        return banco.getVersion();
+    }
+
+    /**
+     * Resumen de la última carga del banco de preguntas (tiempo, registros leídos y memoria retenida).
+     */
+    public EstadisticasCargaPreguntas getEstadisticasCarga() {
+        return banco.getEstadisticas();
+    }
 
-        if (!archivoDePreguntas.exists() || archivoDePreguntas.length() == 0) {
-            System.err.println("ADVERTENCIA CRÍTICA: El archivo de preguntas '" + archivoDePreguntas.getAbsolutePath() + "' no existe o está vacío.");
-            System.err.println("El juego no tendrá preguntas. Ejecute AppConfig para generar/importar preguntas.");
-            return;
+    /**
+     * Crea una bolsa de sorteo sin repetición con una semilla aleatoria. El juego usa una por partida
+     * o una por jugador y la guarda con la partida.
+     */
+    public BolsaPreguntas crearBolsaPreguntas() {
+        return new BolsaPreguntas(generadorAleatorio.nextLong());
+    }
+
+    /**
+     * Saca de la bolsa la siguiente pregunta de la categoría; no se repite ninguna hasta que hayan salido todas,
+     * aunque el banco se recargue entre medio.
+     * @return La pregunta, o null si la categoría no tiene preguntas aprobadas.
+     */
+    public PreguntaDetallada sacarPregunta(BolsaPreguntas bolsa, CategoriaTrivia categoria) {
+        BancoPreguntasCompartido.Instantanea carga = banco.getInstantanea();
+        FuentePreguntas fuente = carga.getFuente();
+        if (bolsa.getFuente() != fuente) reubicarBolsa(bolsa, carga);
+        int cantidad = categoria == null ? 0 : fuente.contarPreguntas(categoria);
+        // Un registro dañado del paquete compilado cuenta como sacado y se pasa al siguiente
+        for (int intento = 0; intento < cantidad; intento++) {
+            int indice = bolsa.siguienteIndice(categoria, cantidad);
+            if (indice == BolsaPreguntas.SIN_PREGUNTA) return null;
+            PreguntaDetallada pregunta = fuente.obtenerPregunta(categoria, indice);
+            if (pregunta != null) return pregunta;
         }
+        return null;
+    }
 
-        try {
-            List<PreguntaDetallada> todasLasPreguntas = objectMapper.readValue(archivoDePreguntas, new TypeReference<>() {});
+    /**
+     * Estado guardable de la bolsa, con sus índices llevados antes a la carga actual del banco para que al
+     * restaurarlo correspondan a las mismas preguntas.
+     */
+    public EstadoBolsaPreguntas exportarEstado(BolsaPreguntas bolsa) {
+        BancoPreguntasCompartido.Instantanea carga = banco.getInstantanea();
+        if (bolsa.getFuente() != carga.getFuente()) reubicarBolsa(bolsa, carga);
+        return bolsa.exportarEstado();
+    }
 
-            for (PreguntaDetallada p : todasLasPreguntas) {
-                if (p.getEstado() == EstadoPregunta.APROBADA && p.getCategoria() != null) {
-                    preguntasAprobadasPorCategoria.computeIfAbsent(p.getCategoria(), k -> new ArrayList<>()).add(p);
+    /**
+     * Lleva las rondas en curso de la bolsa a una nueva carga del banco: cada pregunta ya sacada se busca por id
+     * en la nueva carga y sigue contando como sacada; las nuevas y las que faltaban se barajan para el resto de
+     * la ronda. Una bolsa recién creada o restaurada se toma como de la carga actual.
+     */
+    private static void reubicarBolsa(BolsaPreguntas bolsa, BancoPreguntasCompartido.Instantanea carga) {
+        FuentePreguntas anterior = bolsa.getFuente();
+        if (anterior != null) {
+            for (CategoriaTrivia cat : CategoriaTrivia.values()) {
+                int sacadas = bolsa.getSacadasEnRonda(cat);
+                if (sacadas == 0) continue; // Sin nada sacado, siguienteIndice baraja de nuevo si cambió el tamaño
+                int[] posiciones = new int[sacadas];
+                int encontradas = 0;
+                for (int j = 0; j < sacadas; j++) {
+                    int posicion = carga.buscarIndice(cat, anterior.obtenerId(cat, bolsa.getIndiceSacado(cat, j)));
+                    if (posicion >= 0) posiciones[encontradas++] = posicion;
                 }
+                bolsa.reubicarRonda(cat, posiciones, encontradas, carga.getFuente().contarPreguntas(cat));
             }
+        }
+        bolsa.setFuente(carga.getFuente());
+    }
 
-            preguntasAprobadasPorCategoria.forEach((cat, lista) -> {
-                if (lista.isEmpty()) {
-                    System.err.println("ADVERTENCIA: No hay preguntas APROBADAS para la categoría: " + cat.getNombreMostrado());
-                }
-            });
-
-        } catch (IOException e) {
-            System.err.println("Error fatal al cargar o procesar preguntas desde '" + archivoDePreguntas.getAbsolutePath() + "': " + e.getMessage());
+    /**
+     * Respuesta aceptada de una pregunta sacada de este servicio, para comprobar con ella todas las
+     * respuestas que se den a la pregunta. Si la fuente guarda las respuestas normalizadas al cargar, la de la
+     * pregunta se busca por id en la carga actual; si no (o la pregunta ya no está en el banco) se normaliza aquí.
+     */
+    public RespuestaAceptada getRespuestaAceptada(PreguntaDetallada pregunta) {
+        BancoPreguntasCompartido.Instantanea carga = banco.getInstantanea();
+        FuentePreguntas fuente = carga.getFuente();
+        if (fuente.guardaRespuestasNormalizadas()) {
+            int indice = carga.buscarIndice(pregunta.getCategoria(), pregunta.getId());
+            String normalizada = indice < 0 ? null : fuente.obtenerRespuestaNormalizada(pregunta.getCategoria(), indice);
+            if (normalizada != null) return RespuestaAceptada.deNormalizada(normalizada);
         }
+        return RespuestaAceptada.de(pregunta.getRespuesta());
+    }
+
+    /**
+     * Sortea una pregunta de la categoría favoreciendo las de dificultad (proporción histórica de fallos)
+     * cercana al objetivo, entre 0 y 1. A diferencia de las bolsas, puede repetir preguntas. Las tablas del
+     * sorteo son de la carga actual del banco y las comparten todas sus partidas.
+     * @return La pregunta, o null si la categoría no tiene preguntas aprobadas.
+     */
+    public PreguntaDetallada sacarPreguntaAdaptada(CategoriaTrivia categoria, double dificultadObjetivo) {
+        return banco.getInstantanea().getSelector(banco.getHistorial()).sacarPregunta(categoria, dificultadObjetivo, generadorAleatorio);
+    }
+
+    /**
+     * Anota en el historial del banco si la pregunta se acertó, lo que ajusta su dificultad para los próximos sorteos.
+     */
+    public void registrarResultado(PreguntaDetallada pregunta, boolean correcta) {
+        if (pregunta == null) return;
+        banco.getHistorial().registrar(pregunta.getId(), correcta);
+        SelectorPreguntasPorDificultad selector = banco.getInstantanea().getSelectorSiExiste();
+        if (selector != null) selector.actualizarDificultad(pregunta);
+    }
+
+    /**
+     * Fuente aleatoria del servicio (bolsas nuevas y preguntas adaptadas), para guardar su estado con la partida.
+     */
+    public FuenteAleatoria getFuenteAleatoria() {
+        return generadorAleatorio;
     }
 
+    /**
+     * Escribe el historial de respuestas si hubo resultados nuevos.
+     */
+    public void guardarHistorial() {
+        banco.getHistorial().guardarSiHayCambios();
+    }
+
+    /**
+     * Saca una pregunta de la bolsa propia del servicio (sin repetición mientras viva el servicio).
+     */
     public PreguntaDetallada seleccionarPreguntaAleatoria(CategoriaTrivia categoria) {
-        if (categoria == null) return null;
-        List<PreguntaDetallada> listaCategoria = preguntasAprobadasPorCategoria.get(categoria);
-        if (listaCategoria == null || listaCategoria.isEmpty()) return null;
-        return listaCategoria.get(generadorAleatorio.nextInt(listaCategoria.size()));
+        return sacarPregunta(bolsaGeneral, categoria);
+    }
+
+    /**
+     * Devuelve la referencia al banco compartido. El servicio no debe usarse después.
+     */
+    @Override
+    public synchronized void close() {
+        if (cerrado) return;
+        detenerRecargaAutomatica();
+        cerrado = true;
+        banco.liberar();
     }
-}
\ No newline at end of file
+}
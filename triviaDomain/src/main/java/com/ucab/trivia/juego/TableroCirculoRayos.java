@@ -0,0 +1,316 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.Posicion;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Tablero clásico de TRIVIA-UCAB: un círculo de 42 casillas y 6 rayos de 5 casillas que unen el
+ * círculo con el centro (ver com.ucab.trivia.domain.Posicion). El rayo r sale de la casilla 7*r
+ * del círculo, que es una casilla "esquina" con bono, como los vértices del tablero hexagonal.
+ *
+ * Los idCelda son: 0..41 el círculo, 42 + 5*rayo + indiceEnRayo los rayos y 72 el centro.
+ * Los movimientos se resuelven con un grafo de transiciones precompilado; las opciones son:
+ * 0 = sentido horario, 1 = sentido antihorario, 2 = hacia el centro. En un rayo, las opciones 0 y 1
+ * salen hacia el círculo y siguen en ese sentido. Desde el centro, la opción i sale por el rayo i.
+ */
+public class TableroCirculoRayos implements TopologiaTablero {
+    public static final int CASILLAS_CIRCULO = 42;
+    public static final int NUMERO_RAYOS = 6;
+    public static final int CASILLAS_POR_RAYO = 5;
+    public static final int NUMERO_OPCIONES = NUMERO_RAYOS;
+    public static final int OPCION_HORARIO = 0;
+    public static final int OPCION_ANTIHORARIO = 1;
+    public static final int OPCION_HACIA_CENTRO = 2;
+    // Mayor cantidad de pasos de un turno: 6 del dado más el bono de +2 por número impar
+    public static final int PASOS_MAXIMOS_PRECALCULADOS = 8;
+
+    private static final int SEPARACION_RAYOS = CASILLAS_CIRCULO / NUMERO_RAYOS;
+    private static final int PRIMERA_CELDA_RAYOS = CASILLAS_CIRCULO;
+    private static final int ID_CENTRO = CASILLAS_CIRCULO + NUMERO_RAYOS * CASILLAS_POR_RAYO;
+    private static final int NUMERO_CELDAS = ID_CENTRO + 1;
+    private static final byte SIN_CATEGORIA = -1;
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+
+    // Estados de la máquina de movimiento: casilla más sentido de avance
+    private static final int ESTADO_CIRCULO_HORARIO = 0;
+    private static final int ESTADO_CIRCULO_ANTIHORARIO = ESTADO_CIRCULO_HORARIO + CASILLAS_CIRCULO;
+    private static final int ESTADO_RAYO_ENTRANDO = ESTADO_CIRCULO_ANTIHORARIO + CASILLAS_CIRCULO;
+    private static final int ESTADO_RAYO_SALIENDO_HORARIO = ESTADO_RAYO_ENTRANDO + NUMERO_RAYOS * CASILLAS_POR_RAYO;
+    private static final int ESTADO_RAYO_SALIENDO_ANTIHORARIO = ESTADO_RAYO_SALIENDO_HORARIO + NUMERO_RAYOS * CASILLAS_POR_RAYO;
+    private static final int ESTADO_ENTRADA_RAYO = ESTADO_RAYO_SALIENDO_ANTIHORARIO + NUMERO_RAYOS * CASILLAS_POR_RAYO;
+    private static final int ESTADO_CENTRO = ESTADO_ENTRADA_RAYO + NUMERO_RAYOS;
+    private static final int ESTADO_SALIDA_CENTRO = ESTADO_CENTRO + 1;
+    private static final int NUMERO_ESTADOS = ESTADO_SALIDA_CENTRO + NUMERO_RAYOS;
+
+    private final Posicion[] posicionPorCelda;
+    private final byte[] categoriaPorCelda;
+    private final Casilla[] casillaPorCelda;
+    private final IndiceCeldasEspeciales celdasEspeciales;
+    private final int[] distanciaAlCentroPorCelda;
+    private final OcupacionJugadores ocupacion;
+    private final GrafoTransiciones grafo;
+
+    public TableroCirculoRayos() {
+        this.posicionPorCelda = new Posicion[NUMERO_CELDAS];
+        this.categoriaPorCelda = new byte[NUMERO_CELDAS];
+        this.casillaPorCelda = new Casilla[NUMERO_CELDAS];
+        this.celdasEspeciales = new IndiceCeldasEspeciales(NUMERO_CELDAS);
+        this.distanciaAlCentroPorCelda = new int[NUMERO_CELDAS];
+        this.ocupacion = new OcupacionJugadores(NUMERO_CELDAS);
+        inicializarCasillas();
+        construirDistanciasAlCentro();
+        this.grafo = compilarGrafo();
+    }
+
+    private void inicializarCasillas() {
+        for (int i = 0; i < CASILLAS_CIRCULO; i++) {
+            posicionPorCelda[i] = Posicion.enCirculo(i);
+        }
+        for (int rayo = 0; rayo < NUMERO_RAYOS; rayo++) {
+            for (int d = 0; d < CASILLAS_POR_RAYO; d++) {
+                posicionPorCelda[idRayo(rayo, d)] = Posicion.enRayo(rayo, d);
+            }
+        }
+        posicionPorCelda[ID_CENTRO] = Posicion.enCentro();
+
+        // Categorías en el mismo orden cíclico que el tablero hexagonal; el centro no tiene categoría
+        int catIndex = 0;
+        for (int id = 0; id < ID_CENTRO; id++) {
+            CategoriaTrivia categoria = CATEGORIAS[catIndex++ % CATEGORIAS.length];
+            categoriaPorCelda[id] = (byte) categoria.ordinal();
+            celdasEspeciales.marcarCategoria(id, categoria);
+        }
+        categoriaPorCelda[ID_CENTRO] = SIN_CATEGORIA;
+        celdasEspeciales.marcarCentro(ID_CENTRO);
+
+        for (int i = 0; i < CASILLAS_CIRCULO; i++) {
+            int desplazamiento = i % SEPARACION_RAYOS;
+            if (desplazamiento == 0) celdasEspeciales.marcarVerticeRadial(i); // Casilla donde nace un rayo
+            else if (desplazamiento == 2 || desplazamiento == 5) celdasEspeciales.marcarReRoll(i);
+        }
+        for (int id = 0; id < NUMERO_CELDAS; id++) {
+            casillaPorCelda[id] = new Casilla(getCategoriaCelda(id), esReRoll(id), esCentro(id));
+        }
+    }
+
+    /**
+     * Recorrido en anchura desde el centro sobre las conexiones del tablero (círculo, rayos y centro).
+     */
+    private void construirDistanciasAlCentro() {
+        Arrays.fill(distanciaAlCentroPorCelda, -1);
+        ArrayDeque<Integer> pendientes = new ArrayDeque<>();
+        distanciaAlCentroPorCelda[ID_CENTRO] = 0;
+        pendientes.add(ID_CENTRO);
+        int[] vecinos = new int[NUMERO_RAYOS];
+        while (!pendientes.isEmpty()) {
+            int actual = pendientes.poll();
+            int cantidad = copiarVecinos(actual, vecinos);
+            for (int i = 0; i < cantidad; i++) {
+                if (distanciaAlCentroPorCelda[vecinos[i]] == -1) {
+                    distanciaAlCentroPorCelda[vecinos[i]] = distanciaAlCentroPorCelda[actual] + 1;
+                    pendientes.add(vecinos[i]);
+                }
+            }
+        }
+    }
+
+    private int copiarVecinos(int id, int[] destino) {
+        if (id == ID_CENTRO) {
+            for (int rayo = 0; rayo < NUMERO_RAYOS; rayo++) destino[rayo] = idRayo(rayo, CASILLAS_POR_RAYO - 1);
+            return NUMERO_RAYOS;
+        }
+        if (id < CASILLAS_CIRCULO) {
+            destino[0] = (id + 1) % CASILLAS_CIRCULO;
+            destino[1] = (id + CASILLAS_CIRCULO - 1) % CASILLAS_CIRCULO;
+            if (id % SEPARACION_RAYOS != 0) return 2;
+            destino[2] = idRayo(id / SEPARACION_RAYOS, 0);
+            return 3;
+        }
+        int rayo = (id - PRIMERA_CELDA_RAYOS) / CASILLAS_POR_RAYO;
+        int d = (id - PRIMERA_CELDA_RAYOS) % CASILLAS_POR_RAYO;
+        destino[0] = d == 0 ? rayo * SEPARACION_RAYOS : idRayo(rayo, d - 1);
+        destino[1] = d == CASILLAS_POR_RAYO - 1 ? ID_CENTRO : idRayo(rayo, d + 1);
+        return 2;
+    }
+
+    private GrafoTransiciones compilarGrafo() {
+        int[] siguienteEstado = new int[NUMERO_ESTADOS];
+        int[] celdaDeEstado = new int[NUMERO_ESTADOS];
+        int[] estadoInicial = new int[NUMERO_CELDAS * NUMERO_OPCIONES];
+        Arrays.fill(estadoInicial, GrafoTransiciones.SIN_ESTADO);
+
+        for (int i = 0; i < CASILLAS_CIRCULO; i++) {
+            celdaDeEstado[ESTADO_CIRCULO_HORARIO + i] = i;
+            siguienteEstado[ESTADO_CIRCULO_HORARIO + i] = ESTADO_CIRCULO_HORARIO + (i + 1) % CASILLAS_CIRCULO;
+            celdaDeEstado[ESTADO_CIRCULO_ANTIHORARIO + i] = i;
+            siguienteEstado[ESTADO_CIRCULO_ANTIHORARIO + i] = ESTADO_CIRCULO_ANTIHORARIO + (i + CASILLAS_CIRCULO - 1) % CASILLAS_CIRCULO;
+            estadoInicial[i * NUMERO_OPCIONES + OPCION_HORARIO] = ESTADO_CIRCULO_HORARIO + i;
+            estadoInicial[i * NUMERO_OPCIONES + OPCION_ANTIHORARIO] = ESTADO_CIRCULO_ANTIHORARIO + i;
+        }
+        for (int rayo = 0; rayo < NUMERO_RAYOS; rayo++) {
+            int salidaCirculo = rayo * SEPARACION_RAYOS;
+            for (int d = 0; d < CASILLAS_POR_RAYO; d++) {
+                int k = rayo * CASILLAS_POR_RAYO + d;
+                int id = idRayo(rayo, d);
+                celdaDeEstado[ESTADO_RAYO_ENTRANDO + k] = id;
+                siguienteEstado[ESTADO_RAYO_ENTRANDO + k] = d == CASILLAS_POR_RAYO - 1 ? ESTADO_CENTRO : ESTADO_RAYO_ENTRANDO + k + 1;
+                celdaDeEstado[ESTADO_RAYO_SALIENDO_HORARIO + k] = id;
+                siguienteEstado[ESTADO_RAYO_SALIENDO_HORARIO + k] = d == 0 ? ESTADO_CIRCULO_HORARIO + salidaCirculo : ESTADO_RAYO_SALIENDO_HORARIO + k - 1;
+                celdaDeEstado[ESTADO_RAYO_SALIENDO_ANTIHORARIO + k] = id;
+                siguienteEstado[ESTADO_RAYO_SALIENDO_ANTIHORARIO + k] = d == 0 ? ESTADO_CIRCULO_ANTIHORARIO + salidaCirculo : ESTADO_RAYO_SALIENDO_ANTIHORARIO + k - 1;
+                estadoInicial[id * NUMERO_OPCIONES + OPCION_HORARIO] = ESTADO_RAYO_SALIENDO_HORARIO + k;
+                estadoInicial[id * NUMERO_OPCIONES + OPCION_ANTIHORARIO] = ESTADO_RAYO_SALIENDO_ANTIHORARIO + k;
+                estadoInicial[id * NUMERO_OPCIONES + OPCION_HACIA_CENTRO] = ESTADO_RAYO_ENTRANDO + k;
+            }
+            // Desde la casilla del círculo donde nace el rayo se puede entrar en él
+            celdaDeEstado[ESTADO_ENTRADA_RAYO + rayo] = salidaCirculo;
+            siguienteEstado[ESTADO_ENTRADA_RAYO + rayo] = ESTADO_RAYO_ENTRANDO + rayo * CASILLAS_POR_RAYO;
+            estadoInicial[salidaCirculo * NUMERO_OPCIONES + OPCION_HACIA_CENTRO] = ESTADO_ENTRADA_RAYO + rayo;
+            // Desde el centro se sale por cualquier rayo y, al llegar al círculo, se sigue en sentido horario
+            celdaDeEstado[ESTADO_SALIDA_CENTRO + rayo] = ID_CENTRO;
+            siguienteEstado[ESTADO_SALIDA_CENTRO + rayo] = ESTADO_RAYO_SALIENDO_HORARIO + rayo * CASILLAS_POR_RAYO + CASILLAS_POR_RAYO - 1;
+            estadoInicial[ID_CENTRO * NUMERO_OPCIONES + rayo] = ESTADO_SALIDA_CENTRO + rayo;
+        }
+        // Al llegar al centro el recorrido se detiene
+        celdaDeEstado[ESTADO_CENTRO] = ID_CENTRO;
+        siguienteEstado[ESTADO_CENTRO] = GrafoTransiciones.SIN_ESTADO;
+
+        return GrafoTransiciones.compilar(NUMERO_CELDAS, NUMERO_OPCIONES, PASOS_MAXIMOS_PRECALCULADOS,
+                estadoInicial, siguienteEstado, celdaDeEstado);
+    }
+
+    private static int idRayo(int rayo, int indiceEnRayo) {
+        return PRIMERA_CELDA_RAYOS + rayo * CASILLAS_POR_RAYO + indiceEnRayo;
+    }
+
+    /**
+     * Devuelve el idCelda de una Posicion, o SIN_CELDA si es null.
+     */
+    public int indiceCelda(Posicion posicion) {
+        if (posicion == null || posicion.getTipo() == null) return SIN_CELDA;
+        switch (posicion.getTipo()) {
+            case CENTRO: return ID_CENTRO;
+            case CIRCULO: return posicion.getIndiceCirculo();
+            case RAYO: return idRayo(posicion.getIndiceRayo(), posicion.getIndiceEnRayo());
+            default: return SIN_CELDA;
+        }
+    }
+
+    /**
+     * Devuelve la Posicion de una casilla. Es siempre la misma instancia para el mismo idCelda.
+     */
+    public Posicion posicionDeCelda(int idCelda) {
+        return posicionPorCelda[idCelda];
+    }
+
+    public IndiceCeldasEspeciales getCeldasEspeciales() { return celdasEspeciales; }
+
+    // --- TopologiaTablero ---
+
+    @Override
+    public int getNumeroCeldas() { return NUMERO_CELDAS; }
+
+    @Override
+    public int getIdCeldaCentro() { return ID_CENTRO; }
+
+    @Override
+    public Casilla getCasilla(int idCelda) {
+        if (idCelda < 0 || idCelda >= NUMERO_CELDAS) return null;
+        return casillaPorCelda[idCelda];
+    }
+
+    @Override
+    public CategoriaTrivia getCategoriaCelda(int idCelda) {
+        byte ordinal = categoriaPorCelda[idCelda];
+        return ordinal == SIN_CATEGORIA ? null : CATEGORIAS[ordinal];
+    }
+
+    @Override
+    public boolean esReRoll(int idCelda) { return celdasEspeciales.esReRoll(idCelda); }
+
+    @Override
+    public boolean esCentro(int idCelda) { return celdasEspeciales.esCentro(idCelda); }
+
+    @Override
+    public boolean esCasillaVerticeRadial(int idCelda) {
+        return idCelda < NUMERO_CELDAS && celdasEspeciales.esVerticeRadial(idCelda);
+    }
+
+    @Override
+    public int distanciaAlCentro(int idCelda) { return distanciaAlCentroPorCelda[idCelda]; }
+
+    @Override
+    public String describirCelda(int idCelda) {
+        return posicionPorCelda[idCelda].toString();
+    }
+
+    @Override
+    public int getNumeroOpcionesMovimiento() { return NUMERO_OPCIONES; }
+
+    @Override
+    public int alcanceEnLinea(int idCelda, int opcion) { return grafo.alcance(idCelda, opcion); }
+
+    @Override
+    public int moverEnLinea(int idCelda, int opcion, int pasos) { return grafo.destino(idCelda, opcion, pasos); }
+
+    @Override
+    public boolean caminoBloqueadoEnLinea(int idCelda, int opcion, int pasos) { return grafo.bloqueado(idCelda, opcion, pasos); }
+
+    @Override
+    public String describirOpcionMovimiento(int idCelda, int opcion) {
+        if (idCelda == ID_CENTRO) return "Salir por el rayo " + opcion;
+        switch (opcion) {
+            case OPCION_HORARIO: return idCelda < CASILLAS_CIRCULO ? "En sentido horario" : "Hacia el círculo y luego en sentido horario";
+            case OPCION_ANTIHORARIO: return idCelda < CASILLAS_CIRCULO ? "En sentido antihorario" : "Hacia el círculo y luego en sentido antihorario";
+            case OPCION_HACIA_CENTRO: return "Hacia el centro";
+            default: return "Opción " + opcion;
+        }
+    }
+
+    @Override
+    public void colocarJugadorEnCasilla(String emailJugador, int idCelda) { ocupacion.colocarJugador(emailJugador, idCelda); }
+
+    @Override
+    public void quitarJugadorDeCasilla(String emailJugador, int idCelda) { ocupacion.quitarJugador(emailJugador, idCelda); }
+
+    public OcupacionJugadores getOcupacion() { return ocupacion; }
+
+    /**
+     * Dibuja el tablero en consola: un tramo del círculo por línea (de una esquina a la siguiente),
+     * seguido del rayo que nace en esa esquina, y el centro al final. Se escribe con una sola llamada.
+     */
+    @Override
+    public void dibujarTableroConsola() {
+        String finDeLinea = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        sb.append(finDeLinea).append("--- TABLERO TRIVIA-UCAB (CÍRCULO Y RAYOS) ---").append(finDeLinea);
+        for (int rayo = 0; rayo < NUMERO_RAYOS; rayo++) {
+            sb.append("Tramo ").append(rayo).append(": ");
+            for (int i = rayo * SEPARACION_RAYOS; i < (rayo + 1) * SEPARACION_RAYOS; i++) anexarCasilla(sb, i);
+            sb.append("   Rayo ").append(rayo).append(": ");
+            for (int d = 0; d < CASILLAS_POR_RAYO; d++) anexarCasilla(sb, idRayo(rayo, d));
+            sb.append(finDeLinea);
+        }
+        sb.append("Centro: ");
+        anexarCasilla(sb, ID_CENTRO);
+        sb.append(finDeLinea);
+        sb.append("----------------------------------------").append(finDeLinea);
+        sb.append("Leyenda: C=Centro, G=Geografía, H=Historia, D=Deportes, N=Naturaleza, A=Arte, E=Entretenimiento, +=Vuelve a lanzar, !=Esquina, *n=n jugadores").append(finDeLinea);
+        sb.append("Cada tramo empieza en la esquina de la que nace su rayo; el rayo va del círculo hacia el centro.").append(finDeLinea);
+        System.out.print(sb);
+        System.out.flush();
+    }
+
+    private void anexarCasilla(StringBuilder sb, int idCelda) {
+        String contenido = ocupacion.getSimboloOcupacion(idCelda);
+        if (contenido == null) {
+            contenido = getCasilla(idCelda).getSimboloCategoriaConsola();
+            if (esReRoll(idCelda)) contenido += "+";
+            else if (esCasillaVerticeRadial(idCelda)) contenido += "!";
+        }
+        sb.append('[').append(String.format("%-2s", contenido)).append(']');
+    }
+}
@@ -1,39 +1,86 @@
 package com.ucab.trivia.juego;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ucab.trivia.domain.CategoriaTrivia;
-import com.ucab.trivia.juego.utils.ConsolaUtilJuego;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 
-public class TableroHexagonal {
+public class TableroHexagonal implements TopologiaTablero {
 
     public static final int RADIO_HEXAGONO_PREDETERMINADO = 3;
-    private final Casilla[][] tableroMatriz;
+    public static final int NUMERO_DIRECCIONES = 6;
+    // Hasta este radio se precalcula la matriz de distancias entre todos los pares de casillas
+    public static final int RADIO_MAXIMO_TABLA_DISTANCIAS_PREDETERMINADO = 12;
+    // Mayor cantidad de pasos de un turno: 6 del dado más el bono de +2 por número impar
+    public static final int PASOS_MAXIMOS_EN_LINEA = 8;
+    // La ocupación de cada casilla es una máscara de 64 bits, un bit por jugador
+    public static final int MAXIMO_JUGADORES = OcupacionJugadores.MAXIMO_JUGADORES;
+
+    // Direcciones axiales (dq, dr) en el orden: Este, Noreste, Noroeste, Oeste, Suroeste, Sureste.
+    // Coinciden con la disposición por filas ("even-r") que usa inicializarTablero.
+    private static final int[] DELTA_Q_DIRECCION = { +1, +1, 0, -1, -1, 0 };
+    private static final int[] DELTA_R_DIRECCION = { 0, -1, -1, 0, +1, +1 };
+    private static final String[] NOMBRES_DIRECCION = { "Este", "Noreste", "Noroeste", "Oeste", "Suroeste", "Sureste" };
+
+    private static final byte SIN_CATEGORIA = -1;
+    private static final CategoriaTrivia[] CATEGORIAS = CategoriaTrivia.values();
+
+    /**
+     * Forma de guardar las casillas. OBJETOS mantiene una Casilla y una CoordenadaHex por casilla (uso normal
+     * del juego). COMPACTO guarda sólo arreglos primitivos y omite la tabla de saltos, para tableros de radio
+     * grande en simulaciones; en ese modo getCasilla devuelve una vista nueva en cada llamada.
+     */
+    public enum ModoAlmacenamiento { OBJETOS, COMPACTO }
+
     private final int radio;
     private final int dimensionMatriz;
+    private final ModoAlmacenamiento modoAlmacenamiento;
     private final CoordenadaHex centroTableroCoord;
-    private Map<String, String> emailASimboloJugador;
-    private int proximoSimboloIdx;
-    private final List<CoordenadaHex> verticesRadiales; // <-- AÑADIDO para guardar las esquinas
 
-    public static class CoordenadaHex {
-        // ... (el contenido de la clase CoordenadaHex se mantiene igual que en la última versión) ...
-        private int fila;
-        private int col;
+    // Cada casilla válida recibe un índice denso (0..numeroCeldas-1) en orden de filas, que sirve también
+    // de identificador compacto de la casilla (idCelda). Las casillas de una fila son un tramo contiguo.
+    private int[] primeraCeldaDeFila; // fila -> idCelda de su primera casilla (con una entrada extra al final)
+    private int[] colInicialDeFila;   // fila -> columna de su primera casilla
+    private int numeroCeldas;
+    private int idCeldaCentro;
+    private int[] filaPorCelda;
+    private int[] colPorCelda;
+    private byte[] categoriaPorCelda; // ordinal de CategoriaTrivia, o SIN_CATEGORIA
+    private IndiceCeldasEspeciales celdasEspeciales; // vértices radiales, re-roll, centro y casillas por categoría
+    private OcupacionJugadores ocupacion; // máscara de jugadores por casilla
+    private CoordenadaHex[] coordenadaPorCelda; // Instancias canónicas (flyweight) por casilla
+    private Casilla[] casillaPorCelda; // Sólo en modo OBJETOS
+    private int[] vecinosPorCelda; // índice * NUMERO_DIRECCIONES + dirección -> índice vecino, o SIN_CELDA
+
+    // Distancias precalculadas con la misma geometría axial que generó las casillas
+    private final int radioMaximoTablaDistancias;
+    private int[] distanciaAlCentroPorCelda;
+    private byte[] distanciasEntreCeldas; // idA * numeroCeldas + idB -> distancia, o null si el radio excede el máximo
+
+    // Saltos en línea recta (casilla, dirección, pasos) -> casilla de llegada, compilados como grafo de transiciones.
+    // No se construye en modo COMPACTO; ahí los movimientos recorren la tabla de adyacencia.
+    private GrafoTransiciones saltosEnLinea;
+    private byte[] alcanceEnLineaPorDireccion; // Sólo en modo COMPACTO: idCelda * 6 + dirección -> pasos posibles antes de salir del tablero
+
+    private RenderizadorTablero renderizadorConsola;
+
+    /**
+     * Coordenada (fila, col) inmutable. Cada tablero guarda una instancia canónica por casilla
+     * (ver coordenadaDeCelda), de modo que mover una ficha no necesita crear coordenadas nuevas.
+     */
+    public static final class CoordenadaHex {
+        private final int fila;
+        private final int col;
 
-        public CoordenadaHex() {}
-        public CoordenadaHex(int fila, int col) {
+        @JsonCreator
+        public CoordenadaHex(@JsonProperty("fila") int fila, @JsonProperty("col") int col) {
             this.fila = fila;
             this.col = col;
         }
         public int getFila() { return fila; }
-        public void setFila(int fila) { this.fila = fila; }
         public int getCol() { return col; }
-        public void setCol(int col) { this.col = col; }
 
         @Override
         public boolean equals(Object o) {
@@ -45,7 +92,7 @@ public class TableroHexagonal {
 
         @Override
         public int hashCode() {
-            return Objects.hash(fila, col);
+            return 31 * fila + col;
         }
 
         @Override
@@ -55,67 +102,215 @@ public class TableroHexagonal {
     }
 
     public TableroHexagonal(int radio) {
+        this(radio, RADIO_MAXIMO_TABLA_DISTANCIAS_PREDETERMINADO);
+    }
+
+    /**
+     * Crea un tablero indicando hasta qué radio se precalcula la matriz de distancias entre todos los pares.
+     * @param radio El radio del hexágono.
+     * @param radioMaximoTablaDistancias Si el radio lo supera, las distancias entre pares se calculan aritméticamente.
+     */
+    public TableroHexagonal(int radio, int radioMaximoTablaDistancias) {
+        this(radio, radioMaximoTablaDistancias, ModoAlmacenamiento.OBJETOS);
+    }
+
+    /**
+     * Crea un tablero indicando también la forma de almacenar las casillas.
+     * @param radio El radio del hexágono.
+     * @param radioMaximoTablaDistancias Si el radio lo supera, las distancias entre pares se calculan aritméticamente.
+     * @param modoAlmacenamiento OBJETOS para el juego normal, COMPACTO para tableros grandes.
+     */
+    public TableroHexagonal(int radio, int radioMaximoTablaDistancias, ModoAlmacenamiento modoAlmacenamiento) {
         if (radio < 1) throw new IllegalArgumentException("El radio del hexágono debe ser al menos 1.");
         this.radio = radio;
+        this.radioMaximoTablaDistancias = radioMaximoTablaDistancias;
+        this.modoAlmacenamiento = modoAlmacenamiento;
         this.dimensionMatriz = 2 * radio + 1;
-        this.tableroMatriz = new Casilla[dimensionMatriz][dimensionMatriz];
         this.centroTableroCoord = new CoordenadaHex(radio, radio);
-        this.emailASimboloJugador = new HashMap<>();
-        this.proximoSimboloIdx = 1;
-        this.verticesRadiales = new ArrayList<>(); // <-- AÑADIDO
         inicializarTablero();
+        construirTablaAdyacencia();
+        construirTablasDistancia();
+        if (modoAlmacenamiento == ModoAlmacenamiento.OBJETOS) construirTablaSaltos();
+        else construirAlcancesEnLinea();
+    }
+
+    /**
+     * Crea un tablero en modo COMPACTO, sin matriz de distancias entre pares.
+     */
+    public static TableroHexagonal compacto(int radio) {
+        return new TableroHexagonal(radio, 0, ModoAlmacenamiento.COMPACTO);
+    }
+
+    private boolean perteneceAlHexagono(int fila, int col) {
+        // Lógica de conversión a coordenadas cúbicas para determinar si la celda es parte del hexágono
+        int dq = qAxial(fila, col) - qAxial(this.radio, this.radio);
+        int dr = fila - this.radio;
+        return Math.abs(dq) + Math.abs(dr) + Math.abs(-dq-dr) <= this.radio * 2;
     }
 
     private void inicializarTablero() {
+        // Primera pasada: cuántas casillas tiene cada fila y en qué columna empieza
+        this.primeraCeldaDeFila = new int[dimensionMatriz + 1];
+        this.colInicialDeFila = new int[dimensionMatriz];
+        int total = 0;
+        for (int fila = 0; fila < dimensionMatriz; fila++) {
+            primeraCeldaDeFila[fila] = total;
+            colInicialDeFila[fila] = dimensionMatriz;
+            for (int col = 0; col < dimensionMatriz; col++) {
+                if (perteneceAlHexagono(fila, col)) {
+                    if (colInicialDeFila[fila] == dimensionMatriz) colInicialDeFila[fila] = col;
+                    total++;
+                }
+            }
+        }
+        primeraCeldaDeFila[dimensionMatriz] = total;
+        this.numeroCeldas = total;
+        this.filaPorCelda = new int[total];
+        this.colPorCelda = new int[total];
+        this.categoriaPorCelda = new byte[total];
+        this.celdasEspeciales = new IndiceCeldasEspeciales(total);
+        this.ocupacion = new OcupacionJugadores(total);
+        this.coordenadaPorCelda = new CoordenadaHex[total];
+        this.idCeldaCentro = indiceCelda(centroTableroCoord.getFila(), centroTableroCoord.getCol());
+
+        // Segunda pasada: categoría y banderas de cada casilla, en el mismo orden cíclico de siempre
         CategoriaTrivia[] categoriasCiclicas = CategoriaTrivia.values();
         int catIndex = 0;
         for (int fila = 0; fila < dimensionMatriz; fila++) {
-            for (int col = 0; col < dimensionMatriz; col++) {
-                // Lógica de conversión a coordenadas cúbicas para determinar si la celda es parte del hexágono
-                int q = col - (fila + (fila & 1)) / 2;
-                int r = fila;
-                int q_centro = this.radio - (this.radio + (this.radio & 1)) / 2;
-                int r_centro = this.radio;
-                int dq = q - q_centro;
-                int dr = r - r_centro;
+            int r = fila;
+            int r_centro = this.radio;
+            int dr = r - r_centro;
+            for (int id = primeraCeldaDeFila[fila]; id < primeraCeldaDeFila[fila + 1]; id++) {
+                int col = colInicialDeFila[fila] + (id - primeraCeldaDeFila[fila]);
+                int dq = qAxial(fila, col) - qAxial(this.radio, this.radio);
                 int x_cub = dq;
                 int z_cub = dr;
                 int y_cub = -x_cub-z_cub;
+                filaPorCelda[id] = fila;
+                colPorCelda[id] = col;
 
-                if (Math.abs(x_cub) + Math.abs(y_cub) + Math.abs(z_cub) <= this.radio * 2) {
-                    boolean esCentroReal = (fila == centroTableroCoord.getFila() && col == centroTableroCoord.getCol());
-                    CategoriaTrivia catAsignada = esCentroReal ? null : categoriasCiclicas[catIndex % categoriasCiclicas.length];
-
-                    // Lógica para casillas de Re-Roll
-                    boolean esReRoll = false;
-                    int distManhattan = Math.abs(dq) + Math.abs(dr) + Math.abs(-dq-dr);
-                    if (!esCentroReal && distManhattan == 2 * this.radio - 2) { // Penúltimo anillo
-                        esReRoll = true;
-                    }
-
-                    // **NUEVA LÓGICA PARA IDENTIFICAR VÉRTICES**
-                    // Los vértices de un hexágono de radio R en coordenadas cúbicas son las permutaciones de (R, -R, 0)
-                    // (R,0,-R), (0,R,-R), (-R,R,0), (-R,0,R), (0,-R,R), (R,-R,0)
-                    if (Math.abs(x_cub) + Math.abs(y_cub) + Math.abs(z_cub) == 2 * this.radio && (x_cub==0 || y_cub==0 || z_cub==0)) {
-                        this.verticesRadiales.add(new CoordenadaHex(fila, col));
-                    }
-
-                    tableroMatriz[fila][col] = new Casilla(catAsignada, esReRoll, esCentroReal);
-                    if (!esCentroReal) catIndex++;
+                boolean esCentroReal = id == idCeldaCentro;
+                if (esCentroReal) {
+                    categoriaPorCelda[id] = SIN_CATEGORIA;
                 } else {
-                    tableroMatriz[fila][col] = null;
+                    CategoriaTrivia categoria = categoriasCiclicas[catIndex % categoriasCiclicas.length];
+                    categoriaPorCelda[id] = (byte) categoria.ordinal();
+                    celdasEspeciales.marcarCategoria(id, categoria);
+                }
+
+                // Lógica para casillas de Re-Roll
+                int distManhattan = Math.abs(dq) + Math.abs(dr) + Math.abs(-dq-dr);
+                if (!esCentroReal && distManhattan == 2 * this.radio - 2) { // Penúltimo anillo
+                    celdasEspeciales.marcarReRoll(id);
+                }
+                if (esCentroReal) celdasEspeciales.marcarCentro(id);
+
+                // **NUEVA LÓGICA PARA IDENTIFICAR VÉRTICES**
+                // Los vértices de un hexágono de radio R en coordenadas cúbicas son las permutaciones de (R, -R, 0)
+                // (R,0,-R), (0,R,-R), (-R,R,0), (-R,0,R), (0,-R,R), (R,-R,0)
+                if (Math.abs(x_cub) + Math.abs(y_cub) + Math.abs(z_cub) == 2 * this.radio && (x_cub==0 || y_cub==0 || z_cub==0)) {
+                    celdasEspeciales.marcarVerticeRadial(id);
+                }
+                if (!esCentroReal) catIndex++;
+            }
+        }
+
+        if (modoAlmacenamiento == ModoAlmacenamiento.OBJETOS) {
+            this.casillaPorCelda = new Casilla[total];
+            for (int id = 0; id < total; id++) {
+                casillaPorCelda[id] = crearCasilla(id);
+                coordenadaDeCelda(id);
+            }
+        }
+    }
+
+    private Casilla crearCasilla(int id) {
+        return new Casilla(getCategoriaCelda(id), esReRoll(id), esCentro(id));
+    }
+
+    /**
+     * Calcula, una sola vez, el vecino de cada casilla en cada una de las 6 direcciones.
+     * Las consultas posteriores de vecinos son lecturas de arreglo y no crean objetos.
+     */
+    private void construirTablaAdyacencia() {
+        this.vecinosPorCelda = new int[numeroCeldas * NUMERO_DIRECCIONES];
+        for (int indice = 0; indice < numeroCeldas; indice++) {
+            int fila = filaPorCelda[indice];
+            int q = qAxial(fila, colPorCelda[indice]);
+            for (int dir = 0; dir < NUMERO_DIRECCIONES; dir++) {
+                int filaVecina = fila + DELTA_R_DIRECCION[dir];
+                int colVecina = q + DELTA_Q_DIRECCION[dir] + (filaVecina + (filaVecina & 1)) / 2;
+                vecinosPorCelda[indice * NUMERO_DIRECCIONES + dir] = indiceCelda(filaVecina, colVecina);
+            }
+        }
+    }
+
+    /**
+     * Precalcula la distancia de cada casilla al centro y, si el radio no supera radioMaximoTablaDistancias,
+     * la matriz de distancias entre todos los pares. Se usa la conversión por filas de inicializarTablero.
+     */
+    private void construirTablasDistancia() {
+        this.distanciaAlCentroPorCelda = new int[numeroCeldas];
+        for (int id = 0; id < numeroCeldas; id++) {
+            distanciaAlCentroPorCelda[id] = calcularDistanciaAxial(id, idCeldaCentro);
+        }
+        // 2 * radio es la distancia máxima posible y debe caber en un byte
+        if (radio <= radioMaximoTablaDistancias && 2 * radio <= Byte.MAX_VALUE) {
+            this.distanciasEntreCeldas = new byte[numeroCeldas * numeroCeldas];
+            for (int a = 0; a < numeroCeldas; a++) {
+                int base = a * numeroCeldas;
+                for (int b = 0; b < numeroCeldas; b++) {
+                    distanciasEntreCeldas[base + b] = (byte) calcularDistanciaAxial(a, b);
                 }
             }
         }
-        Casilla casillaCentral = tableroMatriz[centroTableroCoord.getFila()][centroTableroCoord.getCol()];
-        if (casillaCentral != null) {
-            casillaCentral.setEsCentro(true);
-            casillaCentral.setCategoria(null);
-        } else {
-            tableroMatriz[centroTableroCoord.getFila()][centroTableroCoord.getCol()] = new Casilla(null, false, true);
+    }
+
+    /**
+     * Precalcula, para cada casilla y dirección, dónde se termina tras 0..PASOS_MAXIMOS_EN_LINEA pasos.
+     * Si el camino se bloquea por el borde, la ficha queda en la última casilla válida; ese punto
+     * queda además como el alcance de esa dirección en el grafo.
+     */
+    private void construirTablaSaltos() {
+        // Cada estado es (casilla, dirección) y su siguiente es el vecino en esa misma dirección
+        int[] estadoInicial = new int[numeroCeldas * NUMERO_DIRECCIONES];
+        int[] siguienteEstado = new int[numeroCeldas * NUMERO_DIRECCIONES];
+        int[] celdaDeEstado = new int[numeroCeldas * NUMERO_DIRECCIONES];
+        for (int id = 0; id < numeroCeldas; id++) {
+            for (int dir = 0; dir < NUMERO_DIRECCIONES; dir++) {
+                int estado = id * NUMERO_DIRECCIONES + dir;
+                int vecino = vecinoEnDireccion(id, dir);
+                estadoInicial[estado] = estado;
+                siguienteEstado[estado] = vecino == SIN_CELDA ? GrafoTransiciones.SIN_ESTADO : vecino * NUMERO_DIRECCIONES + dir;
+                celdaDeEstado[estado] = id;
+            }
+        }
+        this.saltosEnLinea = GrafoTransiciones.compilar(numeroCeldas, NUMERO_DIRECCIONES, PASOS_MAXIMOS_EN_LINEA,
+                estadoInicial, siguienteEstado, celdaDeEstado);
+    }
+
+    private void construirAlcancesEnLinea() {
+        this.alcanceEnLineaPorDireccion = new byte[numeroCeldas * NUMERO_DIRECCIONES];
+        for (int id = 0; id < numeroCeldas; id++) {
+            for (int dir = 0; dir < NUMERO_DIRECCIONES; dir++) {
+                int actual = id;
+                int alcance = 0;
+                while (alcance < PASOS_MAXIMOS_EN_LINEA && (actual = vecinoEnDireccion(actual, dir)) != SIN_CELDA) alcance++;
+                alcanceEnLineaPorDireccion[id * NUMERO_DIRECCIONES + dir] = (byte) alcance;
+            }
         }
     }
 
+    private static int qAxial(int fila, int col) {
+        return col - (fila + (fila & 1)) / 2;
+    }
+
+    private int calcularDistanciaAxial(int a, int b) {
+        int dq = qAxial(filaPorCelda[a], colPorCelda[a]) - qAxial(filaPorCelda[b], colPorCelda[b]);
+        int dr = filaPorCelda[a] - filaPorCelda[b];
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
     /**
      * **NUEVO MÉTODO**
      * Verifica si una coordenada corresponde a uno de los 6 vértices "radiales" del hexágono.
@@ -123,82 +318,302 @@ public class TableroHexagonal {
      * @return true si es una de las 6 esquinas, false en caso contrario.
      */
     public boolean esCasillaVerticeRadial(CoordenadaHex coord) {
-        return this.verticesRadiales.contains(coord);
+        return esCasillaVerticeRadial(indiceCelda(coord));
+    }
+
+    @Override
+    public boolean esCasillaVerticeRadial(int idCelda) {
+        return idCelda < numeroCeldas && celdasEspeciales.esVerticeRadial(idCelda);
     }
 
     // ... El resto de los métodos de TableroHexagonal (getCasilla, colocarJugador, dibujarTablero, getVecinosValidos, etc.) se mantienen igual que en la última versión que te di ...
     // ... Pega aquí el resto de los métodos de la clase TableroHexagonal que ya tenías ...
     public Casilla getCasilla(CoordenadaHex coord) {
-        if (coord == null || coord.getFila() < 0 || coord.getFila() >= dimensionMatriz || coord.getCol() < 0 || coord.getCol() >= dimensionMatriz) return null;
-        return tableroMatriz[coord.getFila()][coord.getCol()];
+        return getCasilla(indiceCelda(coord));
     }
-    public void colocarJugadorEnCasilla(String emailJugador, CoordenadaHex coord) {
-        Casilla c = getCasilla(coord);
-        if (c != null) {
-            String simbolo = emailASimboloJugador.computeIfAbsent(emailJugador, k -> "J" + (proximoSimboloIdx++));
-            c.setJugadorEnCasilla(simbolo);
+    @Override
+    public Casilla getCasilla(int idCelda) {
+        if (idCelda < 0 || idCelda >= numeroCeldas) return null;
+        return casillaPorCelda != null ? casillaPorCelda[idCelda] : crearCasilla(idCelda);
+    }
+
+    @Override
+    public CategoriaTrivia getCategoriaCelda(int idCelda) {
+        byte ordinal = categoriaPorCelda[idCelda];
+        return ordinal == SIN_CATEGORIA ? null : CATEGORIAS[ordinal];
+    }
+    @Override
+    public boolean esReRoll(int idCelda) { return celdasEspeciales.esReRoll(idCelda); }
+    @Override
+    public boolean esCentro(int idCelda) { return celdasEspeciales.esCentro(idCelda); }
+
+    public IndiceCeldasEspeciales getCeldasEspeciales() { return celdasEspeciales; }
+
+    /**
+     * Busca la casilla de la categoría dada más cercana a una casilla, recorriendo sólo las casillas
+     * de esa categoría. En caso de empate devuelve la de menor idCelda.
+     * @return El idCelda más cercano, o SIN_CELDA si no hay casillas de esa categoría.
+     */
+    public int celdaMasCercanaDeCategoria(int idCelda, CategoriaTrivia categoria) {
+        int mejor = SIN_CELDA;
+        int mejorDistancia = Integer.MAX_VALUE;
+        for (int id = celdasEspeciales.siguienteCeldaDeCategoria(categoria, 0); id != SIN_CELDA;
+             id = celdasEspeciales.siguienteCeldaDeCategoria(categoria, id + 1)) {
+            int distancia = distanciaEntreCeldas(idCelda, id);
+            if (distancia < mejorDistancia) {
+                mejorDistancia = distancia;
+                mejor = id;
+            }
         }
+        return mejor;
     }
-    public void quitarJugadorDeCasilla(CoordenadaHex coord) {
-        Casilla c = getCasilla(coord);
-        if (c != null) c.setJugadorEnCasilla(" ");
+
+    // --- Ocupación: una máscara de bits de jugadores por casilla ---
+
+    public boolean estaOcupada(int idCelda) { return ocupacion.estaOcupada(idCelda); }
+
+    /**
+     * Devuelve la máscara de jugadores de una casilla: el bit (n - 1) está encendido si el jugador número n está en ella.
+     */
+    public long getJugadoresEnCelda(int idCelda) { return ocupacion.getJugadoresEnCelda(idCelda); }
+
+    public int contarJugadoresEnCelda(int idCelda) { return ocupacion.contarJugadoresEnCelda(idCelda); }
+
+    /**
+     * Devuelve el número (1..MAXIMO_JUGADORES) asignado a un jugador en este tablero, asignándole uno si aún no tenía.
+     * @throws IllegalStateException si ya se asignaron MAXIMO_JUGADORES números.
+     */
+    public int getNumeroJugador(String emailJugador) { return ocupacion.getNumeroJugador(emailJugador); }
+
+    /**
+     * Símbolo de 2 caracteres del jugador número n para el tablero en consola ("J1".."J9", luego "10".."64").
+     */
+    public String getSimboloJugador(int numeroJugador) { return ocupacion.getSimboloJugador(numeroJugador); }
+
+    public void colocarJugadorEnCasilla(String emailJugador, CoordenadaHex coord) {
+        colocarJugadorEnCasilla(emailJugador, indiceCelda(coord));
+    }
+    @Override
+    public void colocarJugadorEnCasilla(String emailJugador, int idCelda) {
+        ocupacion.colocarJugador(emailJugador, idCelda);
+    }
+    public void quitarJugadorDeCasilla(String emailJugador, CoordenadaHex coord) {
+        quitarJugadorDeCasilla(emailJugador, indiceCelda(coord));
+    }
+
+    /**
+     * Quita a un jugador de una casilla sin afectar a los demás jugadores que estén en ella.
+     */
+    @Override
+    public void quitarJugadorDeCasilla(String emailJugador, int idCelda) {
+        ocupacion.quitarJugador(emailJugador, idCelda);
     }
     public CoordenadaHex getCoordenadaCentro() {
-        return new CoordenadaHex(centroTableroCoord.getFila(), centroTableroCoord.getCol());
+        return coordenadaDeCelda(idCeldaCentro);
     }
+    @Override
+    public int getIdCeldaCentro() { return idCeldaCentro; }
+
+    /**
+     * Devuelve la instancia canónica de la coordenada de una casilla. Siempre es el mismo objeto
+     * para el mismo idCelda, por lo que puede guardarse sin copiarla. En modo COMPACTO se crea
+     * la primera vez que se pide.
+     */
+    public CoordenadaHex coordenadaDeCelda(int idCelda) {
+        CoordenadaHex coord = coordenadaPorCelda[idCelda];
+        if (coord == null) {
+            coord = new CoordenadaHex(filaPorCelda[idCelda], colPorCelda[idCelda]);
+            coordenadaPorCelda[idCelda] = coord;
+        }
+        return coord;
+    }
+
+    /**
+     * Devuelve la instancia canónica equivalente a la coordenada dada (por ejemplo, una leída de una
+     * partida guardada), o null si no pertenece al tablero.
+     */
+    public CoordenadaHex canonica(CoordenadaHex coord) {
+        int idCelda = indiceCelda(coord);
+        return idCelda == SIN_CELDA ? null : coordenadaDeCelda(idCelda);
+    }
+    @Override
+    public String describirCelda(int idCelda) {
+        return coordenadaDeCelda(idCelda).toString();
+    }
+
+    @Override
     public void dibujarTableroConsola() {
-        System.out.println("\n--- TABLERO TRIVIA-UCAB ---");
-        for (int fila = 0; fila < dimensionMatriz; fila++) {
-            for (int i = 0; i < Math.abs(radio - fila); i++) System.out.print("  ");
-            for (int col = 0; col < dimensionMatriz; col++) {
-                Casilla c = tableroMatriz[fila][col];
-                if (c == null) System.out.print("    ");
-                else {
-                    String jugador = c.getJugadorEnCasilla();
-                    if (jugador != null && !jugador.trim().isEmpty()) System.out.print("[" + String.format("%-2s", jugador) + "]");
-                    else System.out.print("[" + String.format("%-2s", c.getSimboloCategoriaConsola()) + "]");
-                }
-            }
-            System.out.println();
+        getRenderizadorConsola().dibujar();
+    }
+
+    @Override
+    public void dibujarEnPantallaCompleta() {
+        getRenderizadorConsola().dibujarEnPantallaCompleta();
+    }
+
+    @Override
+    public void actualizarCambiosConsola() {
+        getRenderizadorConsola().actualizarCambios();
+    }
+
+    @Override
+    public void restaurarTerminal() {
+        getRenderizadorConsola().restaurarTerminal();
+    }
+
+    /**
+     * Devuelve el renderizador de este tablero sobre System.out; la capa estática se arma en la primera llamada.
+     */
+    public RenderizadorTablero getRenderizadorConsola() {
+        if (renderizadorConsola == null) renderizadorConsola = new RenderizadorTablero(this, System.out);
+        return renderizadorConsola;
+    }
+
+    // --- Acceso por índice de casilla (sin crear objetos) ---
+
+    @Override
+    public int getNumeroCeldas() { return numeroCeldas; }
+    public int getRadio() { return radio; }
+
+    /**
+     * Devuelve el índice denso de la casilla en (fila, col), o SIN_CELDA si no pertenece al tablero.
+     */
+    public int indiceCelda(int fila, int col) {
+        if (fila < 0 || fila >= dimensionMatriz) return SIN_CELDA;
+        int desplazamiento = col - colInicialDeFila[fila];
+        if (desplazamiento < 0 || desplazamiento >= primeraCeldaDeFila[fila + 1] - primeraCeldaDeFila[fila]) return SIN_CELDA;
+        return primeraCeldaDeFila[fila] + desplazamiento;
+    }
+
+    public int indiceCelda(CoordenadaHex coord) {
+        return coord == null ? SIN_CELDA : indiceCelda(coord.getFila(), coord.getCol());
+    }
+
+    public int getFilaCelda(int indice) { return filaPorCelda[indice]; }
+    public int getColCelda(int indice) { return colPorCelda[indice]; }
+
+    /**
+     * Devuelve el vecino de una casilla en la dirección indicada (0..5), o SIN_CELDA si esa dirección sale del tablero.
+     */
+    public int vecinoEnDireccion(int indice, int direccion) {
+        return vecinosPorCelda[indice * NUMERO_DIRECCIONES + direccion];
+    }
+
+    /**
+     * Copia los vecinos válidos de una casilla en el arreglo destino (de al menos 6 posiciones).
+     * @return La cantidad de vecinos copiados.
+     */
+    public int copiarVecinos(int indice, int[] destino) {
+        int cantidad = 0;
+        int base = indice * NUMERO_DIRECCIONES;
+        for (int dir = 0; dir < NUMERO_DIRECCIONES; dir++) {
+            int vecino = vecinosPorCelda[base + dir];
+            if (vecino != SIN_CELDA) destino[cantidad++] = vecino;
         }
-        System.out.println("----------------------------------------");
-        System.out.println("Leyenda: C=Centro, G=Geografía, H=Historia, D=Deportes, N=Naturaleza, A=Arte, E=Entretenimiento");
+        return cantidad;
+    }
+
+    @Override
+    public int getNumeroOpcionesMovimiento() { return NUMERO_DIRECCIONES; }
+
+    @Override
+    public String describirOpcionMovimiento(int idCelda, int direccion) {
+        int vecino = vecinoEnDireccion(idCelda, direccion);
+        return "Hacia el " + getNombreDireccion(direccion) + (vecino == SIN_CELDA ? "" : " " + coordenadaDeCelda(vecino));
     }
+
+    public static String getNombreDireccion(int direccion) {
+        return NOMBRES_DIRECCION[direccion];
+    }
+
     public List<CoordenadaHex> getVecinosValidos(CoordenadaHex coordActual) {
         List<CoordenadaHex> vecinos = new ArrayList<>();
-        if (getCasilla(coordActual) == null) return vecinos;
-        final int[][][] deltas = { { {+1, 0}, {+1, -1}, {0, -1}, {-1, 0}, {-1, -1}, {0, +1} }, { {+1, 0}, {0, -1}, {-1, -1}, {-1, 0}, {0, +1}, {+1, +1} } };
-        int paridadCol = coordActual.getCol() % 2;
-        for (int[] delta : deltas[paridadCol]) {
-            CoordenadaHex vecino = new CoordenadaHex(coordActual.getFila() + delta[1], coordActual.getCol() + delta[0]);
-            if (getCasilla(vecino) != null) vecinos.add(vecino);
+        int indice = indiceCelda(coordActual);
+        if (indice == SIN_CELDA) return vecinos;
+        for (int dir = 0; dir < NUMERO_DIRECCIONES; dir++) {
+            int vecino = vecinoEnDireccion(indice, dir);
+            if (vecino != SIN_CELDA) vecinos.add(coordenadaDeCelda(vecino));
         }
         return vecinos;
     }
-    public CoordenadaHex calcularNuevaPosicionEnLinea(CoordenadaHex coordInicio, int pasos) {
-        CoordenadaHex posActual = coordInicio;
-        List<CoordenadaHex> vecinos = getVecinosValidos(posActual);
-        if (vecinos.isEmpty()) return posActual;
-        ConsolaUtilJuego.mostrarMensaje("Elige una dirección para moverte " + pasos + " pasos:");
-        for (int i = 0; i < vecinos.size(); i++) System.out.println((i + 1) + ". Hacia " + vecinos.get(i));
-        int eleccion = ConsolaUtilJuego.leerInt("Elige dirección", 1, vecinos.size());
-        CoordenadaHex vecinoElegido = vecinos.get(eleccion - 1);
-        int deltaFila = vecinoElegido.getFila() - posActual.getFila();
-        int deltaCol = vecinoElegido.getCol() - posActual.getCol();
-        CoordenadaHex posFinal = posActual;
+    // --- Motor de movimiento en línea recta (sin entrada/salida por consola) ---
+
+    /**
+     * Calcula la casilla de llegada al moverse en línea recta desde una casilla.
+     * Si el borde del tablero corta el camino, se devuelve la última casilla alcanzable.
+     * @param idCelda Casilla de partida.
+     * @param direccion Dirección (0..5, ver getNombreDireccion).
+     * @param pasos Cantidad de pasos a avanzar.
+     * @return El idCelda de llegada.
+     */
+    @Override
+    public int moverEnLinea(int idCelda, int direccion, int pasos) {
+        if (saltosEnLinea != null) return saltosEnLinea.destino(idCelda, direccion, pasos);
+        int actual = idCelda;
         for (int i = 0; i < pasos; i++) {
-            CoordenadaHex siguientePaso = new CoordenadaHex(posFinal.getFila() + deltaFila, posFinal.getCol() + deltaCol);
-            if (getCasilla(siguientePaso) != null) posFinal = siguientePaso;
-            else { ConsolaUtilJuego.mostrarMensaje("El camino se bloquea. Te detienes en: " + posFinal); break; }
+            int siguiente = vecinoEnDireccion(actual, direccion);
+            if (siguiente == SIN_CELDA) break;
+            actual = siguiente;
         }
-        return posFinal;
+        return actual;
+    }
+
+    /**
+     * Cantidad de pasos que se pueden dar en una dirección antes de salir del tablero
+     * (hasta PASOS_MAXIMOS_EN_LINEA). 0 significa que esa dirección está cerrada.
+     */
+    @Override
+    public int alcanceEnLinea(int idCelda, int direccion) {
+        if (saltosEnLinea != null) return saltosEnLinea.alcance(idCelda, direccion);
+        return alcanceEnLineaPorDireccion[idCelda * NUMERO_DIRECCIONES + direccion];
     }
+
+    /**
+     * Indica si un movimiento de la cantidad de pasos dada se detiene antes por el borde del tablero.
+     */
+    @Override
+    public boolean caminoBloqueadoEnLinea(int idCelda, int direccion, int pasos) {
+        if (saltosEnLinea != null) return saltosEnLinea.bloqueado(idCelda, direccion, pasos);
+        int alcance = alcanceEnLinea(idCelda, direccion);
+        if (alcance < PASOS_MAXIMOS_EN_LINEA || pasos <= PASOS_MAXIMOS_EN_LINEA) return alcance < pasos;
+        // Más allá de la tabla se recorre desde el último punto tabulado
+        int actual = moverEnLinea(idCelda, direccion, PASOS_MAXIMOS_EN_LINEA);
+        for (int i = PASOS_MAXIMOS_EN_LINEA; i < pasos; i++) {
+            actual = vecinoEnDireccion(actual, direccion);
+            if (actual == SIN_CELDA) return true;
+        }
+        return false;
+    }
+
     public int distanciaHexagonal(CoordenadaHex c1, CoordenadaHex c2) {
         if (c1 == null || c2 == null) return Integer.MAX_VALUE;
-        int q1 = c1.getCol(); int r1 = c1.getFila() - (c1.getCol() + (c1.getCol()&1)) / 2;
-        int x1 = q1; int z1 = r1; int y1 = -x1-z1;
-        int q2 = c2.getCol(); int r2 = c2.getFila() - (c2.getCol() + (c2.getCol()&1)) / 2;
-        int x2 = q2; int z2 = r2; int y2 = -x2-z2;
-        return (Math.abs(x1 - x2) + Math.abs(y1 - y2) + Math.abs(z1 - z2)) / 2;
+        int id1 = indiceCelda(c1);
+        int id2 = indiceCelda(c2);
+        if (id1 != SIN_CELDA && id2 != SIN_CELDA) return distanciaEntreCeldas(id1, id2);
+        // Coordenadas fuera del tablero: misma conversión por filas, calculada al vuelo
+        int dq = qAxial(c1.getFila(), c1.getCol()) - qAxial(c2.getFila(), c2.getCol());
+        int dr = c1.getFila() - c2.getFila();
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
+    /**
+     * Distancia (en pasos) de una casilla al centro. Lectura directa de la tabla precalculada.
+     */
+    @Override
+    public int distanciaAlCentro(int idCelda) {
+        return distanciaAlCentroPorCelda[idCelda];
+    }
+
+    /**
+     * Distancia (en pasos) entre dos casillas. Usa la matriz de todos los pares si se precalculó;
+     * en tableros más grandes la calcula a partir de las coordenadas axiales guardadas.
+     */
+    public int distanciaEntreCeldas(int idA, int idB) {
+        if (distanciasEntreCeldas != null) return distanciasEntreCeldas[idA * numeroCeldas + idB];
+        return calcularDistanciaAxial(idA, idB);
+    }
+
+    public boolean tieneTablaDistanciasCompleta() {
+        return distanciasEntreCeldas != null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.ucab.trivia.juego;
+
+/**
+ * Topologías de tablero disponibles para una partida.
+ */
+public enum TipoTablero {
+    HEXAGONAL("Hexagonal"),
+    CIRCULO_RAYOS("Círculo y rayos (clásico)");
+
+    private final String nombreMostrado;
+
+    TipoTablero(String nombreMostrado) {
+        this.nombreMostrado = nombreMostrado;
+    }
+
+    public String getNombreMostrado() {
+        return nombreMostrado;
+    }
+
+    /**
+     * Crea un tablero nuevo de este tipo, con el tamaño predeterminado del juego.
+     */
+    public TopologiaTablero crear() {
+        switch (this) {
+            case CIRCULO_RAYOS: return new TableroCirculoRayos();
+            case HEXAGONAL:
+            default: return new TableroHexagonal(TableroHexagonal.RADIO_HEXAGONO_PREDETERMINADO);
+        }
+    }
+}
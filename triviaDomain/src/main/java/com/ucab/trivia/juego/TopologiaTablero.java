@@ -0,0 +1,102 @@
+package com.ucab.trivia.juego;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+
+/**
+ * Lo que el juego necesita de un tablero, independiente de su forma.
+ *
+ * Las casillas se identifican con un idCelda denso (0..getNumeroCeldas()-1). Desde cada casilla hay
+ * hasta getNumeroOpcionesMovimiento() opciones de movimiento; cada opción es un recorrido fijo (en el
+ * hexágono, una línea recta en una dirección) que la implementación resuelve con sus propias tablas
+ * precalculadas. Una opción con alcance 0 está cerrada desde esa casilla.
+ */
+public interface TopologiaTablero {
+    int SIN_CELDA = -1;
+
+    int getNumeroCeldas();
+    int getIdCeldaCentro();
+
+    // --- Casillas ---
+
+    Casilla getCasilla(int idCelda);
+    CategoriaTrivia getCategoriaCelda(int idCelda);
+    boolean esReRoll(int idCelda);
+    boolean esCentro(int idCelda);
+    boolean esCasillaVerticeRadial(int idCelda);
+
+    /**
+     * Distancia (en pasos) de una casilla al centro, usada para la regla del tiro exacto.
+     */
+    int distanciaAlCentro(int idCelda);
+
+    /**
+     * Indica si algún tiro (dado más el bono impar) da exactamente la distancia al centro desde la casilla.
+     * Si no, el jugador con la ficha completa no puede aplicar la regla del tiro exacto desde ahí y se mueve
+     * como siempre hasta acercarse.
+     */
+    default boolean centroAlcanzableConTiroExacto(int idCelda) {
+        int distancia = distanciaAlCentro(idCelda);
+        for (int lanzamiento = 1; lanzamiento <= 6; lanzamiento++) {
+            if (Dado.aplicarBonoImpar(lanzamiento) == distancia) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Texto corto que identifica la casilla en los mensajes de la consola.
+     */
+    String describirCelda(int idCelda);
+
+    // --- Movimiento ---
+
+    int getNumeroOpcionesMovimiento();
+
+    /**
+     * Pasos que se pueden dar con una opción antes de detenerse. 0 significa que la opción está cerrada.
+     */
+    int alcanceEnLinea(int idCelda, int opcion);
+
+    /**
+     * Casilla de llegada al avanzar la cantidad de pasos dada con una opción. Si el recorrido se detiene
+     * antes, devuelve la última casilla alcanzable.
+     */
+    int moverEnLinea(int idCelda, int opcion, int pasos);
+
+    /**
+     * Indica si un movimiento de la cantidad de pasos dada se detiene antes de completarlos.
+     */
+    boolean caminoBloqueadoEnLinea(int idCelda, int opcion, int pasos);
+
+    /**
+     * Texto para ofrecer una opción de movimiento al jugador (por ejemplo, "Hacia el Este (3,4)").
+     */
+    String describirOpcionMovimiento(int idCelda, int opcion);
+
+    // --- Ocupación ---
+
+    void colocarJugadorEnCasilla(String emailJugador, int idCelda);
+    void quitarJugadorDeCasilla(String emailJugador, int idCelda);
+
+    // --- Consola ---
+
+    void dibujarTableroConsola();
+
+    /**
+     * (ANSI) Dibuja el tablero fijo en la parte superior de la pantalla. Por defecto, limpia la pantalla y lo
+     * dibuja desde la primera línea.
+     */
+    default void dibujarEnPantallaCompleta() {
+        System.out.print("\u001b[H\u001b[2J");
+        dibujarTableroConsola();
+    }
+
+    /**
+     * (ANSI) Redibuja sólo lo que cambió. Por defecto, vuelve a dibujar el tablero completo.
+     */
+    default void actualizarCambiosConsola() { dibujarTableroConsola(); }
+
+    /**
+     * (ANSI) Devuelve la terminal a su estado normal al terminar la partida.
+     */
+    default void restaurarTerminal() {}
+}
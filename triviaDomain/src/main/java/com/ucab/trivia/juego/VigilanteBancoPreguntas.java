@@ -0,0 +1,94 @@
+package com.ucab.trivia.juego;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vigila con un WatchService los archivos del banco de preguntas dentro de su directorio y, cuando alguno
+ * se crea o modifica, ejecuta la recarga en un hilo propio (de tipo daemon, para no impedir que el juego termine).
+ * Los cambios seguidos se agrupan: la recarga se hace cuando pasa un momento sin nuevos eventos.
+ */
+public class VigilanteBancoPreguntas implements AutoCloseable {
+    private static final long ESPERA_SIN_CAMBIOS_MS = 300;
+
+    private final WatchService watchService;
+    private final Set<String> nombresVigilados;
+    private final Runnable recarga;
+    private final Thread hilo;
+
+    /**
+     * @param directorio Directorio donde están los archivos.
+     * @param nombresVigilados Nombres de archivo (sin ruta) cuyos cambios provocan la recarga.
+     * @param recarga Acción a ejecutar en el hilo del vigilante.
+     */
+    public VigilanteBancoPreguntas(Path directorio, Set<String> nombresVigilados, Runnable recarga) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.nombresVigilados = nombresVigilados;
+        this.recarga = recarga;
+        try {
+            directorio.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.hilo = new Thread(this::vigilar, "vigilante-banco-preguntas");
+        this.hilo.setDaemon(true);
+    }
+
+    public void iniciar() {
+        hilo.start();
+    }
+
+    private void vigilar() {
+        try {
+            while (true) {
+                if (!hayCambioRelevante(watchService.take())) continue;
+                // Esperar a que dejen de llegar eventos (p. ej. escritura del temporal y renombrado)
+                WatchKey siguiente;
+                while ((siguiente = watchService.poll(ESPERA_SIN_CAMBIOS_MS, TimeUnit.MILLISECONDS)) != null) {
+                    hayCambioRelevante(siguiente);
+                }
+                try {
+                    recarga.run();
+                } catch (RuntimeException e) {
+                    System.err.println("ADVERTENCIA: Falló la recarga del banco de preguntas: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Se cerró el vigilante
+        }
+    }
+
+    private boolean hayCambioRelevante(WatchKey clave) {
+        boolean relevante = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevante = true; // Se perdieron eventos: recargar por si acaso
+            } else if (nombresVigilados.contains(((Path) evento.context()).getFileName().toString())) {
+                relevante = true;
+            }
+        }
+        clave.reset();
+        return relevante;
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Nada más que hacer al cerrar
+        }
+        hilo.interrupt();
+    }
+}
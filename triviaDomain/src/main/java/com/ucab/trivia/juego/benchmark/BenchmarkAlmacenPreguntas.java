@@ -0,0 +1,83 @@
+package com.ucab.trivia.juego.benchmark;
+
+import com.ucab.trivia.domain.AlmacenPreguntasCompacto;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EstadoPregunta;
+import com.ucab.trivia.domain.PreguntaDetallada;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Compara la memoria que retiene un banco grande como lista de PreguntaDetallada (un objeto y cuatro cadenas
+ * por pregunta) contra el AlmacenPreguntasCompacto, y lo que cuesta armar una pregunta desde el almacén.
+ * Las preguntas tienen id UUID y los correos de sus creadores se repiten, como en un banco real.
+ * Uso: java -cp trivia-domain.jar com.ucab.trivia.juego.benchmark.BenchmarkAlmacenPreguntas [preguntas] [creadores]
+ */
+public class BenchmarkAlmacenPreguntas {
+    private static final int PREGUNTAS_PREDETERMINADAS = 1_000_000;
+    private static final int CREADORES_PREDETERMINADOS = 500;
+    private static final int LECTURAS = 2_000_000;
+
+    public static void main(String[] args) {
+        int preguntas = args.length > 0 ? Integer.parseInt(args[0]) : PREGUNTAS_PREDETERMINADAS;
+        int creadores = args.length > 1 ? Integer.parseInt(args[1]) : CREADORES_PREDETERMINADOS;
+        System.out.println("Banco sintético: " + preguntas + " preguntas de " + creadores + " creadores");
+        System.out.println(String.format("%-10s %14s %14s %12s", "Forma", "MB retenidos", "Bytes/pregunta", "Carga ms"));
+
+        long base = memoriaUsada();
+        long inicio = System.nanoTime();
+        List<PreguntaDetallada> lista = new ArrayList<>(preguntas);
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        for (int i = 0; i < preguntas; i++) lista.add(generarPregunta(i, creadores, aleatorio));
+        long nanos = System.nanoTime() - inicio;
+        imprimir("Objetos", memoriaUsada() - base, preguntas, nanos);
+        if (lista.isEmpty()) System.out.println(); // Mantiene viva la lista hasta medirla
+        lista = null;
+
+        base = memoriaUsada();
+        inicio = System.nanoTime();
+        AlmacenPreguntasCompacto almacen = new AlmacenPreguntasCompacto(preguntas);
+        aleatorio = new SplittableRandom(11);
+        for (int i = 0; i < preguntas; i++) almacen.agregar(generarPregunta(i, creadores, aleatorio));
+        almacen.recortar();
+        nanos = System.nanoTime() - inicio;
+        imprimir("Compacto", memoriaUsada() - base, preguntas, nanos);
+
+        int largoTotal = 0;
+        for (int i = 0; i < LECTURAS; i++) largoTotal += almacen.obtener((int) ((i * 2_654_435_761L) % preguntas)).getPregunta().length();
+        inicio = System.nanoTime();
+        for (int i = 0; i < LECTURAS; i++) largoTotal += almacen.obtener((int) ((i * 2_654_435_761L) % preguntas)).getPregunta().length();
+        nanos = System.nanoTime() - inicio;
+        if (largoTotal == 0) System.out.println(); // Evita que el JIT descarte el trabajo
+        System.out.println(String.format("Armar una pregunta desde el almacén: %.1f ns", (double) nanos / LECTURAS));
+    }
+
+    private static PreguntaDetallada generarPregunta(int i, int creadores, SplittableRandom aleatorio) {
+        CategoriaTrivia[] categorias = CategoriaTrivia.values();
+        // Cada correo es una cadena nueva, como al leerlo del JSON
+        return new PreguntaDetallada(new UUID(aleatorio.nextLong(), aleatorio.nextLong()).toString(),
+                "¿Pregunta sintética número " + i + " para medir la memoria del banco?", "Respuesta " + i,
+                categorias[i % categorias.length], EstadoPregunta.APROBADA, "autor" + aleatorio.nextInt(creadores) + "@ucab.edu.ve");
+    }
+
+    private static void imprimir(String forma, long retenidos, int preguntas, long nanos) {
+        System.out.println(String.format("%-10s %14.1f %14.1f %12.1f", forma, retenidos / (1024.0 * 1024.0),
+                (double) retenidos / preguntas, nanos / 1_000_000.0));
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ucab.trivia.juego.benchmark;
+
+import com.ucab.trivia.juego.AsesorMovimientos;
+import com.ucab.trivia.juego.Ficha;
+import com.ucab.trivia.juego.TableroCirculoRayos;
+import com.ucab.trivia.juego.TableroHexagonal;
+import com.ucab.trivia.juego.TopologiaTablero;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mide cuánto tarda el AsesorMovimientos en evaluar una jugada (todas las direcciones para una
+ * casilla y una tirada, más la elección de la mejor opción) y cuántos bytes reserva por evaluación,
+ * en tableros hexagonales de varios radios y en el tablero de círculo y rayos.
+ * Uso: java -cp trivia-domain.jar com.ucab.trivia.juego.benchmark.BenchmarkAsesorMovimientos [radio...]
+ */
+public class BenchmarkAsesorMovimientos {
+    private static final int[] RADIOS_PREDETERMINADOS = { 3, 12, 50 };
+    private static final int EVALUACIONES = 2_000_000;
+
+    public static void main(String[] args) {
+        int[] radios = RADIOS_PREDETERMINADOS;
+        if (args.length > 0) {
+            radios = new int[args.length];
+            for (int i = 0; i < args.length; i++) radios[i] = Integer.parseInt(args[i]);
+        }
+        System.out.println(String.format("%-16s %10s %14s %16s", "Tablero", "Casillas", "ns/evaluación", "Bytes/evaluación"));
+        for (int radio : radios) {
+            medir("Hexagonal r=" + radio, new TableroHexagonal(radio));
+        }
+        medir("Círculo y rayos", new TableroCirculoRayos());
+    }
+
+    private static void medir(String nombre, TopologiaTablero tablero) {
+        AsesorMovimientos asesor = new AsesorMovimientos(tablero);
+        Ficha ficha = new Ficha();
+
+        // Calentamiento para que el JIT compile el cálculo antes de medir
+        evaluar(tablero, asesor, ficha, EVALUACIONES);
+
+        long bytesAntes = bytesReservados();
+        long inicio = System.nanoTime();
+        long control = evaluar(tablero, asesor, ficha, EVALUACIONES);
+        long nanos = System.nanoTime() - inicio;
+        long bytes = bytesReservados() - bytesAntes;
+
+        System.out.println(String.format("%-16s %10d %14.1f %16.2f",
+                nombre, tablero.getNumeroCeldas(), (double) nanos / EVALUACIONES, (double) bytes / EVALUACIONES));
+        if (control == Long.MIN_VALUE) System.out.println(); // Evita que el JIT descarte el cálculo
+    }
+
+    private static long evaluar(TopologiaTablero tablero, AsesorMovimientos asesor, Ficha ficha, int evaluaciones) {
+        int numeroCeldas = tablero.getNumeroCeldas();
+        long control = 0;
+        for (int i = 0; i < evaluaciones; i++) {
+            int idCelda = i % numeroCeldas;
+            int lanzamiento = i % 6 + 1;
+            control += asesor.calcularParaLanzamiento(idCelda, lanzamiento);
+            control += asesor.mejorOpcion(ficha);
+        }
+        return control;
+    }
+
+    private static long bytesReservados() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) hilos).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,175 @@
+package com.ucab.trivia.juego.benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.EscritorPaquetePreguntas;
+import com.ucab.trivia.domain.EstadoPregunta;
+import com.ucab.trivia.domain.PreguntaDetallada;
+import com.ucab.trivia.juego.ServicioPreguntasJuego;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara la carga del banco de preguntas leyendo todo el arreglo con ObjectMapper y filtrando después
+ * (forma anterior) contra el parser de flujo de ServicioPreguntasJuego, sobre un banco sintético donde
+ * sólo una fracción de las preguntas está APROBADA. También mide la apertura del paquete binario compilado
+ * (mapeado en memoria), lo que cuesta a una segunda partida abrir el mismo banco mientras la primera
+ * lo tiene abierto (BancoPreguntasCompartido) y el costo de sacar preguntas de cada fuente.
+ * Uso: java -cp trivia-domain.jar com.ucab.trivia.juego.benchmark.BenchmarkCargaPreguntas [preguntas] [porcentajeAprobadas]
+ */
+public class BenchmarkCargaPreguntas {
+    private static final int PREGUNTAS_PREDETERMINADAS = 200_000;
+    private static final int PORCENTAJE_APROBADAS_PREDETERMINADO = 20;
+
+    public static void main(String[] args) throws IOException {
+        int preguntas = args.length > 0 ? Integer.parseInt(args[0]) : PREGUNTAS_PREDETERMINADAS;
+        int porcentajeAprobadas = args.length > 1 ? Integer.parseInt(args[1]) : PORCENTAJE_APROBADAS_PREDETERMINADO;
+        // Directorio propio: el servicio busca el paquete compilado junto al JSON
+        File directorio = Files.createTempDirectory("banco_benchmark").toFile();
+        directorio.deleteOnExit();
+        File archivo = new File(directorio, "banco_preguntas.json");
+        archivo.deleteOnExit();
+        generarBanco(archivo, preguntas, porcentajeAprobadas);
+        System.out.println("Banco sintético: " + preguntas + " preguntas, " + porcentajeAprobadas + "% aprobadas, "
+                + (archivo.length() / 1024) + " KB");
+
+        // Calentamiento de ambas formas
+        cargarConObjectMapper(archivo);
+        new ServicioPreguntasJuego(archivo).close();
+
+        System.out.println(String.format("%-14s %10s %16s %16s", "Carga", "ms", "MB reservados", "MB retenidos"));
+        long base = memoriaUsada();
+        long bytesAntes = bytesReservados();
+        long inicio = System.nanoTime();
+        Map<CategoriaTrivia, List<PreguntaDetallada>> completo = cargarConObjectMapper(archivo);
+        long nanos = System.nanoTime() - inicio;
+        long reservados = bytesReservados() - bytesAntes;
+        long retenidos = memoriaUsada() - base;
+        imprimir("ObjectMapper", nanos, reservados, retenidos);
+        if (completo.isEmpty()) System.out.println(); // Mantiene vivo el resultado hasta medirlo
+        completo = null;
+
+        base = memoriaUsada();
+        bytesAntes = bytesReservados();
+        inicio = System.nanoTime();
+        ServicioPreguntasJuego servicio = new ServicioPreguntasJuego(archivo);
+        nanos = System.nanoTime() - inicio;
+        reservados = bytesReservados() - bytesAntes;
+        retenidos = memoriaUsada() - base;
+        imprimir("Flujo", nanos, reservados, retenidos);
+        System.out.println(servicio.getEstadisticasCarga());
+
+        base = memoriaUsada();
+        bytesAntes = bytesReservados();
+        inicio = System.nanoTime();
+        ServicioPreguntasJuego otraPartida = new ServicioPreguntasJuego(archivo);
+        nanos = System.nanoTime() - inicio;
+        reservados = bytesReservados() - bytesAntes;
+        retenidos = memoriaUsada() - base;
+        imprimir("Compartido", nanos, reservados, retenidos);
+        double nanosSacarFlujo = medirSeleccion(servicio);
+        otraPartida.close();
+        servicio.close();
+
+        File paquete = new File(directorio, EscritorPaquetePreguntas.NOMBRE_ARCHIVO_PAQUETE);
+        paquete.deleteOnExit();
+        EscritorPaquetePreguntas.escribir(new ObjectMapper().readValue(archivo, new TypeReference<List<PreguntaDetallada>>() {}), paquete);
+        paquete.setLastModified(archivo.lastModified() + 1000);
+        new ServicioPreguntasJuego(archivo).close(); // Calentamiento
+
+        base = memoriaUsada();
+        bytesAntes = bytesReservados();
+        inicio = System.nanoTime();
+        ServicioPreguntasJuego servicioPaquete = new ServicioPreguntasJuego(archivo);
+        nanos = System.nanoTime() - inicio;
+        reservados = bytesReservados() - bytesAntes;
+        retenidos = memoriaUsada() - base;
+        imprimir("Paquete", nanos, reservados, retenidos);
+        System.out.println(servicioPaquete.getEstadisticasCarga() + " (" + (paquete.length() / 1024) + " KB en disco)");
+
+        System.out.println(String.format("%-14s %14s", "Sacar", "ns/pregunta"));
+        System.out.println(String.format("%-14s %14.1f", "Flujo", nanosSacarFlujo));
+        System.out.println(String.format("%-14s %14.1f", "Paquete", medirSeleccion(servicioPaquete)));
+        servicioPaquete.close();
+    }
+
+    private static double medirSeleccion(ServicioPreguntasJuego servicio) {
+        CategoriaTrivia[] categorias = CategoriaTrivia.values();
+        int repeticiones = 200_000;
+        int largoTotal = 0;
+        for (int i = 0; i < repeticiones; i++) largoTotal += servicio.seleccionarPreguntaAleatoria(categorias[i % categorias.length]).getPregunta().length();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticiones; i++) largoTotal += servicio.seleccionarPreguntaAleatoria(categorias[i % categorias.length]).getPregunta().length();
+        long nanos = System.nanoTime() - inicio;
+        if (largoTotal == 0) System.out.println(); // Evita que el JIT descarte el trabajo
+        return (double) nanos / repeticiones;
+    }
+
+    private static Map<CategoriaTrivia, List<PreguntaDetallada>> cargarConObjectMapper(File archivo) throws IOException {
+        List<PreguntaDetallada> todas = new ObjectMapper().readValue(archivo, new TypeReference<>() {});
+        Map<CategoriaTrivia, List<PreguntaDetallada>> porCategoria = new EnumMap<>(CategoriaTrivia.class);
+        for (PreguntaDetallada p : todas) {
+            if (p.getEstado() == EstadoPregunta.APROBADA && p.getCategoria() != null) {
+                porCategoria.computeIfAbsent(p.getCategoria(), k -> new ArrayList<>()).add(p);
+            }
+        }
+        return porCategoria;
+    }
+
+    static void generarBanco(File archivo, int preguntas, int porcentajeAprobadas) throws IOException {
+        CategoriaTrivia[] categorias = CategoriaTrivia.values();
+        EstadoPregunta[] noAprobadas = { EstadoPregunta.ESPERANDO_APROBACION, EstadoPregunta.RECHAZADA };
+        try (JsonGenerator gen = new JsonFactory().createGenerator(archivo, JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            for (int i = 0; i < preguntas; i++) {
+                boolean aprobada = (i % 100) < porcentajeAprobadas;
+                gen.writeStartObject();
+                gen.writeStringField("id", "p-" + i);
+                gen.writeStringField("pregunta", "¿Pregunta sintética número " + i + " para medir la carga del banco?");
+                gen.writeStringField("respuesta", "Respuesta " + i);
+                gen.writeStringField("categoria", categorias[i % categorias.length].getNombreMostrado());
+                gen.writeStringField("estado", (aprobada ? EstadoPregunta.APROBADA : noAprobadas[i % 2]).name());
+                gen.writeStringField("usuarioCreadorEmail", "autor" + (i % 50) + "@ucab.edu.ve");
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static void imprimir(String nombre, long nanos, long reservados, long retenidos) {
+        System.out.println(String.format("%-14s %10.1f %16.1f %16.1f", nombre, nanos / 1_000_000.0,
+                reservados / (1024.0 * 1024.0), retenidos / (1024.0 * 1024.0)));
+    }
+
+    private static long bytesReservados() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) hilos).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0L;
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
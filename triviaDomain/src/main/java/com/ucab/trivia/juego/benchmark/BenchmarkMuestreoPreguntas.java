@@ -0,0 +1,115 @@
+package com.ucab.trivia.juego.benchmark;
+
+import com.ucab.trivia.domain.CategoriaTrivia;
+import com.ucab.trivia.domain.PreguntaDetallada;
+import com.ucab.trivia.juego.FuenteAleatoria;
+import com.ucab.trivia.juego.HistorialRespuestas;
+import com.ucab.trivia.juego.SelectorPreguntasPorDificultad;
+import com.ucab.trivia.juego.ServicioPreguntasJuego;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+/**
+ * Compara el sorteo uniforme de seleccionarPreguntaAleatoria (bolsa sin repetición) con el sorteo ponderado
+ * por dificultad (tablas de alias) sobre un banco sintético con un historial de respuestas inventado. Mide
+ * también la construcción inicial de las tablas, lo que cuesta registrar un resultado y volver a sortear de
+ * la misma categoría (con las reconstrucciones por lotes repartidas) y la dificultad media de lo que sale en cada franja.
+ * Uso: java -cp trivia-domain.jar com.ucab.trivia.juego.benchmark.BenchmarkMuestreoPreguntas [preguntas]
+ */
+public class BenchmarkMuestreoPreguntas {
+    private static final int PREGUNTAS_PREDETERMINADAS = 60_000;
+    private static final int SORTEOS = 1_000_000;
+    private static final int RECONSTRUCCIONES = 500;
+
+    public static void main(String[] args) throws IOException {
+        int preguntas = args.length > 0 ? Integer.parseInt(args[0]) : PREGUNTAS_PREDETERMINADAS;
+        File directorio = Files.createTempDirectory("banco_benchmark").toFile();
+        directorio.deleteOnExit();
+        File archivo = new File(directorio, "banco_preguntas.json");
+        archivo.deleteOnExit();
+        BenchmarkCargaPreguntas.generarBanco(archivo, preguntas, 100);
+        File archivoHistorial = new File(directorio, HistorialRespuestas.NOMBRE_ARCHIVO);
+        archivoHistorial.deleteOnExit();
+        HistorialRespuestas historial = generarHistorial(archivoHistorial, preguntas);
+        System.out.println("Banco sintético: " + preguntas + " preguntas aprobadas con historial de respuestas");
+
+        CategoriaTrivia[] categorias = CategoriaTrivia.values();
+        try (ServicioPreguntasJuego servicio = new ServicioPreguntasJuego(archivo, FuenteAleatoria.conSemilla(42))) {
+            long inicio = System.nanoTime();
+            for (CategoriaTrivia cat : categorias) {
+                for (int franja = 0; franja < SelectorPreguntasPorDificultad.NUMERO_FRANJAS; franja++) {
+                    servicio.sacarPreguntaAdaptada(cat, objetivoDeFranja(franja));
+                }
+            }
+            System.out.println(String.format("Construcción de todas las tablas: %.1f ms", (System.nanoTime() - inicio) / 1_000_000.0));
+
+            System.out.println(String.format("%-22s %14s", "Sorteo", "ns/pregunta"));
+            System.out.println(String.format("%-22s %14.1f", "Uniforme (bolsa)", medirUniforme(servicio, categorias)));
+            System.out.println(String.format("%-22s %14.1f", "Por dificultad (alias)", medirAdaptado(servicio, categorias)));
+
+            // Los resultados se acumulan y cada tanto el sorteo reconstruye la tabla de la franja
+            PreguntaDetallada pregunta = servicio.sacarPreguntaAdaptada(categorias[0], 0.5);
+            inicio = System.nanoTime();
+            for (int i = 0; i < RECONSTRUCCIONES; i++) {
+                servicio.registrarResultado(pregunta, (i & 1) == 0);
+                pregunta = servicio.sacarPreguntaAdaptada(categorias[0], 0.5);
+            }
+            System.out.println(String.format("Resultado + sorteo: %.1f µs (%d preguntas en la categoría)",
+                    (System.nanoTime() - inicio) / 1_000.0 / RECONSTRUCCIONES, preguntas / categorias.length));
+
+            System.out.println(String.format("%-8s %10s %18s", "Franja", "Objetivo", "Dificultad media"));
+            for (int franja = 0; franja < SelectorPreguntasPorDificultad.NUMERO_FRANJAS; franja++) {
+                double objetivo = objetivoDeFranja(franja);
+                double suma = 0;
+                int muestras = 100_000;
+                for (int i = 0; i < muestras; i++) {
+                    suma += historial.dificultad(servicio.sacarPreguntaAdaptada(categorias[i % categorias.length], objetivo).getId());
+                }
+                System.out.println(String.format("%-8d %10.2f %18.3f", franja, objetivo, suma / muestras));
+            }
+        }
+    }
+
+    private static double objetivoDeFranja(int franja) {
+        return (franja + 0.5) / SelectorPreguntasPorDificultad.NUMERO_FRANJAS;
+    }
+
+    private static double medirUniforme(ServicioPreguntasJuego servicio, CategoriaTrivia[] categorias) {
+        int largoTotal = 0;
+        for (int i = 0; i < SORTEOS; i++) largoTotal += servicio.seleccionarPreguntaAleatoria(categorias[i % categorias.length]).getPregunta().length();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < SORTEOS; i++) largoTotal += servicio.seleccionarPreguntaAleatoria(categorias[i % categorias.length]).getPregunta().length();
+        long nanos = System.nanoTime() - inicio;
+        if (largoTotal == 0) System.out.println(); // Evita que el JIT descarte el trabajo
+        return (double) nanos / SORTEOS;
+    }
+
+    private static double medirAdaptado(ServicioPreguntasJuego servicio, CategoriaTrivia[] categorias) {
+        int largoTotal = 0;
+        for (int i = 0; i < SORTEOS; i++) largoTotal += servicio.sacarPreguntaAdaptada(categorias[i % categorias.length], (i % 10) / 10.0).getPregunta().length();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < SORTEOS; i++) largoTotal += servicio.sacarPreguntaAdaptada(categorias[i % categorias.length], (i % 10) / 10.0).getPregunta().length();
+        long nanos = System.nanoTime() - inicio;
+        if (largoTotal == 0) System.out.println(); // Evita que el JIT descarte el trabajo
+        return (double) nanos / SORTEOS;
+    }
+
+    /**
+     * Cada pregunta recibe entre 0 y 30 respuestas con una probabilidad de acierto propia, así que las
+     * dificultades quedan repartidas por todo el rango.
+     */
+    private static HistorialRespuestas generarHistorial(File archivo, int preguntas) {
+        HistorialRespuestas historial = HistorialRespuestas.cargar(archivo);
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < preguntas; i++) {
+            double probabilidadAcierto = aleatorio.nextDouble();
+            int intentos = aleatorio.nextInt(31);
+            for (int k = 0; k < intentos; k++) historial.registrar("p-" + i, aleatorio.nextDouble() < probabilidadAcierto);
+        }
+        historial.guardarSiHayCambios();
+        return historial;
+    }
+}
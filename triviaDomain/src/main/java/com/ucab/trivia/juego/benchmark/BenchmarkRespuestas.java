@@ -0,0 +1,39 @@
+package com.ucab.trivia.juego.benchmark;
+
+import com.ucab.trivia.juego.RespuestaAceptada;
+
+/**
+ * Mide cuánto tarda comprobar una respuesta contra una RespuestaAceptada ya compilada, como en una ronda
+ * donde muchos jugadores responden la misma pregunta: exactas, con acentos o mayúsculas distintas,
+ * con un error de escritura y erróneas.
+ * Uso: java -cp trivia-domain.jar com.ucab.trivia.juego.benchmark.BenchmarkRespuestas [comprobaciones]
+ */
+public class BenchmarkRespuestas {
+    private static final int COMPROBACIONES_PREDETERMINADAS = 5_000_000;
+    private static final String RESPUESTA_ALMACENADA = "Simón Bolívar|El Libertador";
+    private static final String[] RESPUESTAS_JUGADORES = {
+            "Simón Bolívar", "simon bolivar", "  SIMON   BOLÍVAR. ", "Simon Bolibar", "el libertador",
+            "Francisco de Miranda", "Sucre", ""
+    };
+
+    public static void main(String[] args) {
+        int comprobaciones = args.length > 0 ? Integer.parseInt(args[0]) : COMPROBACIONES_PREDETERMINADAS;
+        RespuestaAceptada aceptada = RespuestaAceptada.de(RESPUESTA_ALMACENADA);
+        System.out.println("Respuesta almacenada: \"" + RESPUESTA_ALMACENADA + "\"");
+        for (String respuesta : RESPUESTAS_JUGADORES) {
+            System.out.println(String.format("  %-24s -> %s", "\"" + respuesta + "\"", aceptada.acepta(respuesta) ? "correcta" : "incorrecta"));
+        }
+
+        int aceptadas = 0;
+        for (int i = 0; i < comprobaciones; i++) { // Calentamiento
+            if (aceptada.acepta(RESPUESTAS_JUGADORES[i % RESPUESTAS_JUGADORES.length])) aceptadas++;
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < comprobaciones; i++) {
+            if (aceptada.acepta(RESPUESTAS_JUGADORES[i % RESPUESTAS_JUGADORES.length])) aceptadas++;
+        }
+        long nanos = System.nanoTime() - inicio;
+        System.out.println(String.format("%d comprobaciones: %.1f ns por respuesta (%d aceptadas)",
+                comprobaciones, (double) nanos / comprobaciones, aceptadas));
+    }
+}
@@ -0,0 +1,67 @@
+package com.ucab.trivia.juego.benchmark;
+
+import com.ucab.trivia.juego.TableroHexagonal;
+import com.ucab.trivia.juego.TableroHexagonal.ModoAlmacenamiento;
+
+/**
+ * Mide el tiempo de construcción y la memoria por casilla del TableroHexagonal
+ * en sus dos modos de almacenamiento (OBJETOS y COMPACTO) para varios radios.
+ * Uso: java -cp trivia-domain.jar com.ucab.trivia.juego.benchmark.BenchmarkTablero [radio...]
+ */
+public class BenchmarkTablero {
+    private static final int[] RADIOS_PREDETERMINADOS = { 3, 50, 200, 500 };
+    private static final int REPETICIONES = 5;
+
+    public static void main(String[] args) {
+        int[] radios = RADIOS_PREDETERMINADOS;
+        if (args.length > 0) {
+            radios = new int[args.length];
+            for (int i = 0; i < args.length; i++) radios[i] = Integer.parseInt(args[i]);
+        }
+        System.out.println(String.format("%-9s %-8s %10s %14s %12s", "Modo", "Radio", "Casillas", "Construcción", "Bytes/celda"));
+        for (ModoAlmacenamiento modo : ModoAlmacenamiento.values()) {
+            for (int radio : radios) {
+                medir(modo, radio);
+            }
+        }
+    }
+
+    private static void medir(ModoAlmacenamiento modo, int radio) {
+        // Calentamiento para que el JIT compile la construcción antes de medir
+        crear(modo, radio);
+
+        long mejorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            crear(modo, radio);
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+
+        long antes = memoriaUsada();
+        TableroHexagonal tablero = crear(modo, radio);
+        long despues = memoriaUsada();
+        int casillas = tablero.getNumeroCeldas();
+        double bytesPorCelda = (double) (despues - antes) / casillas;
+
+        System.out.println(String.format("%-9s %-8d %10d %11.2f ms %12.1f",
+                modo, radio, casillas, mejorNanos / 1_000_000.0, bytesPorCelda));
+    }
+
+    private static TableroHexagonal crear(ModoAlmacenamiento modo, int radio) {
+        // Sin matriz de distancias entre pares para comparar sólo el almacenamiento de las casillas
+        return new TableroHexagonal(radio, 0, modo);
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
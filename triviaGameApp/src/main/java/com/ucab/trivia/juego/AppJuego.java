@@ -40,7 +40,7 @@ public class AppJuego {
         }
 
         if (!cargar) {
-            int numJug = ConsolaUtilJuego.leerInt("Ingrese el número de jugadores (1-6)", 1, 6);
+            int numJug = ConsolaUtilJuego.leerInt("Ingrese el número de jugadores", 1, TableroHexagonal.MAXIMO_JUGADORES);
             Set<String> correosIngresados = new HashSet<>();
             for (int i = 0; i < numJug; i++) {
                 String correo;
@@ -61,8 +61,39 @@ public class AppJuego {
                 esPorTiempo = true;
                 tiempoGlobal = ConsolaUtilJuego.leerInt("Ingrese el tiempo máximo global para responder cada pregunta (en segundos)", 10, 60);
             }
+
+            TipoTablero[] tipos = TipoTablero.values();
+            ConsolaUtilJuego.mostrarMensaje("Tipos de tablero:");
+            for (int i = 0; i < tipos.length; i++) {
+                ConsolaUtilJuego.mostrarMensaje((i + 1) + ". " + tipos[i].getNombreMostrado());
+            }
+            triviaJuego.setTipoTablero(tipos[ConsolaUtilJuego.leerInt("Elija el tablero", 1, tipos.length) - 1]);
+
+            if (numJug > 1) {
+                String respBolsa = ConsolaUtilJuego.leerString("¿Que cada jugador pueda recibir todas las preguntas (sin repetir sólo dentro de sus propias preguntas)? (S/N)").toUpperCase();
+                triviaJuego.setBolsaPorJugador(respBolsa.equals("S"));
+            }
+
+            String respAdaptadas = ConsolaUtilJuego.leerString("¿Adaptar la dificultad de las preguntas a los aciertos de cada jugador (pueden repetirse)? (S/N)").toUpperCase();
+            triviaJuego.setPreguntasAdaptadas(respAdaptadas.equals("S"));
+
+            String respSemilla = ConsolaUtilJuego.leerString("Semilla de la partida: un número para repetir una partida, Enter para una nueva al azar o S para dados seguros (no repetible)").trim();
+            if (respSemilla.equalsIgnoreCase("S")) {
+                triviaJuego.setAleatoriedadSegura(true);
+            } else if (!respSemilla.isEmpty()) {
+                try {
+                    triviaJuego.setSemillaPartida(Long.parseLong(respSemilla));
+                } catch (NumberFormatException e) {
+                    ConsolaUtilJuego.mostrarMensaje(">> Semilla inválida. Se usará una al azar.");
+                }
+            }
         }
 
+        String respAnsi = ConsolaUtilJuego.leerString("¿Su terminal admite colores/secuencias ANSI? Se redibujará sólo lo que cambie en el tablero (S/N)").toUpperCase();
+        triviaJuego.setRenderizadoAnsi(respAnsi.equals("S"));
+        String respPistas = ConsolaUtilJuego.leerString("¿Mostrar pistas al elegir dirección (a dónde llegas con cada una)? (S/N)").toUpperCase();
+        triviaJuego.setMostrarPistasMovimiento(respPistas.equals("S"));
+
         triviaJuego.configurarEIniciar(correos, esPorTiempo, tiempoGlobal);
 
         ConsolaUtilJuego.mostrarMensaje("\nGracias por jugar TRIVIA-UCAB. ¡Hasta la próxima!");
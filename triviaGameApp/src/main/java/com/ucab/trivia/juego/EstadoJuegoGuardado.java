@@ -1,13 +1,23 @@
 package com.ucab.trivia.juego;
 
 import java.util.List;
+import java.util.Map;
 
 public class EstadoJuegoGuardado {
     private List<Jugador> jugadores;
     private int indiceJugadorActual;
     private boolean modoPorTiempo;
     private int tiempoMaximoGlobalSegundos; // <-- AÑADIDO para guardar el tiempo global
-    private int version = 2; // Incrementar versión por cambio de formato
+    private TipoTablero tipoTablero = TipoTablero.HEXAGONAL; // Las partidas de versiones anteriores eran siempre hexagonales
+    private int radioTablero = TableroHexagonal.RADIO_HEXAGONO_PREDETERMINADO; // Necesario para interpretar el idCelda de cada jugador
+    private boolean bolsaPorJugador; // Sorteo sin repetición por jugador (true) o por partida (false)
+    private EstadoBolsaPreguntas bolsaPreguntas; // Bolsa de la partida
+    private Map<String, EstadoBolsaPreguntas> bolsasPorJugador; // Correo -> bolsa, si bolsaPorJugador
+    private Long semillaPartida; // null si se jugó con la fuente segura (no reproducible)
+    private long estadoAleatorioDado; // Estado del generador del dado al guardar, si hay semilla
+    private Long estadoAleatorioPreguntas; // Estado del generador de bolsas y preguntas adaptadas, si hay semilla
+    private boolean preguntasAdaptadas; // Preguntas sorteadas según la dificultad que le toca a cada jugador
+    private int version = 8; // Incrementar versión por cambio de formato
 
     public EstadoJuegoGuardado() {}
 
@@ -30,6 +40,33 @@ public class EstadoJuegoGuardado {
     public int getTiempoMaximoGlobalSegundos() { return tiempoMaximoGlobalSegundos; }
     public void setTiempoMaximoGlobalSegundos(int tiempoMaximoGlobalSegundos) { this.tiempoMaximoGlobalSegundos = tiempoMaximoGlobalSegundos; }
 
+    public TipoTablero getTipoTablero() { return tipoTablero; }
+    public void setTipoTablero(TipoTablero tipoTablero) { this.tipoTablero = tipoTablero; }
+
+    public int getRadioTablero() { return radioTablero; }
+    public void setRadioTablero(int radioTablero) { this.radioTablero = radioTablero; }
+
+    public boolean isBolsaPorJugador() { return bolsaPorJugador; }
+    public void setBolsaPorJugador(boolean bolsaPorJugador) { this.bolsaPorJugador = bolsaPorJugador; }
+
+    public boolean isPreguntasAdaptadas() { return preguntasAdaptadas; }
+    public void setPreguntasAdaptadas(boolean preguntasAdaptadas) { this.preguntasAdaptadas = preguntasAdaptadas; }
+
+    public EstadoBolsaPreguntas getBolsaPreguntas() { return bolsaPreguntas; }
+    public void setBolsaPreguntas(EstadoBolsaPreguntas bolsaPreguntas) { this.bolsaPreguntas = bolsaPreguntas; }
+
+    public Map<String, EstadoBolsaPreguntas> getBolsasPorJugador() { return bolsasPorJugador; }
+    public void setBolsasPorJugador(Map<String, EstadoBolsaPreguntas> bolsasPorJugador) { this.bolsasPorJugador = bolsasPorJugador; }
+
+    public Long getSemillaPartida() { return semillaPartida; }
+    public void setSemillaPartida(Long semillaPartida) { this.semillaPartida = semillaPartida; }
+
+    public long getEstadoAleatorioDado() { return estadoAleatorioDado; }
+    public void setEstadoAleatorioDado(long estadoAleatorioDado) { this.estadoAleatorioDado = estadoAleatorioDado; }
+
+    public Long getEstadoAleatorioPreguntas() { return estadoAleatorioPreguntas; }
+    public void setEstadoAleatorioPreguntas(Long estadoAleatorioPreguntas) { this.estadoAleatorioPreguntas = estadoAleatorioPreguntas; }
+
     public int getVersion() { return version; }
     public void setVersion(int version) { this.version = version; }
 }
\ No newline at end of file
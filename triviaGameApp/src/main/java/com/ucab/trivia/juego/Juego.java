@@ -1,17 +1,19 @@
 package com.ucab.trivia.juego;
 
 import com.ucab.trivia.domain.CategoriaTrivia;
-import com.ucab.trivia.juego.TableroHexagonal.CoordenadaHex;
 import com.ucab.trivia.domain.PreguntaDetallada;
 import com.ucab.trivia.juego.utils.ConsolaUtilJuego;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Juego {
     private List<Jugador> jugadores;
     private int indiceJugadorActual;
-    private TableroHexagonal tablero;
+    private TipoTablero tipoTablero = TipoTablero.HEXAGONAL;
+    private TopologiaTablero tablero;
     private Dado dado;
     private ServicioPreguntasJuego servicioPreguntas;
     private ServicioPersistencia servicioPersistencia;
@@ -19,13 +21,75 @@ public class Juego {
     private int tiempoMaximoGlobalSegundos;
     private Jugador ganador;
     private boolean juegoTerminadoGlobalmente;
+    private boolean renderizadoAnsi; // Tablero fijo arriba y redibujado sólo de las casillas que cambian
+    private boolean mostrarPistasMovimiento;
+    private AsesorMovimientos asesorMovimientos;
+    private boolean bolsaPorJugador; // Cada jugador tiene su propio sorteo sin repetición
+    private BolsaPreguntas bolsaPartida;
+    private final Map<String, BolsaPreguntas> bolsasPorJugador = new HashMap<>();
+    private boolean preguntasAdaptadas; // Sorteo ponderado por dificultad según los aciertos de cada jugador
+    private boolean aleatoriedadSegura; // Dado y preguntas con SecureRandom: la partida no se puede repetir
+    private Long semillaPartida; // null: se elige una al azar al iniciar
+    private FuenteAleatoria aleatorioDado;
+    private int versionBancoMostrada; // Última recarga del banco de preguntas ya anunciada
 
     public Juego() {}
 
+    public void setRenderizadoAnsi(boolean renderizadoAnsi) {
+        this.renderizadoAnsi = renderizadoAnsi;
+    }
+
+    public void setMostrarPistasMovimiento(boolean mostrarPistasMovimiento) {
+        this.mostrarPistasMovimiento = mostrarPistasMovimiento;
+    }
+
+    public void setTipoTablero(TipoTablero tipoTablero) {
+        this.tipoTablero = tipoTablero;
+    }
+
+    public void setBolsaPorJugador(boolean bolsaPorJugador) {
+        this.bolsaPorJugador = bolsaPorJugador;
+    }
+
+    /**
+     * Con preguntas adaptadas, a quien acierta mucho en una categoría le salen preguntas que suelen fallarse más,
+     * y al revés. Las preguntas pueden repetirse. Los sorteos dependen además del historial de respuestas compartido
+     * por todas las partidas, así que con la misma semilla sólo se repiten si el historial no cambió entretanto.
+     */
+    public void setPreguntasAdaptadas(boolean preguntasAdaptadas) {
+        this.preguntasAdaptadas = preguntasAdaptadas;
+    }
+
+    /**
+     * Fija la semilla de la partida para repetir una partida ya jugada (con los mismos jugadores y decisiones).
+     */
+    public void setSemillaPartida(Long semillaPartida) {
+        this.semillaPartida = semillaPartida;
+    }
+
+    public void setAleatoriedadSegura(boolean aleatoriedadSegura) {
+        this.aleatoriedadSegura = aleatoriedadSegura;
+    }
+
     private void inicializarComponentesBase() {
-        this.tablero = new TableroHexagonal(TableroHexagonal.RADIO_HEXAGONO_PREDETERMINADO);
-        this.dado = new Dado();
-        this.servicioPreguntas = new ServicioPreguntasJuego();
+        crearTablero();
+        // El dado y el sorteo de preguntas usan fuentes independientes derivadas de la misma semilla
+        FuenteAleatoria raiz;
+        if (aleatoriedadSegura) {
+            this.semillaPartida = null;
+            raiz = FuenteAleatoria.segura();
+        } else {
+            if (semillaPartida == null) semillaPartida = FuenteAleatoria.segura().nextLong();
+            raiz = FuenteAleatoria.conSemilla(semillaPartida);
+        }
+        this.aleatorioDado = raiz.dividir();
+        this.dado = new Dado(aleatorioDado);
+        this.servicioPreguntas = new ServicioPreguntasJuego(raiz.dividir());
+        ConsolaUtilJuego.mostrarMensaje(servicioPreguntas.getEstadisticasCarga().toString());
+        servicioPreguntas.iniciarRecargaAutomatica(); // Las preguntas que se aprueben en AppConfig entran sin reiniciar
+        this.versionBancoMostrada = servicioPreguntas.getVersionBanco();
+        this.bolsaPartida = servicioPreguntas.crearBolsaPreguntas();
+        this.bolsasPorJugador.clear();
         this.servicioPersistencia = new ServicioPersistencia();
         this.ganador = null;
         this.juegoTerminadoGlobalmente = false;
@@ -33,6 +97,24 @@ public class Juego {
         this.tiempoMaximoGlobalSegundos = 0;
     }
 
+    private void crearTablero() {
+        this.tablero = tipoTablero.crear();
+        this.asesorMovimientos = new AsesorMovimientos(tablero);
+    }
+
+    /**
+     * El tablero como TableroHexagonal, o null si la partida usa otra topología.
+     * Sólo el tablero hexagonal tiene coordenadas (fila, col) y radio.
+     */
+    private TableroHexagonal tableroHexagonal() {
+        return tablero instanceof TableroHexagonal ? (TableroHexagonal) tablero : null;
+    }
+
+    private void moverJugadorACelda(Jugador jugador, int idCelda) {
+        TableroHexagonal hexagonal = tableroHexagonal();
+        jugador.moverACelda(idCelda, hexagonal != null ? hexagonal.coordenadaDeCelda(idCelda) : null);
+    }
+
     public void configurarEIniciar(List<String> correosJugadores, boolean esModoPorTiempo, int tiempoGlobal) {
         inicializarComponentesBase();
         this.modoPorTiempo = esModoPorTiempo;
@@ -45,12 +127,19 @@ public class Juego {
                 EstadoJuegoGuardado estadoCargado = servicioPersistencia.cargarEstadoJuego();
                 if (estadoCargado != null && estadoCargado.getJugadores() != null && !estadoCargado.getJugadores().isEmpty()) {
                     this.jugadores = estadoCargado.getJugadores();
+                    if (estadoCargado.getTipoTablero() != null && estadoCargado.getTipoTablero() != this.tipoTablero) {
+                        this.tipoTablero = estadoCargado.getTipoTablero();
+                        crearTablero();
+                    }
                     for(Jugador j : this.jugadores) {
-                        if(j.getPosicionActual() != null) this.tablero.colocarJugadorEnCasilla(j.getCorreoElectronico(), j.getPosicionActual());
+                        resolverPosicionCargada(j, estadoCargado.getRadioTablero());
+                        this.tablero.colocarJugadorEnCasilla(j.getCorreoElectronico(), j.getIdCelda());
                     }
                     this.indiceJugadorActual = estadoCargado.getIndiceJugadorActual();
                     this.modoPorTiempo = estadoCargado.isModoPorTiempo();
                     this.tiempoMaximoGlobalSegundos = estadoCargado.getTiempoMaximoGlobalSegundos();
+                    restaurarBolsasPreguntas(estadoCargado);
+                    restaurarAleatorioDado(estadoCargado);
                     ConsolaUtilJuego.mostrarMensaje("\nPartida cargada. Turno de: " + this.jugadores.get(this.indiceJugadorActual).getCorreoElectronico());
                     iniciarBucleDeJuego();
                     return;
@@ -62,6 +151,10 @@ public class Juego {
 
         for (String correo : correosJugadores) {
             this.jugadores.add(new Jugador(correo));
+            if (bolsaPorJugador) bolsaDe(correo); // Se crean ya para que todas dependan sólo de la semilla
+        }
+        if (semillaPartida != null) {
+            ConsolaUtilJuego.mostrarMensaje("Semilla de la partida: " + semillaPartida + " (permite repetir esta partida).");
         }
         establecerPosicionesInicialesDeJugadoresYEnTablero();
         determinarPrimerJugadorEnLanzar();
@@ -70,11 +163,71 @@ public class Juego {
         iniciarBucleDeJuego();
     }
 
+    /**
+     * Ubica en el tablero a un jugador leído de una partida guardada. Usa su idCelda si la partida
+     * se guardó con un tablero igual (mismo tipo y, si es hexagonal, mismo radio); si no (partidas
+     * antiguas), lo deduce de su coordenada. Si ninguna de las dos es válida, lo coloca en el centro.
+     */
+    private void resolverPosicionCargada(Jugador j, int radioGuardado) {
+        int idCelda = TopologiaTablero.SIN_CELDA;
+        TableroHexagonal hexagonal = tableroHexagonal();
+        boolean mismoTablero = hexagonal == null || radioGuardado == hexagonal.getRadio();
+        if (mismoTablero && j.getIdCelda() >= 0 && j.getIdCelda() < tablero.getNumeroCeldas()) {
+            idCelda = j.getIdCelda();
+        } else if (hexagonal != null && j.getPosicionActual() != null) {
+            idCelda = hexagonal.indiceCelda(j.getPosicionActual());
+        }
+        if (idCelda == TopologiaTablero.SIN_CELDA) idCelda = tablero.getIdCeldaCentro();
+        moverJugadorACelda(j, idCelda);
+    }
+
+    private void restaurarBolsasPreguntas(EstadoJuegoGuardado estado) {
+        this.bolsaPorJugador = estado.isBolsaPorJugador();
+        this.preguntasAdaptadas = estado.isPreguntasAdaptadas();
+        bolsaPartida.restaurarEstado(estado.getBolsaPreguntas());
+        if (estado.getBolsasPorJugador() != null) {
+            estado.getBolsasPorJugador().forEach((correo, bolsa) -> bolsaDe(correo).restaurarEstado(bolsa));
+        }
+    }
+
+    /**
+     * Si la partida guardada tiene semilla, el dado continúa exactamente la secuencia que llevaba, y también el
+     * sorteo de preguntas adaptadas si la partida lo guardó (desde la versión 8).
+     */
+    private void restaurarAleatorioDado(EstadoJuegoGuardado estado) {
+        this.semillaPartida = estado.getSemillaPartida();
+        if (semillaPartida == null) return;
+        FuenteAleatoriaRapida fuente = new FuenteAleatoriaRapida(0);
+        fuente.setEstado(estado.getEstadoAleatorioDado());
+        this.aleatorioDado = fuente;
+        this.dado = new Dado(fuente);
+        if (estado.getEstadoAleatorioPreguntas() != null && servicioPreguntas.getFuenteAleatoria() instanceof FuenteAleatoriaRapida) {
+            ((FuenteAleatoriaRapida) servicioPreguntas.getFuenteAleatoria()).setEstado(estado.getEstadoAleatorioPreguntas());
+        }
+        ConsolaUtilJuego.mostrarMensaje("Semilla de la partida: " + semillaPartida);
+    }
+
+    private BolsaPreguntas bolsaDe(String correo) {
+        return bolsasPorJugador.computeIfAbsent(correo, c -> servicioPreguntas.crearBolsaPreguntas());
+    }
+
+    /**
+     * Saca una pregunta sin repetición de la bolsa de la partida o, si cada jugador tiene la suya, de la del jugador.
+     * Con preguntas adaptadas, la dificultad objetivo es la proporción de aciertos del jugador en la categoría.
+     */
+    private PreguntaDetallada sacarPregunta(Jugador jugador, CategoriaTrivia categoria) {
+        if (preguntasAdaptadas) {
+            return servicioPreguntas.sacarPreguntaAdaptada(categoria, jugador.getEstadisticas().calcularTasaAcierto(categoria));
+        }
+        BolsaPreguntas bolsa = bolsaPorJugador ? bolsaDe(jugador.getCorreoElectronico()) : bolsaPartida;
+        return servicioPreguntas.sacarPregunta(bolsa, categoria);
+    }
+
     private void establecerPosicionesInicialesDeJugadoresYEnTablero() {
-        CoordenadaHex coordCentro = tablero.getCoordenadaCentro();
+        int idCentro = tablero.getIdCeldaCentro();
         for (Jugador j : jugadores) {
-            j.setPosicionActual(coordCentro);
-            tablero.colocarJugadorEnCasilla(j.getCorreoElectronico(), coordCentro);
+            moverJugadorACelda(j, idCentro);
+            tablero.colocarJugadorEnCasilla(j.getCorreoElectronico(), idCentro);
         }
     }
 
@@ -105,13 +258,17 @@ public class Juego {
     private void iniciarBucleDeJuego() {
         while (!juegoTerminadoGlobalmente) {
             Jugador jugadorConTurno = jugadores.get(indiceJugadorActual);
-            ConsolaUtilJuego.limpiarConsola();
-            tablero.dibujarTableroConsola();
+            if (renderizadoAnsi) {
+                tablero.dibujarEnPantallaCompleta();
+            } else {
+                ConsolaUtilJuego.limpiarConsola();
+                tablero.dibujarTableroConsola();
+            }
             ConsolaUtilJuego.mostrarMensaje("==================================================");
+            anunciarRecargaDelBanco();
             ConsolaUtilJuego.mostrarMensaje("TURNO DE: " + jugadorConTurno.getCorreoElectronico());
-            CoordenadaHex posJugadorHex = jugadorConTurno.getPosicionActual();
-            Casilla casillaJugadorActual = tablero.getCasilla(posJugadorHex);
-            ConsolaUtilJuego.mostrarMensaje("POSICIÓN: " + posJugadorHex + " (Casilla: " + (casillaJugadorActual != null ? casillaJugadorActual.toString() : "N/A") + ")");
+            Casilla casillaJugadorActual = tablero.getCasilla(jugadorConTurno.getIdCelda());
+            ConsolaUtilJuego.mostrarMensaje("POSICIÓN: " + tablero.describirCelda(jugadorConTurno.getIdCelda()) + " (Casilla: " + (casillaJugadorActual != null ? casillaJugadorActual.toString() : "N/A") + ")");
             ConsolaUtilJuego.mostrarMensaje(jugadorConTurno.getFicha().toString());
             ConsolaUtilJuego.mostrarMensaje("--------------------------------------------------");
 
@@ -128,9 +285,16 @@ public class Juego {
         finalizarPartida();
     }
 
+    private void anunciarRecargaDelBanco() {
+        int version = servicioPreguntas.getVersionBanco();
+        if (version != versionBancoMostrada) {
+            versionBancoMostrada = version;
+            ConsolaUtilJuego.mostrarMensaje("Preguntas actualizadas. " + servicioPreguntas.getEstadisticasCarga());
+        }
+    }
+
     private boolean procesarUnaAccionCompletaDelJugador(Jugador jugador) {
-        CoordenadaHex posActualHex = jugador.getPosicionActual();
-        Casilla casillaActualTablero = tablero.getCasilla(posActualHex);
+        Casilla casillaActualTablero = tablero.getCasilla(jugador.getIdCelda());
 
         if (casillaActualTablero != null && casillaActualTablero.isEsCentro()) {
             return manejarLogicaDeAccionEnCentro(jugador);
@@ -142,37 +306,40 @@ public class Juego {
         // **INICIO DE LA MODIFICACIÓN 1: DADO IMPAR**
         int lanzamientoOriginal = dado.lanzar();
         ConsolaUtilJuego.mostrarMensaje(jugador.getCorreoElectronico() + " lanzó el dado y obtuvo: " + lanzamientoOriginal + "!");
-        int pasosObtenidos = lanzamientoOriginal;
-        if (lanzamientoOriginal % 2 != 0) { // Si es impar
-            pasosObtenidos += 2;
+        int pasosObtenidos = Dado.aplicarBonoImpar(lanzamientoOriginal);
+        if (pasosObtenidos != lanzamientoOriginal) { // Si es impar
             ConsolaUtilJuego.mostrarMensaje("¡Número impar! Obtienes un bono de +2 pasos. Moverás un total de " + pasosObtenidos + " casillas.");
         }
         // **FIN DE LA MODIFICACIÓN 1**
 
-        CoordenadaHex posicionPreviaHex = jugador.getPosicionActual();
-        tablero.quitarJugadorDeCasilla(posicionPreviaHex);
-        CoordenadaHex nuevaPosicionHex;
+        int celdaPrevia = jugador.getIdCelda();
+        tablero.quitarJugadorDeCasilla(jugador.getCorreoElectronico(), celdaPrevia);
+        int nuevaCelda;
 
-        if (jugador.getFicha().estaCompleta() && (casillaActualTablero != null && !casillaActualTablero.isEsCentro())) {
-            int distanciaNecesariaAlCentro = tablero.distanciaHexagonal(posicionPreviaHex, tablero.getCoordenadaCentro());
+        boolean fichaCompletaFueraDelCentro = jugador.getFicha().estaCompleta() && casillaActualTablero != null && !casillaActualTablero.isEsCentro();
+        if (fichaCompletaFueraDelCentro && tablero.centroAlcanzableConTiroExacto(celdaPrevia)) {
+            int distanciaNecesariaAlCentro = tablero.distanciaAlCentro(celdaPrevia);
             if (pasosObtenidos == distanciaNecesariaAlCentro) {
                 ConsolaUtilJuego.mostrarMensaje("¡Tiro exacto ("+pasosObtenidos+") para llegar al centro!");
-                nuevaPosicionHex = tablero.getCoordenadaCentro();
+                nuevaCelda = tablero.getIdCeldaCentro();
             } else {
                 ConsolaUtilJuego.mostrarMensaje("Tiro no exacto ("+pasosObtenidos+"). Necesitabas "+distanciaNecesariaAlCentro+" para el centro. No te mueves.");
-                tablero.colocarJugadorEnCasilla(jugador.getCorreoElectronico(), posicionPreviaHex);
+                tablero.colocarJugadorEnCasilla(jugador.getCorreoElectronico(), celdaPrevia);
                 return false;
             }
         } else {
-            nuevaPosicionHex = tablero.calcularNuevaPosicionEnLinea(posicionPreviaHex, pasosObtenidos);
+            if (fichaCompletaFueraDelCentro) {
+                ConsolaUtilJuego.mostrarMensaje("El centro está a " + tablero.distanciaAlCentro(celdaPrevia) + " pasos, fuera del alcance de un tiro exacto. Te mueves para acercarte.");
+            }
+            nuevaCelda = uiMoverEnLinea(celdaPrevia, pasosObtenidos);
         }
 
-        jugador.setPosicionActual(nuevaPosicionHex);
-        tablero.colocarJugadorEnCasilla(jugador.getCorreoElectronico(), nuevaPosicionHex);
-        ConsolaUtilJuego.mostrarMensaje("Te mueves a la posición: " + nuevaPosicionHex);
-        tablero.dibujarTableroConsola();
+        moverJugadorACelda(jugador, nuevaCelda);
+        tablero.colocarJugadorEnCasilla(jugador.getCorreoElectronico(), nuevaCelda);
+        ConsolaUtilJuego.mostrarMensaje("Te mueves a la posición: " + tablero.describirCelda(nuevaCelda));
+        redibujarTableroTrasMovimiento();
 
-        Casilla casillaDeLlegada = tablero.getCasilla(nuevaPosicionHex);
+        Casilla casillaDeLlegada = tablero.getCasilla(nuevaCelda);
         if (casillaDeLlegada != null && casillaDeLlegada.isEsCentro()) {
             return manejarLogicaDeAccionEnCentro(jugador);
         }
@@ -198,7 +365,7 @@ public class Juego {
         if (jugador.getFicha().estaCompleta()) {
             ConsolaUtilJuego.mostrarMensaje("¡Tienes la ficha completa! Elige una categoría para la pregunta final y ganar:");
             CategoriaTrivia categoriaFinal = uiSeleccionarCategoriaParaGanar();
-            PreguntaDetallada preguntaParaGanar = servicioPreguntas.seleccionarPreguntaAleatoria(categoriaFinal);
+            PreguntaDetallada preguntaParaGanar = sacarPregunta(jugador, categoriaFinal);
 
             if (preguntaParaGanar == null) {
                 ConsolaUtilJuego.mostrarMensaje("¡Fortuna! No hay preguntas para " + categoriaFinal + ". ¡Ganas por defecto!");
@@ -216,12 +383,12 @@ public class Juego {
             int pasosAlSalir = dado.lanzar(); // No se aplica bono impar al salir del centro por simplicidad
             ConsolaUtilJuego.mostrarMensaje(jugador.getCorreoElectronico() + " lanzó " + pasosAlSalir + " para salir.");
 
-            tablero.quitarJugadorDeCasilla(jugador.getPosicionActual());
-            CoordenadaHex nuevaPosicionTrasSalir = tablero.calcularNuevaPosicionEnLinea(jugador.getPosicionActual(), pasosAlSalir);
-            jugador.setPosicionActual(nuevaPosicionTrasSalir);
-            tablero.colocarJugadorEnCasilla(jugador.getCorreoElectronico(), nuevaPosicionTrasSalir);
-            ConsolaUtilJuego.mostrarMensaje("Te mueves a la posición: " + nuevaPosicionTrasSalir);
-            tablero.dibujarTableroConsola();
+            tablero.quitarJugadorDeCasilla(jugador.getCorreoElectronico(), jugador.getIdCelda());
+            int celdaTrasSalir = uiMoverEnLinea(jugador.getIdCelda(), pasosAlSalir);
+            moverJugadorACelda(jugador, celdaTrasSalir);
+            tablero.colocarJugadorEnCasilla(jugador.getCorreoElectronico(), celdaTrasSalir);
+            ConsolaUtilJuego.mostrarMensaje("Te mueves a la posición: " + tablero.describirCelda(celdaTrasSalir));
+            redibujarTableroTrasMovimiento();
             return true;
         }
     }
@@ -230,7 +397,7 @@ public class Juego {
         if(casillaActual.getCategoria() == null){
             return false;
         }
-        PreguntaDetallada preguntaDelTurno = servicioPreguntas.seleccionarPreguntaAleatoria(casillaActual.getCategoria());
+        PreguntaDetallada preguntaDelTurno = sacarPregunta(jugador, casillaActual.getCategoria());
         if (preguntaDelTurno == null) {
             ConsolaUtilJuego.mostrarMensaje("No hay preguntas para " + casillaActual.getCategoria() + ". ¡Qué suerte! Sigues jugando.");
             return true;
@@ -239,8 +406,7 @@ public class Juego {
             ConsolaUtilJuego.mostrarMensaje("¡Respuesta Correcta!");
 
             // **INICIO DE LA MODIFICACIÓN 2: ESQUINAS RADIALES**
-            CoordenadaHex posActual = jugador.getPosicionActual();
-            if (tablero.esCasillaVerticeRadial(posActual)) {
+            if (tablero.esCasillaVerticeRadial(jugador.getIdCelda())) {
                 ConsolaUtilJuego.mostrarMensaje("¡BONUS! ¡Has acertado en una casilla de esquina radial y ganas todas las categorías!");
                 jugador.getFicha().rellenarTodasLasCategorias();
             } else {
@@ -266,6 +432,27 @@ public class Juego {
         }
     }
 
+    /**
+     * Pide al jugador una opción de movimiento (en el hexágono, una dirección) y la resuelve con las tablas del tablero.
+     * @return El idCelda de llegada.
+     */
+    private int uiMoverEnLinea(int celdaInicio, int pasos) {
+        int opciones = asesorMovimientos.calcular(celdaInicio, pasos);
+        if (opciones == 0) return celdaInicio;
+        ConsolaUtilJuego.mostrarMensaje("Elige una dirección para moverte " + pasos + " pasos:");
+        for (int i = 0; i < opciones; i++) {
+            String opcion = (i + 1) + ". " + tablero.describirOpcionMovimiento(celdaInicio, asesorMovimientos.getOpcion(i));
+            if (mostrarPistasMovimiento) opcion += " -> " + asesorMovimientos.describirOpcion(i);
+            ConsolaUtilJuego.mostrarMensaje(opcion);
+        }
+        int eleccion = ConsolaUtilJuego.leerInt("Elige dirección", 1, opciones);
+        int celdaFinal = asesorMovimientos.getDestino(eleccion - 1);
+        if (asesorMovimientos.isBloqueado(eleccion - 1)) {
+            ConsolaUtilJuego.mostrarMensaje("El camino se bloquea. Te detienes en: " + tablero.describirCelda(celdaFinal));
+        }
+        return celdaFinal;
+    }
+
     private boolean uiRealizarPreguntaAlJugador(Jugador jugador, PreguntaDetallada pregunta) {
         ConsolaUtilJuego.mostrarMensaje("\nCATEGORÍA: " + pregunta.getCategoria().getNombreMostrado());
         ConsolaUtilJuego.mostrarMensaje("PREGUNTA: " + pregunta.getPregunta());
@@ -280,9 +467,10 @@ public class Juego {
         if (modoPorTiempo && respuestaDelUsuario != null) {
             jugador.getEstadisticas().agregarTiempoRespuesta(tiempoFin - tiempoInicio);
         }
-        if (respuestaDelUsuario == null) return false;
-        boolean esCorrecta = respuestaDelUsuario.trim().equalsIgnoreCase(pregunta.getRespuesta().trim());
+        boolean esCorrecta = respuestaDelUsuario != null && servicioPreguntas.getRespuestaAceptada(pregunta).acepta(respuestaDelUsuario);
+        jugador.getEstadisticas().registrarPreguntaRespondida(pregunta.getCategoria());
         if (esCorrecta) jugador.getEstadisticas().registrarRespuestaCorrecta(pregunta.getCategoria());
+        servicioPreguntas.registrarResultado(pregunta, esCorrecta);
         return esCorrecta;
     }
 
@@ -297,6 +485,11 @@ public class Juego {
         return todasLasCategorias[opcionElegida - 1];
     }
 
+    private void redibujarTableroTrasMovimiento() {
+        if (renderizadoAnsi) tablero.actualizarCambiosConsola();
+        else tablero.dibujarTableroConsola();
+    }
+
     private void pasarAlSiguienteJugador() {
         indiceJugadorActual = (indiceJugadorActual + 1) % jugadores.size();
     }
@@ -304,11 +497,33 @@ public class Juego {
     private void guardarEstadoActualDelJuego() {
         if (servicioPersistencia != null && jugadores != null && !jugadores.isEmpty() && !juegoTerminadoGlobalmente) {
             EstadoJuegoGuardado estadoActual = new EstadoJuegoGuardado(new ArrayList<>(jugadores), indiceJugadorActual, modoPorTiempo, this.tiempoMaximoGlobalSegundos);
+            estadoActual.setTipoTablero(tipoTablero);
+            TableroHexagonal hexagonal = tableroHexagonal();
+            if (hexagonal != null) estadoActual.setRadioTablero(hexagonal.getRadio());
+            estadoActual.setBolsaPorJugador(bolsaPorJugador);
+            estadoActual.setPreguntasAdaptadas(preguntasAdaptadas);
+            if (aleatorioDado instanceof FuenteAleatoriaRapida) {
+                estadoActual.setSemillaPartida(semillaPartida);
+                estadoActual.setEstadoAleatorioDado(((FuenteAleatoriaRapida) aleatorioDado).getEstado());
+                if (servicioPreguntas.getFuenteAleatoria() instanceof FuenteAleatoriaRapida) {
+                    estadoActual.setEstadoAleatorioPreguntas(((FuenteAleatoriaRapida) servicioPreguntas.getFuenteAleatoria()).getEstado());
+                }
+            }
+            estadoActual.setBolsaPreguntas(servicioPreguntas.exportarEstado(bolsaPartida));
+            if (bolsaPorJugador) {
+                Map<String, EstadoBolsaPreguntas> bolsas = new HashMap<>();
+                bolsasPorJugador.forEach((correo, bolsa) -> bolsas.put(correo, servicioPreguntas.exportarEstado(bolsa)));
+                estadoActual.setBolsasPorJugador(bolsas);
+            }
             servicioPersistencia.guardarEstadoJuego(estadoActual);
+            // El historial no se reescribe en cada acción: se guarda al terminar la partida y al liberar el banco
         }
     }
 
     private void finalizarPartida() {
+        if (renderizadoAnsi) tablero.restaurarTerminal();
+        servicioPreguntas.guardarHistorial();
+        servicioPreguntas.close(); // Devuelve el banco compartido (y deja de vigilarlo si era la última partida)
         // ... (sin cambios)
         ConsolaUtilJuego.mostrarMensaje("\n--- ESTADÍSTICAS FINALES ---");
         if (ganador != null) {